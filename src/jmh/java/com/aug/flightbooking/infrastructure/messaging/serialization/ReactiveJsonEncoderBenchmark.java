@@ -0,0 +1,76 @@
+package com.aug.flightbooking.infrastructure.messaging.serialization;
+
+import com.aug.flightbooking.application.events.ReservationCreatedEvent;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la serialización de un evento con el camino anterior (Jackson2JsonEncoder + DataBuffer + Mono)
+ * con el camino síncrono de ReactiveJsonEncoder.serialize y con el codec binario compacto.
+ * Ejecutar con ./gradlew jmh y comparar gc.alloc.rate.norm (bytes asignados por evento).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReactiveJsonEncoderBenchmark {
+
+    private ReservationCreatedEvent event;
+    private ReactiveJsonEncoder encoder;
+    private Jackson2JsonEncoder legacyEncoder;
+    private DefaultDataBufferFactory bufferFactory;
+    private CompactBinaryEventCodec compactCodec;
+    private byte[] compactPayload;
+
+    @Setup
+    public void setup() {
+        event = new ReservationCreatedEvent(12345L, 678L, "John Doe", "CC-123456789");
+        encoder = new ReactiveJsonEncoder();
+        legacyEncoder = new Jackson2JsonEncoder();
+        bufferFactory = new DefaultDataBufferFactory();
+        compactCodec = new CompactBinaryEventCodec();
+        compactPayload = compactCodec.encode(event);
+    }
+
+    /**
+     * Réplica del encode anterior: encoder de WebFlux, join de buffers y copia final a byte[].
+     */
+    @Benchmark
+    public byte[] legacyDataBufferEncode() {
+        return DataBufferUtils.join(
+                legacyEncoder.encode(
+                        Mono.just(event),
+                        bufferFactory,
+                        ResolvableType.forInstance(event),
+                        MediaType.APPLICATION_JSON,
+                        null
+                )
+        ).map(dataBuffer -> {
+            byte[] bytes = new byte[dataBuffer.readableByteCount()];
+            dataBuffer.read(bytes);
+            DataBufferUtils.release(dataBuffer);
+            return bytes;
+        }).block();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return encoder.serialize(event);
+    }
+
+    @Benchmark
+    public byte[] compactEncode() {
+        return compactCodec.encode(event);
+    }
+
+    @Benchmark
+    public ReservationCreatedEvent compactDecode() {
+        return compactCodec.decode(compactPayload, ReservationCreatedEvent.class);
+    }
+}
@@ -0,0 +1,16 @@
+package com.aug.flightbooking.application.commands;
+
+import java.time.Instant;
+
+/**
+ * Filtros y cursor para listar vuelos. Los campos null no filtran; limit null devuelve todos los que coincidan.
+ * El cursor es el id del último vuelo recibido: la siguiente página empieza en el id siguiente.
+ */
+public record SearchFlightsCommand(
+        String origin,
+        String destination,
+        Instant departureFrom,
+        Instant departureTo,
+        Long afterId,
+        Integer limit
+) {}
@@ -0,0 +1,14 @@
+package com.aug.flightbooking.application.commands;
+
+import com.aug.flightbooking.domain.models.reservation.ReservationStatus;
+
+/**
+ * Filtros y cursor para listar reservas. Los campos null no filtran; limit null devuelve todas las que coincidan.
+ * El cursor es el id de la última reserva recibida: la siguiente página empieza en el id siguiente.
+ */
+public record SearchReservationsCommand(
+        ReservationStatus status,
+        Long flightId,
+        Long afterId,
+        Integer limit
+) {}
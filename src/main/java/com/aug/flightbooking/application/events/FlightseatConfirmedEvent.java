@@ -2,13 +2,20 @@ package com.aug.flightbooking.application.events;
 
 public record FlightseatConfirmedEvent(Long reservationId) implements IntegrationEvent
 {
+    public static final String EVENT_TYPE = "flightseat.confirmed";
+
     @Override
     public String getEventType() {
-        return "flightseat.confirmed";
+        return EVENT_TYPE;
     }
 
     @Override
     public String getVersion() {
         return "v1";
     }
+
+    @Override
+    public String getPartitionKey() {
+        return String.valueOf(reservationId);
+    }
 }
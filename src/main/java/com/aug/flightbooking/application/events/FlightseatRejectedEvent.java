@@ -2,13 +2,20 @@ package com.aug.flightbooking.application.events;
 
 public record FlightseatRejectedEvent(Long reservationId, String reason) implements IntegrationEvent {
 
+    public static final String EVENT_TYPE = "flightseat.rejected";
+
     @Override
     public String getEventType() {
-        return "flightseat.rejected";
+        return EVENT_TYPE;
     }
 
     @Override
     public String getVersion() {
         return "v1";
     }
+
+    @Override
+    public String getPartitionKey() {
+        return String.valueOf(reservationId);
+    }
 }
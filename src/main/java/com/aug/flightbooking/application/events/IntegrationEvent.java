@@ -43,4 +43,11 @@ public interface IntegrationEvent extends Serializable {
      */
     String getVersion();
 
+    /**
+     * Clave de partición del evento: los eventos con la misma clave van a la misma partición
+     * y se consumen en orden. Las decisiones de cupo se agrupan por vuelo y el ciclo de vida
+     * de la reserva por reserva.
+     */
+    String getPartitionKey();
+
 }
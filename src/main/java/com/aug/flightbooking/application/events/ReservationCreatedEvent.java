@@ -7,13 +7,20 @@ public record ReservationCreatedEvent(
     String documentId
 ) implements IntegrationEvent {
 
+    public static final String EVENT_TYPE = "reservation.created";
+
     @Override
     public String getEventType() {
-        return "reservation.created";
+        return EVENT_TYPE;
     }
 
     @Override
     public String getVersion() {
         return "v1";
     }
+
+    @Override
+    public String getPartitionKey() {
+        return String.valueOf(flightId);
+    }
 }
@@ -4,13 +4,20 @@ public record ReservationEmittedEvent(
     Long reservationId
 ) implements IntegrationEvent {
 
+    public static final String EVENT_TYPE = "reservation.emitted";
+
     @Override
     public String getEventType() {
-        return "reservation.emitted";
+        return EVENT_TYPE;
     }
 
     @Override
     public String getVersion() {
         return "v1";
     }
+
+    @Override
+    public String getPartitionKey() {
+        return String.valueOf(reservationId);
+    }
 }
@@ -11,4 +11,9 @@ public record ReservationFailedEvent(Long reservationId, String reason) implemen
     public String getVersion() {
         return "v1";
     }
+
+    @Override
+    public String getPartitionKey() {
+        return String.valueOf(reservationId);
+    }
 }
@@ -5,13 +5,20 @@ public record TicketCreatedEvent(
     String message
 ) implements IntegrationEvent {
 
+    public static final String EVENT_TYPE = "ticket.created";
+
     @Override
     public String getEventType() {
-        return "ticket.created";
+        return EVENT_TYPE;
     }
 
     @Override
     public String getVersion() {
         return "v1";
     }
+
+    @Override
+    public String getPartitionKey() {
+        return String.valueOf(reservationId);
+    }
 }
@@ -2,9 +2,20 @@ package com.aug.flightbooking.application.ports.in;
 
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 /**
  * Caso de uso para manejar el evento de reserva fallida.
  */
 public interface FailReservationUseCase {
-    Mono<Void> failReservations(long timeSeconds);
-}
\ No newline at end of file
+    /**
+     * Barrido de respaldo: falla las reservas sin respuesta con más de {@code timeSeconds},
+     * recorriéndolas en páginas de {@code pageSize}.
+     */
+    Mono<Void> failReservations(long timeSeconds, int pageSize);
+
+    /**
+     * Falla las reservas indicadas cuyo timeout ya expiró, siempre que sigan en CREATED o PENDING.
+     */
+    Mono<Void> failExpiredReservations(List<Long> reservationIds);
+}
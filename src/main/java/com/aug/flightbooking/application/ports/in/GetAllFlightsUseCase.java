@@ -1,8 +1,14 @@
 package com.aug.flightbooking.application.ports.in;
 
+import com.aug.flightbooking.application.commands.SearchFlightsCommand;
 import com.aug.flightbooking.domain.models.flight.Flight;
 import reactor.core.publisher.Flux;
 
 public interface GetAllFlightsUseCase {
     Flux<Flight> getAllFlights();
+
+    /**
+     * Vuelos que cumplen los filtros, ordenados por id a partir del cursor.
+     */
+    Flux<Flight> searchFlights(SearchFlightsCommand command);
 }
@@ -1,8 +1,14 @@
 package com.aug.flightbooking.application.ports.in;
 
+import com.aug.flightbooking.application.commands.SearchReservationsCommand;
 import com.aug.flightbooking.domain.models.reservation.Reservation;
 import reactor.core.publisher.Flux;
 
 public interface GetAllReservationsUseCase {
     Flux<Reservation> getAllReservations();
+
+    /**
+     * Reservas que cumplen los filtros, ordenadas por id a partir del cursor.
+     */
+    Flux<Reservation> searchReservations(SearchReservationsCommand command);
 }
@@ -3,9 +3,17 @@ package com.aug.flightbooking.application.ports.in;
 import com.aug.flightbooking.application.events.ReservationCreatedEvent;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 /**
  * Caso de uso para manejar eventos de reserva creada.
  */
 public interface ReservationCreatedEventHandler {
     Mono<Void> handle(ReservationCreatedEvent event);
+
+    /**
+     * Procesa un lote de eventos: agrupa por vuelo, reserva los cupos de cada grupo en una sola
+     * operación y publica las confirmaciones y rechazos en bloque.
+     */
+    Mono<Void> handleBatch(List<ReservationCreatedEvent> events);
 }
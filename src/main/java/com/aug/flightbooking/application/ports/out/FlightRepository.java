@@ -1,5 +1,6 @@
 package com.aug.flightbooking.application.ports.out;
 
+import com.aug.flightbooking.application.commands.SearchFlightsCommand;
 import com.aug.flightbooking.domain.models.flight.Flight;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -8,4 +9,21 @@ public interface FlightRepository {
     Mono<Flight> findById(Long flightId);
     Mono<Flight> save(Flight flight);
     Flux<Flight> findAll();
+
+    /**
+     * Filtra y pagina en la base de datos (keyset por id).
+     */
+    Flux<Flight> search(SearchFlightsCommand command);
+
+    /**
+     * Reserva un asiento del vuelo en una sola operación atómica.
+     * Retorna true si se reservó el asiento, false si el vuelo no existe o ya no tiene cupos.
+     */
+    Mono<Boolean> tryReserveSeat(Long flightId);
+
+    /**
+     * Reserva hasta {@code requested} asientos del vuelo en una sola operación atómica.
+     * Retorna cuántos asientos se concedieron; vacío si el vuelo no existe.
+     */
+    Mono<Integer> tryReserveSeats(Long flightId, int requested);
 }
@@ -3,7 +3,14 @@ package com.aug.flightbooking.application.ports.out;
 import com.aug.flightbooking.application.events.FlightseatConfirmedEvent;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public interface FlightseatConfirmedEventPublisher {
 
     Mono<Void> publish(FlightseatConfirmedEvent event);
+
+    /**
+     * Publica varios eventos en un único envío al broker.
+     */
+    Mono<Void> publishAll(List<FlightseatConfirmedEvent> events);
 }
@@ -3,7 +3,14 @@ package com.aug.flightbooking.application.ports.out;
 import com.aug.flightbooking.application.events.FlightseatRejectedEvent;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public interface FlightseatRejectedEventPublisher {
 
     Mono<Void> publish(FlightseatRejectedEvent event);
+
+    /**
+     * Publica varios eventos en un único envío al broker.
+     */
+    Mono<Void> publishAll(List<FlightseatRejectedEvent> events);
 }
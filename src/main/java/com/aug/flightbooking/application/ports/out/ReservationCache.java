@@ -2,6 +2,9 @@ package com.aug.flightbooking.application.ports.out;
 
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Puerto de salida para registrar reservas creadas en Redis y así monitorear expiraciones.
  */
@@ -21,4 +24,10 @@ public interface ReservationCache {
      * Obtiene el valor guardado en la caché para la reservación
      */
     Mono<String> get(Long reservationId);
+
+    /**
+     * Obtiene en una sola consulta los valores guardados para varias reservaciones.
+     * Las reservaciones sin valor en caché no aparecen en el mapa.
+     */
+    Mono<Map<Long, String>> getAll(List<Long> reservationIds);
 }
@@ -3,6 +3,10 @@ package com.aug.flightbooking.application.ports.out;
 import com.aug.flightbooking.application.events.ReservationCreatedEvent;
 import reactor.core.publisher.Mono;
 
+/**
+ * Puerto de salida para publicar ReservationCreated.
+ * La implementación lo registra en la transacción en curso; el envío al broker es asíncrono.
+ */
 public interface ReservationCreatedEventPublisher {
 
     Mono<Void> publish(ReservationCreatedEvent event);
@@ -1,6 +1,8 @@
 package com.aug.flightbooking.application.ports.out;
 
+import com.aug.flightbooking.application.commands.SearchReservationsCommand;
 import com.aug.flightbooking.domain.models.reservation.Reservation;
+import com.aug.flightbooking.domain.models.reservation.ReservationStatus;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -12,4 +14,27 @@ public interface ReservationRepository {
     Mono<Reservation> findById(Long id);
     Flux<Reservation> findReservationsBefore(Instant threshold, List<String> statuses);
     Flux<Reservation> findAll();
+
+    /**
+     * Filtra y pagina en la base de datos (keyset por id).
+     */
+    Flux<Reservation> search(SearchReservationsCommand command);
+
+    /**
+     * Reservas CREATED o PENDING creadas antes de {@code threshold}, ordenadas por (createdAt, id) y posteriores
+     * al cursor (afterCreatedAt, afterId). Como máximo {@code limit} reservas.
+     */
+    Flux<Reservation> findPendingPage(Instant threshold, Instant afterCreatedAt, Long afterId, int limit);
+
+    /**
+     * Compare-and-set de una reserva: escribe solo status y message si su estado actual está en {@code expectedStatuses}.
+     * Devuelve false si la reserva no existe o su estado ya no es el esperado.
+     */
+    Mono<Boolean> compareAndSetStatus(Long id, List<String> expectedStatuses, ReservationStatus target, String message);
+
+    /**
+     * Cambia a {@code target} en una sola sentencia las reservas indicadas que sigan en alguno de {@code fromStatuses}.
+     * messages[i] es el mensaje de ids[i]. Devuelve los ids realmente actualizados.
+     */
+    Flux<Long> transitionStatus(List<Long> ids, List<String> messages, ReservationStatus target, List<String> fromStatuses);
 }
@@ -12,10 +12,13 @@ import com.aug.flightbooking.domain.models.reservation.Reservation;
 import com.aug.flightbooking.domain.models.reservation.ReservationStatusAction;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Mono;
 
 /**
  * Caso de uso reactivo para crear una nueva reserva.
+ * La reserva (ya en PENDING) y su evento ReservationCreated se escriben en la misma transacción (outbox):
+ * la publicación en Kafka ocurre después, fuera del request, y nunca queda una sin la otra.
  */
 @Service
 @RequiredArgsConstructor
@@ -24,15 +27,18 @@ public class CreateReservationService implements CreateReservationUseCase {
     private final ReservationRepository reservationRepository;
     private final ReservationCreatedEventPublisher eventPublisher;
     private final ReservationCache reservationCache;
-    private final ReservationStatusUpdater reservationStatusUpdater;
 
     @Override
+    @Transactional
     public Mono<ReservationResult> createReservation(CreateReservationCommand command) {
 
         Reservation reservation = Reservation.create(
                 command.flightId(),
                 new PassengerInfo(command.fullName(), command.documentId())
         );
+        // CREATED -> PENDING en memoria, validado por ReservationStateMachine: el evento se confirma en la
+        // misma transacción que el INSERT, así que la reserva se escribe una sola vez ya en PENDING
+        ReservationStatusAction.PENDING.apply(reservation);
 
         return reservationRepository.save(reservation)
             .flatMap(saved -> {
@@ -43,18 +49,13 @@ public class CreateReservationService implements CreateReservationUseCase {
                       saved.getPassengerInfo().getFullName(),
                       saved.getPassengerInfo().getDocumentId()
                 );
-                // 2. De forma asíncrona: publica el evento y envía registro de timeout a Redis
+                // 2. El evento queda en el outbox dentro de la transacción
                 Mono<Void> publish = eventPublisher.publish(event);
+                // 3. En paralelo se registra el timeout; si la transacción se revierte, el timeout
+                //    vence sobre una reserva inexistente y no cambia nada
                 Mono<Void> track = reservationCache.registerTimeout(saved.getId());
 
-                // 3. Esperar a que ambos terminen, luego actualizar estado a PENDING
                 return Mono.when(publish, track)
-                        //Esperamos que ambos terminen con Exito, y guardamos el nuevo estado
-                        .then(reservationStatusUpdater.updateStatus(
-                                saved,
-                                ReservationStatusAction.PENDING
-                        ))
-                        // En este caso Then es un estado opcional, se puede quitar pero no se hace el updateStatus
                         .thenReturn(saved);
                 })
 
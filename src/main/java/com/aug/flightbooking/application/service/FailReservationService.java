@@ -3,15 +3,17 @@ package com.aug.flightbooking.application.service;
 import com.aug.flightbooking.application.ports.in.FailReservationUseCase;
 import com.aug.flightbooking.application.ports.out.ReservationCache;
 import com.aug.flightbooking.application.ports.out.ReservationRepository;
+import com.aug.flightbooking.domain.models.reservation.Reservation;
 import com.aug.flightbooking.domain.models.reservation.ReservationStatus;
-import com.aug.flightbooking.domain.models.reservation.ReservationStatusAction;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Caso de uso reactivo para fallar las reservas que no han sido contestadas.
@@ -21,43 +23,93 @@ import java.util.List;
 @Slf4j
 public class FailReservationService implements FailReservationUseCase {
 
+    private static final String EXPIRED_MESSAGE = "Reserva expirada en la caché de Redis. TimeOut...";
+
     private final ReservationRepository reservationRepository;
     private final ReservationCache reservationCache; // puerto de salida (redis en infra)
     private final ReservationStatusUpdater reservationStatusUpdater;
 
+    /**
+     * Recorre las reservas vencidas por páginas con keyset (createdAt, id): cada página es una consulta acotada
+     * sobre el índice parcial, un MGET a Redis y un único UPDATE. Cada página se emite recién cuando su UPDATE
+     * terminó y expand pide la siguiente al recibirla, así la consulta de una página nunca se solapa con el
+     * procesamiento de la anterior y la memoria queda limitada a {@code pageSize} reservas.
+     */
     @Override
-    public Mono<Void> failReservations(long timeSeconds) {
+    public Mono<Void> failReservations(long timeSeconds, int pageSize) {
         Instant expirationThreshold = Instant.now().minusSeconds(timeSeconds);
         log.debug("Ejecutando failReservations en Instant: {}", expirationThreshold);
 
-        List<String> statuses = List.of(ReservationStatus.CREATED.name(), ReservationStatus.PENDING.name());
-        return reservationRepository.findReservationsBefore(expirationThreshold, statuses)
-                .doOnSubscribe(__ -> log.debug("Buscando reservas vencidas en BD..."))
-                .doOnNext(r -> log.debug("Reserva vencida encontrada: id={}", r.getId()))
-                .doOnComplete(() -> log.debug("Búsqueda de reservas vencidas completada"))
-                .flatMap(reservation -> {
-                    Long reservationId = reservation.getId();
-                    return reservationCache.get(reservationId)
-                        .defaultIfEmpty("MISSING") // <- Valor ficticio para controlar si no hay en caché
-                        .flatMap(cachedValue -> {
-                            StringBuilder msg = new StringBuilder("Reserva ");
-                            if ("MISSING".equals(cachedValue)) {
-                                msg.append("NO ");
-                            }
-                            msg.append("encontrada en la caché de Redis. ")
-                                    .append("TimeOut... Created At: ")
-                                    .append(reservation.getCreatedAt())
-                                    .append(" Time now ")
-                                    .append(expirationThreshold);
-
-                            return reservationStatusUpdater.updateStatus(
-                                    reservationId,
-                                    msg.toString(),
-                                    ReservationStatusAction.FAILED
-                            );
-                        });
+        return failNextPage(expirationThreshold, Instant.EPOCH, 0L, pageSize)
+                .expand(page -> {
+                    if (page.size() < pageSize) {
+                        return Mono.empty();
+                    }
+                    Reservation last = page.get(page.size() - 1);
+                    return failNextPage(expirationThreshold, last.getCreatedAt(), last.getId(), pageSize);
                 })
                 .then();
+    }
+
+    /**
+     * Lee una página y la falla; emite la página (para calcular el cursor siguiente) solo cuando terminó.
+     */
+    private Mono<List<Reservation>> failNextPage(Instant threshold, Instant afterCreatedAt, Long afterId, int pageSize) {
+        return nextPage(threshold, afterCreatedAt, afterId, pageSize)
+                .flatMap(page -> failPage(page, threshold).thenReturn(page));
+    }
+
+    private Mono<List<Reservation>> nextPage(Instant threshold, Instant afterCreatedAt, Long afterId, int pageSize) {
+        return reservationRepository.findPendingPage(threshold, afterCreatedAt, afterId, pageSize)
+                .collectList()
+                .filter(page -> !page.isEmpty())
+                .doOnNext(page -> log.debug("Página de reservas vencidas: {} desde id={}", page.size(), afterId));
+    }
+
+    private Mono<Void> failPage(List<Reservation> page, Instant expirationThreshold) {
+        List<Long> reservationIds = page.stream().map(Reservation::getId).toList();
+        return reservationCache.getAll(reservationIds)
+                .flatMap(cached -> {
+                    Map<Long, String> messages = new LinkedHashMap<>();
+                    page.forEach(reservation -> messages.put(reservation.getId(),
+                            timeoutMessage(reservation, cached.containsKey(reservation.getId()), expirationThreshold)));
+                    return failAll(messages);
+                });
+    }
+
+    private static String timeoutMessage(Reservation reservation, boolean cached, Instant expirationThreshold) {
+        StringBuilder msg = new StringBuilder("Reserva ");
+        if (!cached) {
+            msg.append("NO ");
+        }
+        return msg.append("encontrada en la caché de Redis. ")
+                .append("TimeOut... Created At: ")
+                .append(reservation.getCreatedAt())
+                .append(" Time now ")
+                .append(expirationThreshold)
+                .toString();
+    }
 
+    /**
+     * Falla exactamente las reservas cuyo timeout expiró en Redis. Las que ya recibieron respuesta
+     * (cualquier estado distinto de CREATED o PENDING) quedan fuera por la condición del UPDATE.
+     */
+    @Override
+    public Mono<Void> failExpiredReservations(List<Long> reservationIds) {
+        log.debug("Fallando {} reservas con timeout expirado", reservationIds.size());
+        Map<Long, String> messages = new LinkedHashMap<>();
+        reservationIds.forEach(reservationId -> messages.put(reservationId, EXPIRED_MESSAGE));
+        return failAll(messages);
+    }
+
+    /**
+     * Un único UPDATE por lote; solo cambian las reservas que siguen en CREATED o PENDING,
+     * así una confirmación concurrente nunca se sobrescribe con FAILED.
+     */
+    private Mono<Void> failAll(Map<Long, String> messages) {
+        return reservationStatusUpdater.transitionStatuses(messages, ReservationStatus.FAILED)
+                .count()
+                .doOnNext(failed -> log.info("Reservas fallidas por timeout: {} de {}", failed, messages.size()))
+                .then();
     }
 }
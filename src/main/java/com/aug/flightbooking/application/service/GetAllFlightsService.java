@@ -1,5 +1,6 @@
 package com.aug.flightbooking.application.service;
 
+import com.aug.flightbooking.application.commands.SearchFlightsCommand;
 import com.aug.flightbooking.application.ports.in.GetAllFlightsUseCase;
 import com.aug.flightbooking.application.ports.out.FlightRepository;
 import com.aug.flightbooking.domain.models.flight.Flight;
@@ -17,4 +18,9 @@ public class GetAllFlightsService implements GetAllFlightsUseCase {
     public Flux<Flight> getAllFlights() {
         return flightRepository.findAll();
     }
+
+    @Override
+    public Flux<Flight> searchFlights(SearchFlightsCommand command) {
+        return flightRepository.search(command);
+    }
 }
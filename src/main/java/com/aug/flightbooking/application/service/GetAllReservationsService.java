@@ -1,5 +1,6 @@
 package com.aug.flightbooking.application.service;
 
+import com.aug.flightbooking.application.commands.SearchReservationsCommand;
 import com.aug.flightbooking.application.ports.in.GetAllReservationsUseCase;
 import com.aug.flightbooking.application.ports.out.ReservationRepository;
 import com.aug.flightbooking.domain.models.reservation.Reservation;
@@ -17,4 +18,9 @@ public class GetAllReservationsService implements GetAllReservationsUseCase {
     public Flux<Reservation> getAllReservations() {
         return reservationRepository.findAll();
     }
+
+    @Override
+    public Flux<Reservation> searchReservations(SearchReservationsCommand command) {
+        return reservationRepository.search(command);
+    }
 }
@@ -3,6 +3,7 @@ package com.aug.flightbooking.application.service;
 import com.aug.flightbooking.application.events.TicketCreatedEvent;
 import com.aug.flightbooking.application.ports.in.ReservationConfirmedEventHandler;
 import com.aug.flightbooking.application.ports.out.ReservationRepository;
+import com.aug.flightbooking.domain.exceptions.OptimisticConcurrencyException;
 import com.aug.flightbooking.domain.models.reservation.ReservationStatusAction;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -34,7 +35,8 @@ public class ReservationConfirmedEventHandlerService implements ReservationConfi
                 return reservationStatusUpdater.updateStatus(
                         reservation, ReservationStatusAction.CONFIRMED);
             })
-            .onErrorResume(ex -> {
+            // Un conflicto de versión sube al listener, que reintenta releyendo la reserva
+            .onErrorResume(ex -> !(ex instanceof OptimisticConcurrencyException), ex -> {
                 log.error("Técnico: ", ex);
                 return Mono.empty();
             });
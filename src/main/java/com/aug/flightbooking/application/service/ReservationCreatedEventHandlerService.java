@@ -9,14 +9,25 @@ import com.aug.flightbooking.application.ports.out.FlightseatRejectedEventPublis
 import com.aug.flightbooking.application.ports.out.FlightRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
 
 /**
  * Procesa ReservationCreatedEvent desde Reservation.
  * Verifica si el vuelo tiene cupos y publica el evento correspondiente.
+ * La reserva de cupos y los eventos resultantes (outbox) van en la misma transacción, y los errores se
+ * propagan al listener para que reintente. Si la transacción se revierte, los cupos vuelven: el UPDATE de
+ * flight se deshace o, con el inventario en memoria, se deshace el registro en seat_grant y el contador
+ * devuelve los asientos. Un reintento parte de cero, sin asientos retenidos ni eventos perdidos.
  */
 @Service
 @RequiredArgsConstructor
@@ -28,6 +39,7 @@ public class ReservationCreatedEventHandlerService implements ReservationCreated
     private final FlightseatRejectedEventPublisher flightseatRejectedEventPublisher;
 
     @Override
+    @Transactional
     public Mono<Void> handle(ReservationCreatedEvent event) {
 //        // Generar número entre 0 y 99
 //        int random = ThreadLocalRandom.current().nextInt(100);
@@ -38,25 +50,85 @@ public class ReservationCreatedEventHandlerService implements ReservationCreated
 //            return Mono.empty();
 //        }
 
+        // Un solo UPDATE condicional: el chequeo de cupo y el incremento ocurren en la BD
+        return flightRepository.tryReserveSeat(event.flightId())
+            .flatMap(reserved -> {
+                if (reserved) {
+                    log.info("[handle][reservationId={}] asiento reservado: flightId={}", event.reservationId(), event.flightId());
+                    return flightseatConfirmedEventPublisher.publish(
+                        new FlightseatConfirmedEvent(event.reservationId()));
+                }
+                return rejectOrIgnore(event);
+            });
+    }
+
+    @Override
+    @Transactional
+    public Mono<Void> handleBatch(List<ReservationCreatedEvent> events) {
+        if (events.isEmpty()) {
+            return Mono.empty();
+        }
+        // Se conserva el orden de llegada dentro de cada vuelo: los primeros en llegar obtienen cupo
+        Map<Long, List<ReservationCreatedEvent>> byFlight = events.stream()
+            .collect(Collectors.groupingBy(ReservationCreatedEvent::flightId, LinkedHashMap::new, Collectors.toList()));
+
+        return Flux.fromIterable(byFlight.entrySet())
+            .concatMap(entry -> claimSeats(entry.getKey(), entry.getValue()))
+            .collectList()
+            .flatMap(decisions -> {
+                List<FlightseatConfirmedEvent> confirmed = new ArrayList<>();
+                List<FlightseatRejectedEvent> rejected = new ArrayList<>();
+                decisions.forEach(decision -> {
+                    confirmed.addAll(decision.confirmed());
+                    rejected.addAll(decision.rejected());
+                });
+                log.info("[handleBatch] eventos={} vuelos={} confirmados={} rechazados={}",
+                    events.size(), byFlight.size(), confirmed.size(), rejected.size());
+                return Mono.when(
+                    flightseatConfirmedEventPublisher.publishAll(confirmed),
+                    flightseatRejectedEventPublisher.publishAll(rejected));
+            });
+    }
+
+    /**
+     * Reserva en una sola sentencia los cupos pedidos por el grupo de un vuelo.
+     * Los primeros {@code granted} eventos se confirman y el resto se rechaza.
+     * Un error técnico falla el lote completo y revierte los cupos ya reservados por los demás vuelos.
+     */
+    private Mono<SeatDecision> claimSeats(Long flightId, List<ReservationCreatedEvent> group) {
+        return flightRepository.tryReserveSeats(flightId, group.size())
+            .map(granted -> {
+                log.info("[handleBatch][flightId={}] solicitados={} otorgados={}", flightId, group.size(), granted);
+                List<FlightseatConfirmedEvent> confirmed = group.subList(0, granted).stream()
+                    .map(event -> new FlightseatConfirmedEvent(event.reservationId()))
+                    .toList();
+                List<FlightseatRejectedEvent> rejected = group.subList(granted, group.size()).stream()
+                    .map(event -> new FlightseatRejectedEvent(event.reservationId(), "No Seat"))
+                    .toList();
+                return new SeatDecision(confirmed, rejected);
+            })
+            .switchIfEmpty(Mono.defer(() -> {
+                log.error("[handleBatch][flightId={}] flight NO encontrado, {} eventos ignorados", flightId, group.size());
+                return Mono.empty();
+            }));
+    }
+
+    private record SeatDecision(List<FlightseatConfirmedEvent> confirmed, List<FlightseatRejectedEvent> rejected) {
+    }
+
+    /**
+     * Camino frío: el UPDATE no afectó filas, se distingue entre vuelo inexistente y vuelo sin cupos.
+     */
+    private Mono<Void> rejectOrIgnore(ReservationCreatedEvent event) {
         return flightRepository.findById(event.flightId())
             .switchIfEmpty(Mono.defer(() -> {
                 log.error("[handle][reservationId={}] flight NO encontrado: flightId={}", event.reservationId(), event.flightId());
                 return Mono.empty(); // Aquí salimos si no existe el vuelo
             }))
             .flatMap(flight -> {
-                log.info("[handle][reservationId={}] flight encontrado: flightId={}", event.reservationId(), event.flightId());
-                if (flight.tryReserveSeat()) {
-                    return flightRepository.save(flight)
-                        .then(flightseatConfirmedEventPublisher.publish(
-                            new FlightseatConfirmedEvent(event.reservationId())));
-                } else {
-                    return flightseatRejectedEventPublisher.publish(
-                        new FlightseatRejectedEvent(event.reservationId(), "No Seat"));
-                }
-            })
-            .onErrorResume(ex -> {
-                log.error("Técnico: ", ex);
-                return Mono.empty();
+                log.info("[handle][reservationId={}] flight sin cupos: flightId={}", event.reservationId(), event.flightId());
+                return flightseatRejectedEventPublisher.publish(
+                    new FlightseatRejectedEvent(event.reservationId(), "No Seat"));
             });
     }
 }
@@ -1,14 +1,22 @@
 package com.aug.flightbooking.application.service;
 
 import com.aug.flightbooking.application.ports.out.ReservationRepository;
+import com.aug.flightbooking.domain.exceptions.OptimisticConcurrencyException;
 import com.aug.flightbooking.domain.exceptions.ReservationChangeStatusException;
 import com.aug.flightbooking.domain.models.reservation.Reservation;
+import com.aug.flightbooking.domain.models.reservation.ReservationStateMachine;
+import com.aug.flightbooking.domain.models.reservation.ReservationStatus;
 import com.aug.flightbooking.domain.models.reservation.ReservationStatusAction;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Componente de aplicación responsable de actualizar el estado de una reservación
  */
@@ -20,32 +28,69 @@ public class ReservationStatusUpdater {
     private final ReservationRepository reservationRepository;
 
     /**
-     * Busca la Resevación eb BD, Cambia el estado y la actualiza en base de datos
+     * Cambia el estado sin leer la reserva: un UPDATE condicionado a los estados desde los que
+     * ReservationStateMachine permite llegar al destino. Solo si no actualiza nada se consulta la reserva,
+     * para distinguir una reserva inexistente de una transición no permitida.
      */
     public Mono<Void> updateStatus(Long reservationId, String msg, ReservationStatusAction action) {
-        return reservationRepository.findById(reservationId)
-            .switchIfEmpty(Mono.error(new IllegalArgumentException("Reservation Not Found")))
-            .flatMap(reservation -> {
-                reservation.setMessage(msg);
-                return updateStatus(reservation, action);
+        ReservationStatus target = action.getTarget();
+        return reservationRepository.compareAndSetStatus(reservationId, sourceNames(target), target, msg)
+            .flatMap(updated -> updated
+                ? Mono.<Void>empty()
+                : reservationRepository.findById(reservationId)
+                    .switchIfEmpty(Mono.error(new IllegalArgumentException("Reservation Not Found")))
+                    .flatMap(current -> Mono.<Void>error(new ReservationChangeStatusException(
+                        "ReservationId: " + reservationId + ". Transición no permitida de "
+                            + current.getStatus() + " a " + target))))
+            .onErrorResume(ex -> {
+                log.error("Error updating reservation status: {}", ex.getMessage());
+                return Mono.error(ex);
             });
     }
 
     /**
-     * Actualiza el estado de una reserva sin necesidad de buscarla en la base de datos.
-     * Ideal para casos donde ya tienes la entidad cargada (por ejemplo, después de crearla o recibirla por evento).
+     * Actualiza el estado de una reserva ya cargada (por ejemplo, recibida por evento).
+     * La transición se valida en memoria y se escribe con compare-and-set sobre el estado leído:
+     * si otro proceso la cambió entretanto, no se pisa y se devuelve OptimisticConcurrencyException
+     * para que quien llama vuelva a leerla y reintente.
      */
     public Mono<Void> updateStatus(Reservation reservation, ReservationStatusAction action) {
         return Mono.defer(() -> {
+            ReservationStatus expected = reservation.getStatus();
             try {
                 action.apply(reservation);
-                return reservationRepository.save(reservation).then();
             } catch (ReservationChangeStatusException ex) {
                 return Mono.error(ex);
             }
+            return reservationRepository.compareAndSetStatus(reservation.getId(), List.of(expected.name()),
+                    reservation.getStatus(), reservation.getMessage())
+                .flatMap(updated -> updated
+                    ? Mono.<Void>empty()
+                    : Mono.<Void>error(new OptimisticConcurrencyException(
+                        "ReservationId: " + reservation.getId() + ". El estado " + expected
+                            + " cambió antes de pasar a " + reservation.getStatus())));
         }).onErrorResume(ex -> {
             log.error("Error updating reservation status: {}", ex.getMessage());
             return Mono.error(ex);
         });
     }
-}
\ No newline at end of file
+
+    /**
+     * Transición en lote con una sola sentencia: las reglas de ReservationStateMachine se aplican en la base de datos
+     * (solo cambian las reservas cuyo estado actual puede pasar a {@code target}), sin findById ni save por fila.
+     * Devuelve los ids realmente actualizados; los demás ya habían cambiado de estado.
+     */
+    public Flux<Long> transitionStatuses(Map<Long, String> messagesById, ReservationStatus target) {
+        if (messagesById.isEmpty()) {
+            return Flux.empty();
+        }
+        List<Long> ids = new ArrayList<>(messagesById.keySet());
+        List<String> messages = ids.stream().map(messagesById::get).toList();
+        return reservationRepository.transitionStatus(ids, messages, target, sourceNames(target))
+            .doOnError(ex -> log.error("Error updating reservation statuses: {}", ex.getMessage()));
+    }
+
+    private static List<String> sourceNames(ReservationStatus target) {
+        return ReservationStateMachine.sourcesOf(target).stream().map(Enum::name).toList();
+    }
+}
@@ -0,0 +1,15 @@
+package com.aug.flightbooking.domain.exceptions;
+
+/**
+ * Otro proceso modificó el agregado entre la lectura y la escritura (versión distinta).
+ * No es un error de negocio: se resuelve volviendo a leer y aplicando de nuevo el cambio.
+ */
+public class OptimisticConcurrencyException extends RuntimeException {
+    public OptimisticConcurrencyException(String message) {
+        super(message);
+    }
+
+    public OptimisticConcurrencyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -18,11 +18,13 @@ public class Flight {
     private final Instant scheduledDeparture;
     private final Instant scheduledArrival;
     private FlightStatus status;
+    // Versión leída de la base de datos (control optimista); null en un vuelo nuevo
+    private final Long version;
 
     // Constructor privado
     private Flight(Long id, Airline airline, String flightCode, String origin, String destination,
                    int totalSeats, int reservedSeats, Instant scheduledDeparture,
-                   Instant scheduledArrival, FlightStatus status) {
+                   Instant scheduledArrival, FlightStatus status, Long version) {
         this.id = id;
         this.airline = Objects.requireNonNull(airline, "airline no puede ser null");
         this.flightCode = Objects.requireNonNull(flightCode, "flightCode no puede ser null");
@@ -34,6 +36,7 @@ public class Flight {
 
         this.totalSeats = totalSeats;
         this.reservedSeats = reservedSeats;
+        this.version = version;
     }
 
     /**
@@ -43,7 +46,7 @@ public class Flight {
                         int totalSeats, int reservedSeats, Instant scheduledDeparture, Instant scheduledArrival) {
 
         return new Flight(null, airline, flightCode, origin, destination, totalSeats, reservedSeats,
-                scheduledDeparture, scheduledArrival, FlightStatus.SCHEDULED);
+                scheduledDeparture, scheduledArrival, FlightStatus.SCHEDULED, null);
     }
 
     /**
@@ -52,10 +55,21 @@ public class Flight {
     public static Flight fromPersistence(Long id, Airline airline, String flightCode,
                                          String origin, String destination, int totalSeats, int reservedSeats,
                                          Instant scheduledDeparture, Instant scheduledArrival, FlightStatus status) {
+        return fromPersistence(id, airline, flightCode, origin, destination, totalSeats, reservedSeats,
+                scheduledDeparture, scheduledArrival, status, null);
+    }
+
+    /**
+     * Fábrica para construir un vuelo desde base de datos con su versión (control optimista).
+     */
+    public static Flight fromPersistence(Long id, Airline airline, String flightCode,
+                                         String origin, String destination, int totalSeats, int reservedSeats,
+                                         Instant scheduledDeparture, Instant scheduledArrival, FlightStatus status,
+                                         Long version) {
         if (id == null) throw new IllegalArgumentException("El id no puede ser nulo");
 
         return new Flight(id, airline, flightCode, origin, destination, totalSeats, reservedSeats,
-                scheduledDeparture, scheduledArrival, status);
+                scheduledDeparture, scheduledArrival, status, version);
     }
 
     /**
@@ -117,6 +131,10 @@ public class Flight {
         return false;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Long getId() {
         return id;
     }
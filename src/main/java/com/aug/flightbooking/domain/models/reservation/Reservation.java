@@ -15,31 +15,40 @@ public class Reservation {
     private final Long flightId;
     private final PassengerInfo passengerInfo;
     private final Instant createdAt;
+    // Versión leída de la base de datos (control optimista); null en una reserva nueva
+    private final Long version;
     private String message;
     private ReservationStatus status;
 
     private Reservation(Long id, Long flightId, PassengerInfo passengerInfo, ReservationStatus status,
-                        Instant createdAt, String message) {
+                        Instant createdAt, String message, Long version) {
         this.id = id;
         this.flightId = Objects.requireNonNull(flightId, "El flightId no puede ser null");
         this.passengerInfo = Objects.requireNonNull(passengerInfo, "El passengerInfo no puede ser null");
         this.status = Objects.requireNonNull(status, "El status no puede ser null");
         this.createdAt = Objects.requireNonNull(createdAt, "El createdAt no puede ser null");
         this.message = message;
+        this.version = version;
     }
 
     public static Reservation fromPersistence(
             Long id, Long flightId, PassengerInfo passengerInfo, ReservationStatus status,
             Instant createdAt, String message) {
+        return fromPersistence(id, flightId, passengerInfo, status, createdAt, message, null);
+    }
+
+    public static Reservation fromPersistence(
+            Long id, Long flightId, PassengerInfo passengerInfo, ReservationStatus status,
+            Instant createdAt, String message, Long version) {
         if (id == null) throw new IllegalArgumentException("El id no puede ser nulo");
-        return new Reservation(id, flightId, passengerInfo, status, createdAt, message);
+        return new Reservation(id, flightId, passengerInfo, status, createdAt, message, version);
     }
 
     /**
      * Crea una nueva reserva con estado inicial CREATED.
      */
     public static Reservation create(Long flightId, PassengerInfo passengerInfo) {
-        return new Reservation(null, flightId, passengerInfo, ReservationStatus.CREATED, Instant.now(), null);
+        return new Reservation(null, flightId, passengerInfo, ReservationStatus.CREATED, Instant.now(), null, null);
     }
 
     /**
@@ -107,6 +116,10 @@ public class Reservation {
         return status;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public String getMessage() {
         return message;
     }
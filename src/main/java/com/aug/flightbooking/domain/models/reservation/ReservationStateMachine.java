@@ -41,4 +41,17 @@ public class ReservationStateMachine {
     public static boolean canTransition(ReservationStatus from, ReservationStatus to) {
         return validTransitions.getOrDefault(from, EnumSet.noneOf(ReservationStatus.class)).contains(to);
     }
+
+    /**
+     * Estados desde los que se puede llegar a {@code to}; permite validar la transición directamente en la base de datos.
+     */
+    public static Set<ReservationStatus> sourcesOf(ReservationStatus to) {
+        Set<ReservationStatus> sources = EnumSet.noneOf(ReservationStatus.class);
+        validTransitions.forEach((from, targets) -> {
+            if (targets.contains(to)) {
+                sources.add(from);
+            }
+        });
+        return sources;
+    }
 }
@@ -7,36 +7,49 @@ import com.aug.flightbooking.domain.exceptions.ReservationChangeStatusException;
  * De esta manera los cambios de estado no son públicos y se deben realizar por este medio, para mejor control del dominio
  */
 public enum ReservationStatusAction {
-    PENDING {
+    PENDING(ReservationStatus.PENDING) {
         @Override
         public void apply(Reservation reservation) throws ReservationChangeStatusException {
             reservation.markAsPending();
         }
     },
-    EMITTED {
+    EMITTED(ReservationStatus.EMITTED) {
         @Override
         public void apply(Reservation reservation) throws ReservationChangeStatusException {
             reservation.markAsEmitted();
         }
     },
-    CONFIRMED {
+    CONFIRMED(ReservationStatus.CONFIRMED) {
         @Override
         public void apply(Reservation reservation) throws ReservationChangeStatusException {
             reservation.markAsConfirmed();
         }
     },
-    REJECTED {
+    REJECTED(ReservationStatus.REJECTED) {
         @Override
         public void apply(Reservation reservation) throws ReservationChangeStatusException {
             reservation.markAsRejected();
         }
     },
-    FAILED {
+    FAILED(ReservationStatus.FAILED) {
         @Override
         public void apply(Reservation reservation) throws ReservationChangeStatusException {
             reservation.markAsFailed();
         }
     };
 
+    private final ReservationStatus target;
+
+    ReservationStatusAction(ReservationStatus target) {
+        this.target = target;
+    }
+
+    /**
+     * Estado al que lleva la acción; permite aplicarla en la base de datos sin cargar la reserva.
+     */
+    public ReservationStatus getTarget() {
+        return target;
+    }
+
     public abstract void apply(Reservation reservation) throws ReservationChangeStatusException;
 }
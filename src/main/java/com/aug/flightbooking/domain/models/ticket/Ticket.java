@@ -13,6 +13,8 @@ public class Ticket {
     private final Long id;
     private final Long reservationId;
     private final Instant issuedAt;
+    // Versión leída de la base de datos (control optimista); null en un tiquete nuevo
+    private final Long version;
     private TicketStatus status;
 
     // Margen permitido para check-in: desde 24h antes hasta 2h antes del vuelo
@@ -22,24 +24,30 @@ public class Ticket {
     /**
      * Constructor privado para forzar el uso del método de fábrica estático.
      */
-    private Ticket(Long id, Long reservationId, TicketStatus status, Instant issuedAt) {
+    private Ticket(Long id, Long reservationId, TicketStatus status, Instant issuedAt, Long version) {
         this.id = id;
         this.reservationId = reservationId;
         this.status = status;
         this.issuedAt = issuedAt;
+        this.version = version;
     }
 
     /**
      * Crea un nuevo tiquete emitido, marcando su estado inicial como EMITTED.
      */
     public static Ticket create(Long reservationId) {
-        return new Ticket(null, reservationId, TicketStatus.EMITTED, Instant.now());
+        return new Ticket(null, reservationId, TicketStatus.EMITTED, Instant.now(), null);
     }
 
     public static Ticket fromPersistence(Long id, Long reservationId,
         TicketStatus ticketStatus, Instant issuedAt) {
+        return fromPersistence(id, reservationId, ticketStatus, issuedAt, null);
+    }
+
+    public static Ticket fromPersistence(Long id, Long reservationId,
+        TicketStatus ticketStatus, Instant issuedAt, Long version) {
         if (id == null) throw new IllegalArgumentException("El id no puede ser nulo");
-        return new Ticket(id, reservationId, ticketStatus, issuedAt);
+        return new Ticket(id, reservationId, ticketStatus, issuedAt, version);
     }
 
     /**
@@ -102,4 +110,8 @@ public class Ticket {
     public TicketStatus getStatus() {
         return status;
     }
+
+    public Long getVersion() {
+        return version;
+    }
 }
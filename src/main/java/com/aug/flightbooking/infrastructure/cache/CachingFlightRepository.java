@@ -0,0 +1,163 @@
+package com.aug.flightbooking.infrastructure.cache;
+
+import com.aug.flightbooking.application.commands.SearchFlightsCommand;
+import com.aug.flightbooking.application.ports.out.FlightRepository;
+import com.aug.flightbooking.domain.models.flight.Flight;
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import com.aug.flightbooking.infrastructure.persistence.adapters.FlightRepositoryAdapter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Decorador read-through de {@link FlightRepository} con una caché local acotada (Caffeine).
+ * - Guarda los datos estáticos del vuelo (aerolínea, códigos, horarios, total de asientos).
+ * - En un acierto solo consulta reserved_seats y version en la BD, lo único que cambia con cada reserva.
+ * - save() invalida el vuelo; el TTL cubre cambios hechos por otras instancias.
+ * Las estadísticas se publican en Micrometer como cache.gets (hit/miss), cache.evictions y cache.size
+ * con la etiqueta cache=flight.catalog.
+ * El listado completo se sirve desde {@link RedisFlightCatalogCache}, compartido por todas las instancias;
+ * las reservas de asientos lo mantienen al día de forma incremental, una vez confirmada su transacción.
+ */
+@Component
+@Primary
+@Slf4j
+public class CachingFlightRepository implements FlightRepository {
+
+    private final FlightRepositoryAdapter delegate;
+    private final RedisFlightCatalogCache catalogCache;
+    private final AppProperties.FlightCache properties;
+    private final Cache<Long, Flight> flights;
+
+    public CachingFlightRepository(FlightRepositoryAdapter delegate, RedisFlightCatalogCache catalogCache,
+                                   AppProperties appProperties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.catalogCache = catalogCache;
+        this.properties = appProperties.getFlightCache();
+        this.flights = isEnabled()
+            ? Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(properties.getTtlSeconds()))
+                .recordStats()
+                .build()
+            : null;
+        if (flights != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, flights, "flight.catalog");
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties != null && properties.isEnabled();
+    }
+
+    @Override
+    public Mono<Flight> findById(Long flightId) {
+        if (!isEnabled()) {
+            return delegate.findById(flightId);
+        }
+        Flight cached = flights.getIfPresent(flightId);
+        if (cached == null) {
+            return delegate.findById(flightId)
+                .doOnNext(flight -> flights.put(flightId, withCounter(flight, flight.getReservedSeats(), flight.getVersion())));
+        }
+        return delegate.findSeatCounter(flightId)
+            .map(counter -> withCounter(cached, counter.reservedSeats(), counter.version()))
+            .switchIfEmpty(Mono.fromRunnable(() -> {
+                // El vuelo ya no existe en la BD
+                log.debug("Vuelo {} en caché pero no en la BD, se invalida", flightId);
+                flights.invalidate(flightId);
+            }));
+    }
+
+    @Override
+    public Mono<Flight> save(Flight flight) {
+        Mono<Flight> saved = delegate.save(flight);
+        if (isEnabled()) {
+            saved = saved.doOnNext(s -> flights.invalidate(s.getId()));
+        }
+        if (catalogCache.isEnabled()) {
+            saved = saved.flatMap(s -> catalogCache.evict().thenReturn(s));
+        }
+        return saved;
+    }
+
+    /**
+     * Un HGETALL en Redis; solo si no está en caché se recorre la tabla y se reconstruye el catálogo.
+     * La reconstrucción se abre antes de leer la tabla para no perder las reservas confirmadas durante la lectura.
+     */
+    @Override
+    public Flux<Flight> findAll() {
+        if (!catalogCache.isEnabled()) {
+            return delegate.findAll();
+        }
+        return catalogCache.getAll()
+            .switchIfEmpty(Mono.defer(() -> catalogCache.beginRebuild()
+                .then(delegate.findAll().collectList())
+                .flatMap(all -> catalogCache.putAll(all).thenReturn(all))))
+            .flatMapMany(Flux::fromIterable);
+    }
+
+    /**
+     * Las búsquedas filtradas no pasan por el catálogo: cada combinación de filtros iría a su propia clave.
+     */
+    @Override
+    public Flux<Flight> search(SearchFlightsCommand command) {
+        return delegate.search(command);
+    }
+
+    @Override
+    public Mono<Boolean> tryReserveSeat(Long flightId) {
+        return delegate.tryReserveSeat(flightId)
+            .flatMap(reserved -> reserved && catalogCache.isEnabled()
+                ? addReservedSeatsAfterCommit(flightId, 1).thenReturn(true)
+                : Mono.just(reserved));
+    }
+
+    @Override
+    public Mono<Integer> tryReserveSeats(Long flightId, int requested) {
+        return delegate.tryReserveSeats(flightId, requested)
+            .flatMap(granted -> granted > 0 && catalogCache.isEnabled()
+                ? addReservedSeatsAfterCommit(flightId, granted).thenReturn(granted)
+                : Mono.just(granted));
+    }
+
+    /**
+     * El incremento del catálogo se aplica cuando se confirma la transacción de quien reserva: si se revierte
+     * no se aplica, y los reintentos del handler no lo suman de nuevo. Sin transacción se aplica de inmediato.
+     */
+    private Mono<Void> addReservedSeatsAfterCommit(Long flightId, int seats) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+            .filter(TransactionSynchronizationManager::isSynchronizationActive)
+            .doOnNext(tx -> tx.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public Mono<Void> afterCommit() {
+                    return catalogCache.addReservedSeats(flightId, seats);
+                }
+            }))
+            .hasElement()
+            .onErrorResume(NoTransactionException.class, ex -> Mono.just(false))
+            .flatMap(registered -> registered ? Mono.<Void>empty() : catalogCache.addReservedSeats(flightId, seats));
+    }
+
+    /**
+     * Copia del vuelo con el contador y la versión indicados: la instancia en caché nunca sale de esta clase,
+     * así un agregado modificado por quien lo recibe no altera lo que ven los demás.
+     * La versión viene de la BD junto con el contador, así un save() posterior no choca con una versión vieja.
+     */
+    private static Flight withCounter(Flight flight, int reservedSeats, Long version) {
+        return Flight.fromPersistence(flight.getId(), flight.getAirline(), flight.getFlightCode(),
+            flight.getOrigin(), flight.getDestination(), flight.getTotalSeats(), reservedSeats,
+            flight.getScheduledDeparture(), flight.getScheduledArrival(), flight.getStatus(), version);
+    }
+}
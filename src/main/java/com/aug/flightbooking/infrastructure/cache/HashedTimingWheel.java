@@ -0,0 +1,102 @@
+package com.aug.flightbooking.infrastructure.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rueda de tiempo con hash (hashed timing wheel) para deadlines de reservas.
+ *
+ * - La rueda tiene {@code wheelSize} casillas de {@code tickMillis}; un deadline cae en la casilla
+ *   {@code tick % wheelSize} y, si está a más de una vuelta, se revisa en cada vuelta hasta que vence.
+ * - Insertar y cancelar son O(1): un índice id -> tick y un set por casilla.
+ * - El tiempo se recibe desde fuera ({@link #advanceTo(long)}), así la rueda no tiene hilos propios.
+ *
+ * Las operaciones se sincronizan sobre la rueda; son cortas salvo el avance, que recorre una casilla por tick.
+ */
+final class HashedTimingWheel {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final List<Set<Long>> buckets;
+    private final Map<Long, Long> deadlineTicks = new HashMap<>();
+
+    // Último tick procesado
+    private long currentTick;
+
+    HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis debe ser mayor que cero");
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1; // potencia de dos
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new HashSet<>());
+        }
+    }
+
+    /**
+     * Programa (o reprograma) el deadline de una reserva. Un deadline ya vencido se dispara en el siguiente tick.
+     */
+    synchronized void schedule(Long id, long deadlineMillis) {
+        removeFromBucket(id, deadlineTicks.get(id));
+        long tick = Math.max(currentTick + 1, ceilDiv(deadlineMillis - startMillis, tickMillis));
+        deadlineTicks.put(id, tick);
+        buckets.get((int) (tick & mask)).add(id);
+    }
+
+    synchronized boolean cancel(Long id) {
+        Long tick = deadlineTicks.remove(id);
+        removeFromBucket(id, tick);
+        return tick != null;
+    }
+
+    synchronized boolean contains(Long id) {
+        return deadlineTicks.containsKey(id);
+    }
+
+    synchronized int size() {
+        return deadlineTicks.size();
+    }
+
+    /**
+     * Avanza la rueda hasta {@code nowMillis} y devuelve los ids vencidos, ya retirados de la rueda.
+     */
+    synchronized List<Long> advanceTo(long nowMillis) {
+        long targetTick = (nowMillis - startMillis) / tickMillis;
+        List<Long> expired = new ArrayList<>();
+        // Tras una pausa larga basta con una vuelta completa: cada casilla se revisa una vez
+        long from = Math.max(currentTick + 1, targetTick - mask);
+        for (long tick = from; tick <= targetTick; tick++) {
+            Iterator<Long> it = buckets.get((int) (tick & mask)).iterator();
+            while (it.hasNext()) {
+                Long id = it.next();
+                if (deadlineTicks.get(id) <= targetTick) {
+                    it.remove();
+                    deadlineTicks.remove(id);
+                    expired.add(id);
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick);
+        return expired;
+    }
+
+    private void removeFromBucket(Long id, Long tick) {
+        if (tick != null) {
+            buckets.get((int) (tick & mask)).remove(id);
+        }
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+}
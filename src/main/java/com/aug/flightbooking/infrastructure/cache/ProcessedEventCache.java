@@ -0,0 +1,114 @@
+package com.aug.flightbooking.infrastructure.cache;
+
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Registro de eventIds ya procesados, compartido por todos los listeners Kafka.
+ * - Primer nivel: LRU acotado en memoria, resuelve las redeliveries inmediatas sin salir del proceso.
+ * - Segundo nivel: Redis con TTL (SET NX EX), visible para todas las instancias tras un rebalanceo.
+ * Un duplicado se descarta antes de decodificar el mensaje y de consultar PostgreSQL.
+ */
+@Component
+@Slf4j
+public class ProcessedEventCache {
+
+    private static final String PROCESSED = "1";
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final AppProperties.Kafka.Dedupe dedupe;
+    private final Map<String, Boolean> recent;
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+
+    public ProcessedEventCache(
+        @Qualifier("reservationRedisTemplate") ReactiveRedisTemplate<String, String> redisTemplate,
+        AppProperties properties,
+        MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.dedupe = properties.getKafka().getConsumer().getDedupe();
+        int maxEntries = dedupe.getLocalMaxEntries();
+        // LinkedHashMap en orden de acceso: al superar el máximo se descarta el menos usado
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > maxEntries;
+            }
+        });
+        this.localHits = counter(meterRegistry, "hit", "local");
+        this.redisHits = counter(meterRegistry, "hit", "redis");
+        this.misses = counter(meterRegistry, "miss", "none");
+    }
+
+    /**
+     * Indica si el evento ya fue procesado. Un error de Redis se trata como no procesado:
+     * el handler sigue siendo idempotente y es preferible reprocesar a perder el mensaje.
+     */
+    public Mono<Boolean> isProcessed(String eventId) {
+        if (!dedupe.isEnabled() || eventId == null) {
+            return Mono.just(false);
+        }
+        // get() y no containsKey(): solo get() mueve la entrada al final del orden de acceso
+        if (recent.get(eventId) != null) {
+            localHits.increment();
+            return Mono.just(true);
+        }
+        return redisTemplate.hasKey(key(eventId))
+            .defaultIfEmpty(false)
+            .doOnNext(found -> {
+                if (found) {
+                    recent.put(eventId, Boolean.TRUE);
+                    redisHits.increment();
+                } else {
+                    misses.increment();
+                }
+            })
+            .onErrorResume(e -> {
+                log.warn("No se pudo consultar dedupe en Redis para eventId={}", eventId, e);
+                misses.increment();
+                return Mono.just(false);
+            });
+    }
+
+    /**
+     * Marca el evento como procesado; se llama solo cuando el handler terminó bien,
+     * así un fallo sigue pudiendo reintentarse. Un error de Redis no falla el procesamiento.
+     */
+    public Mono<Void> markProcessed(String eventId) {
+        if (!dedupe.isEnabled() || eventId == null) {
+            return Mono.empty();
+        }
+        recent.put(eventId, Boolean.TRUE);
+        return redisTemplate.opsForValue()
+            .setIfAbsent(key(eventId), PROCESSED, Duration.ofSeconds(dedupe.getTtlSeconds()))
+            .onErrorResume(e -> {
+                log.warn("No se pudo registrar dedupe en Redis para eventId={}", eventId, e);
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    private String key(String eventId) {
+        return dedupe.getKeyPrefix() + eventId;
+    }
+
+    private static Counter counter(MeterRegistry registry, String result, String level) {
+        return Counter.builder("kafka.listener.dedupe")
+            .tag("result", result)
+            .tag("level", level)
+            .description("Consultas de eventos ya procesados")
+            .register(registry);
+    }
+}
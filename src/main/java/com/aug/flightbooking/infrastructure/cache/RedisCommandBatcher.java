@@ -0,0 +1,76 @@
+package com.aug.flightbooking.infrastructure.cache;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.codec.StringCodec;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Ejecuta comandos de Redis en lote sobre una conexión dedicada con auto-flush deshabilitado:
+ * los comandos se encolan en el buffer del cliente y se envían juntos con un único flushCommands(),
+ * es decir, un pipeline con una sola escritura al socket en lugar de una por comando.
+ * La conexión es propia porque el auto-flush es por conexión; en la conexión compartida afectaría a todos.
+ */
+@Slf4j
+public class RedisCommandBatcher {
+
+    private final RedisClient client;
+    private final boolean enabled;
+    private final Mono<StatefulRedisConnection<String, String>> connection;
+
+    public RedisCommandBatcher(RedisClient client, RedisURI uri, boolean enabled) {
+        this.client = client;
+        this.enabled = enabled;
+        // Se conecta en el primer uso y se reutiliza mientras siga abierta. Un fallo al conectar no queda
+        // en caché (el siguiente lote reintenta) y una conexión cerrada se descarta y se abre otra
+        this.connection = Mono.fromCompletionStage(() -> client.connectAsync(StringCodec.UTF8, uri))
+            .doOnNext(conn -> conn.setAutoFlushCommands(false))
+            .doOnError(e -> log.warn("No se pudo abrir la conexión de lotes a Redis, se reintenta en el próximo lote: {}",
+                e.getMessage()))
+            .cacheInvalidateIf(RedisCommandBatcher::isClosed);
+    }
+
+    private static boolean isClosed(StatefulRedisConnection<String, String> conn) {
+        if (conn.isOpen()) {
+            return false;
+        }
+        // Lettuce puede seguir reconectándola en segundo plano; se cierra para no dejarla viva junto a la nueva
+        conn.closeAsync();
+        return true;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Encola los comandos que devuelve {@code commands}, los envía con un solo flush y completa
+     * cuando Redis respondió todos. Falla si alguno de los comandos falla.
+     */
+    public Mono<Void> execute(Function<RedisAsyncCommands<String, String>, List<? extends RedisFuture<?>>> commands) {
+        return connection.flatMap(conn -> {
+            List<? extends RedisFuture<?>> futures;
+            // Encolar y hacer flush sin intercalar otro lote en la misma conexión
+            synchronized (this) {
+                futures = commands.apply(conn.async());
+                conn.flushCommands();
+            }
+            log.debug("Lote de {} comandos enviado a Redis", futures.size());
+            return Mono.fromFuture(CompletableFuture.allOf(futures.stream()
+                .map(RedisFuture::toCompletableFuture)
+                .toArray(CompletableFuture[]::new)));
+        });
+    }
+
+    public void close() {
+        client.shutdown();
+    }
+}
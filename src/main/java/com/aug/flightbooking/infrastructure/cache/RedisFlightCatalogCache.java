@@ -0,0 +1,215 @@
+package com.aug.flightbooking.infrastructure.cache;
+
+import com.aug.flightbooking.domain.models.flight.Airline;
+import com.aug.flightbooking.domain.models.flight.Flight;
+import com.aug.flightbooking.domain.models.flight.FlightStatus;
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caché distribuida del listado de vuelos en la base de Redis de vuelos, en un único hash:
+ * - campo {@code flights}: JSON con los datos estáticos de todos los vuelos, en el orden de la BD.
+ * - campos {@code seats.<id>}: asientos reservados de cada vuelo, actualizados con HINCRBY al reservar.
+ * Listar vuelos es un solo HGETALL. Crear un vuelo borra el hash y la siguiente lectura lo reconstruye;
+ * el TTL limita la desactualización si algún incremento se pierde (por ejemplo, Redis caído en ese momento).
+ *
+ * La reconstrucción abre antes de leer la BD un hash {@code <clave>.rebuild} que recoge los incrementos que
+ * llegan mientras no hay catálogo; el hash, su TTL y esos incrementos se escriben después en un solo script,
+ * así no queda un catálogo sin TTL ni se pierden reservas hechas durante la lectura.
+ */
+@Component
+@Slf4j
+public class RedisFlightCatalogCache {
+
+    private static final String FLIGHTS_FIELD = "flights";
+    private static final String SEATS_PREFIX = "seats.";
+    private static final String REBUILD_SUFFIX = ".rebuild";
+    // Vida del hash de reconstrucción si la instancia que reconstruye cae antes de escribir el catálogo
+    private static final Duration REBUILD_TIMEOUT = Duration.ofSeconds(60);
+
+    // Con catálogo incrementa su contador; sin él, el de una reconstrucción en curso; si no hay ninguno,
+    // no hay nada que mantener y se evita crear un hash parcial sin TTL
+    private static final RedisScript<Long> INCREMENT_IF_PRESENT = RedisScript.of(
+        "if redis.call('exists', KEYS[1]) == 1 then return redis.call('hincrby', KEYS[1], ARGV[1], ARGV[2]) " +
+        "elseif redis.call('exists', KEYS[2]) == 1 then return redis.call('hincrby', KEYS[2], ARGV[1], ARGV[2]) " +
+        "else return 0 end",
+        Long.class);
+
+    // Abre la reconstrucción si no hay catálogo; una ya abierta se conserva con los incrementos que lleve
+    private static final RedisScript<Long> BEGIN_REBUILD = RedisScript.of(
+        "if redis.call('exists', KEYS[1]) == 1 then return 0 end " +
+        "redis.call('hsetnx', KEYS[2], '_', '1') " +
+        "redis.call('pexpire', KEYS[2], ARGV[1]) " +
+        "return 1",
+        Long.class);
+
+    // Escribe el catálogo solo si la reconstrucción sigue abierta (un evict() la cierra) y nadie lo escribió antes;
+    // suma los incrementos recogidos mientras tanto y fija el TTL en el mismo paso
+    private static final RedisScript<Long> PUT_ALL = RedisScript.of(
+        "if redis.call('exists', KEYS[1]) == 1 or redis.call('exists', KEYS[2]) == 0 then " +
+        "  redis.call('del', KEYS[2]) return 0 end " +
+        "for i = 2, #ARGV, 2 do redis.call('hset', KEYS[1], ARGV[i], ARGV[i + 1]) end " +
+        "local pending = redis.call('hgetall', KEYS[2]) " +
+        "for i = 1, #pending, 2 do " +
+        "  if string.sub(pending[i], 1, 6) == 'seats.' then redis.call('hincrby', KEYS[1], pending[i], pending[i + 1]) end " +
+        "end " +
+        "redis.call('del', KEYS[2]) " +
+        "redis.call('pexpire', KEYS[1], ARGV[1]) " +
+        "return 1",
+        Long.class);
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final AppProperties.Redis.RedisFlight properties;
+
+    public RedisFlightCatalogCache(
+        @Qualifier("flightRedisTemplate") ReactiveRedisTemplate<String, String> redisTemplate,
+        ObjectMapper objectMapper,
+        AppProperties appProperties) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = appProperties.getRedis().getRedisFlight();
+    }
+
+    public boolean isEnabled() {
+        return properties != null && properties.isCatalogEnabled();
+    }
+
+    /**
+     * Listado en caché con los asientos reservados al día; vacío si no está en caché o Redis falla.
+     */
+    public Mono<List<Flight>> getAll() {
+        return redisTemplate.<String, String>opsForHash().entries(properties.getCatalogKey())
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+            .filter(fields -> fields.containsKey(FLIGHTS_FIELD))
+            .map(this::toFlights)
+            .onErrorResume(e -> {
+                log.warn("No se pudo leer el catálogo de vuelos en Redis: {}", e.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    /**
+     * Abre la reconstrucción del catálogo; se llama antes de leer los vuelos de la BD.
+     */
+    public Mono<Void> beginRebuild() {
+        String key = properties.getCatalogKey();
+        return redisTemplate.execute(BEGIN_REBUILD, List.of(key, key + REBUILD_SUFFIX),
+                List.of(String.valueOf(REBUILD_TIMEOUT.toMillis())))
+            .onErrorResume(e -> {
+                log.warn("No se pudo iniciar la reconstrucción del catálogo de vuelos en Redis: {}", e.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    /**
+     * Escribe el catálogo leído tras {@link #beginRebuild()}, con su TTL, en un solo script.
+     */
+    public Mono<Void> putAll(List<Flight> flights) {
+        List<String> args = new ArrayList<>(3 + flights.size() * 2);
+        args.add(String.valueOf(Duration.ofSeconds(properties.getCatalogTtlSeconds()).toMillis()));
+        try {
+            args.add(FLIGHTS_FIELD);
+            args.add(objectMapper.writeValueAsString(flights.stream().map(CatalogEntry::of).toList()));
+        } catch (JsonProcessingException e) {
+            return Mono.error(new IllegalStateException("No se pudo serializar el catálogo de vuelos", e));
+        }
+        flights.forEach(flight -> {
+            args.add(SEATS_PREFIX + flight.getId());
+            args.add(String.valueOf(flight.getReservedSeats()));
+        });
+        String key = properties.getCatalogKey();
+        return redisTemplate.execute(PUT_ALL, List.of(key, key + REBUILD_SUFFIX), args)
+            .doOnNext(written -> {
+                if (written == 0) {
+                    log.debug("Catálogo de vuelos no escrito: ya existe o la reconstrucción se invalidó");
+                }
+            })
+            .onErrorResume(e -> {
+                log.warn("No se pudo guardar el catálogo de vuelos en Redis: {}", e.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    /**
+     * Borra el catálogo y cierra una reconstrucción en curso, que pudo leer la BD antes del cambio.
+     */
+    public Mono<Void> evict() {
+        String key = properties.getCatalogKey();
+        return redisTemplate.delete(key, key + REBUILD_SUFFIX)
+            .onErrorResume(e -> {
+                log.warn("No se pudo invalidar el catálogo de vuelos en Redis: {}", e.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    /**
+     * Refresco incremental tras reservar asientos: solo cambia el contador del vuelo.
+     */
+    public Mono<Void> addReservedSeats(Long flightId, int delta) {
+        if (delta == 0) {
+            return Mono.empty();
+        }
+        String key = properties.getCatalogKey();
+        return redisTemplate.execute(INCREMENT_IF_PRESENT, List.of(key, key + REBUILD_SUFFIX),
+                List.of(SEATS_PREFIX + flightId, String.valueOf(delta)))
+            .onErrorResume(e -> {
+                log.warn("No se pudo actualizar asientos del vuelo {} en el catálogo: {}", flightId, e.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    private List<Flight> toFlights(Map<String, String> fields) {
+        try {
+            List<CatalogEntry> entries = objectMapper.readValue(fields.get(FLIGHTS_FIELD), new TypeReference<>() {});
+            return entries.stream()
+                .map(entry -> entry.toFlight(Integer.parseInt(
+                    fields.getOrDefault(SEATS_PREFIX + entry.id(), String.valueOf(entry.reservedSeats())))))
+                .toList();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Catálogo de vuelos inválido en Redis", e);
+        }
+    }
+
+    /**
+     * Datos del vuelo tal como se guardan en Redis; reservedSeats es el valor al construir la caché.
+     */
+    record CatalogEntry(Long id, String airlineName, String airlineCode, String flightCode, String origin,
+                        String destination, int totalSeats, int reservedSeats, Instant scheduledDeparture,
+                        Instant scheduledArrival, FlightStatus status, Long version) {
+
+        static CatalogEntry of(Flight flight) {
+            return new CatalogEntry(flight.getId(), flight.getAirline().getName(), flight.getAirline().getCode(),
+                flight.getFlightCode(), flight.getOrigin(), flight.getDestination(), flight.getTotalSeats(),
+                flight.getReservedSeats(), flight.getScheduledDeparture(), flight.getScheduledArrival(),
+                flight.getStatus(), flight.getVersion());
+        }
+
+        /**
+         * La versión es la de la carga del catálogo; los incrementos de asientos posteriores la dejan atrás,
+         * así que un save() de un vuelo del listado falla con OptimisticConcurrencyException en vez de pisar el contador.
+         */
+        Flight toFlight(int currentReservedSeats) {
+            return Flight.fromPersistence(id, new Airline(airlineName, airlineCode), flightCode, origin, destination,
+                totalSeats, currentReservedSeats, scheduledDeparture, scheduledArrival, status, version);
+        }
+    }
+}
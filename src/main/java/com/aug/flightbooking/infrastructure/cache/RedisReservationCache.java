@@ -9,11 +9,15 @@ import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Servicio que maneja los timeouts de reservas usando Redis.
  * - Cuando se crea una reserva, se registra un timeout en Redis con TTL.
  * - Si la reserva es confirmada o rechazada antes de ese tiempo, se elimina el timeout.
+ * - Con {@link ReservationTimeoutWheel} habilitada los timeouts se manejan en memoria y Redis es solo respaldo.
  */
 @Component
 @Slf4j
@@ -23,12 +27,15 @@ public class RedisReservationCache implements ReservationCache {
     // para obtener el cliente ReactiveValueOperations<String, String> tipo clave-valor (String -> String)
     private final ReactiveRedisTemplate<String, String> redisTemplate;
     private final AppProperties.Redis redisProperties;
+    private final ReservationTimeoutWheel timeoutWheel;
 
     public RedisReservationCache(
         @Qualifier("reservationRedisTemplate") ReactiveRedisTemplate<String, String> redisTemplate,
-        AppProperties properties) {
+        AppProperties properties,
+        ReservationTimeoutWheel timeoutWheel) {
         this.redisTemplate = redisTemplate;
         this.redisProperties = properties.getRedis();
+        this.timeoutWheel = timeoutWheel;
     }
 
     /**
@@ -37,6 +44,9 @@ public class RedisReservationCache implements ReservationCache {
      */
     @Override
     public Mono<Void> registerTimeout(Long reservationId) {
+        if (timeoutWheel.isEnabled()) {
+            return Mono.fromRunnable(() -> timeoutWheel.register(reservationId));
+        }
         String key = redisProperties.getRedisReservation().getKeyPrefixReservationCache() + reservationId;
         // TTL: cuántos segundos esperar antes de que Redis elimine esta clave
         Duration ttl = Duration.ofSeconds(redisProperties.getRedisReservation().getReservationTimeoutSeconds());
@@ -50,12 +60,18 @@ public class RedisReservationCache implements ReservationCache {
      */
     @Override
     public Mono<Void> cancelTimeout(Long reservationId) {
+        if (timeoutWheel.isEnabled()) {
+            return Mono.fromRunnable(() -> timeoutWheel.cancel(reservationId));
+        }
         String key = redisProperties.getRedisReservation().getKeyPrefixReservationCache() + reservationId;
         return redisTemplate.opsForValue().delete(key).then();
     }
 
     @Override
     public Mono<String> get(Long reservationId) {
+        if (timeoutWheel.isEnabled()) {
+            return timeoutWheel.contains(reservationId) ? Mono.just("WAITING") : Mono.empty();
+        }
         String key = redisProperties.getRedisReservation().getKeyPrefixReservationCache() + reservationId;
         log.debug("Key Redis {}", key);
         return redisTemplate.opsForValue().get(key)
@@ -67,4 +83,37 @@ public class RedisReservationCache implements ReservationCache {
             .doOnTerminate(() -> log.debug("Terminó consulta a Redis para clave: {}", key));
     }
 
+    /**
+     * Un solo MGET para todas las reservaciones: una ida y vuelta a Redis por lote en lugar de una por reserva.
+     */
+    @Override
+    public Mono<Map<Long, String>> getAll(List<Long> reservationIds) {
+        if (reservationIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        if (timeoutWheel.isEnabled()) {
+            return Mono.fromSupplier(() -> {
+                Map<Long, String> found = new HashMap<>();
+                reservationIds.stream()
+                    .filter(timeoutWheel::contains)
+                    .forEach(id -> found.put(id, "WAITING"));
+                return found;
+            });
+        }
+        String prefix = redisProperties.getRedisReservation().getKeyPrefixReservationCache();
+        List<String> keys = reservationIds.stream().map(id -> prefix + id).toList();
+        return redisTemplate.opsForValue().multiGet(keys)
+            .map(values -> {
+                // MGET devuelve los valores en el orden de las claves, con null para las que no existen
+                Map<Long, String> found = new HashMap<>();
+                for (int i = 0; i < values.size(); i++) {
+                    if (values.get(i) != null) {
+                        found.put(reservationIds.get(i), values.get(i));
+                    }
+                }
+                return found;
+            })
+            .doOnNext(found -> log.debug("MGET de {} claves en Redis, encontradas {}", keys.size(), found.size()));
+    }
+
 }
@@ -0,0 +1,179 @@
+package com.aug.flightbooking.infrastructure.cache;
+
+import com.aug.flightbooking.application.ports.in.FailReservationUseCase;
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Escucha las notificaciones de expiración de Redis (keyspace notifications, evento {@code expired})
+ * y falla exactamente las reservas cuyo timeout venció, en cuanto Redis elimina la clave.
+ * Redis no garantiza la entrega de Pub/Sub: si la instancia estaba caída al expirar la clave,
+ * el barrido periódico de ReservationTimeoutScheduler actúa como red de seguridad.
+ * Con {@link ReservationTimeoutWheel} habilitada también falla los vencimientos de la rueda en memoria.
+ *
+ * Redis entrega cada expiración a todos los suscriptores: con varias réplicas solo escucha la que tiene el
+ * liderazgo (clave expiration-leader-key con TTL, renovada por su dueño). Si el líder cae, otra réplica lo toma
+ * al vencer el TTL; las expiraciones de ese intervalo las recoge el barrido. Los vencimientos de la rueda
+ * son locales de cada instancia y se procesan siempre, en un flujo aparte: un error de Redis no los detiene.
+ */
+@Component
+@Slf4j
+public class ReservationExpirationListener {
+
+    // Renueva el liderazgo si sigue siendo suyo; si nadie lo tiene lo toma (SET NX PX)
+    // Espera entre resuscripciones a Redis tras un error del canal de expiraciones
+    private static final Duration RESUBSCRIBE_MIN_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration RESUBSCRIBE_MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private static final RedisScript<Long> ACQUIRE_OR_RENEW = RedisScript.of(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) "
+            + "elseif redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then return 1 else return 0 end",
+        Long.class);
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final AppProperties.Redis.RedisReservation properties;
+    private final FailReservationUseCase failReservationUseCase;
+    private final ReservationTimeoutWheel timeoutWheel;
+    private final String owner;
+
+    public ReservationExpirationListener(
+        @Qualifier("reservationRedisTemplate") ReactiveRedisTemplate<String, String> redisTemplate,
+        AppProperties properties,
+        FailReservationUseCase failReservationUseCase,
+        ReservationTimeoutWheel timeoutWheel) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties.getRedis().getRedisReservation();
+        this.failReservationUseCase = failReservationUseCase;
+        this.timeoutWheel = timeoutWheel;
+        String hostname = System.getenv("HOSTNAME");
+        this.owner = (hostname != null ? hostname : "instance") + "-" + UUID.randomUUID();
+    }
+
+    public Flux<Void> listen() {
+        Flux<Long> wheelExpirations = timeoutWheel.isEnabled() ? timeoutWheel.expirations() : Flux.empty();
+        if (!properties.isExpirationListenerEnabled()) {
+            log.info("Listener de expiraciones de Redis deshabilitado; rueda en memoria={}", timeoutWheel.isEnabled());
+            return failInBatches(wheelExpirations);
+        }
+        ReactiveRedisConnectionFactory connectionFactory = redisTemplate.getConnectionFactory();
+        ChannelTopic expiredChannel = new ChannelTopic("__keyevent@" + properties.getDatabase() + "__:expired");
+
+        Flux<Long> redisExpirations = configureKeyspaceNotifications(connectionFactory)
+            .thenMany(Flux.usingWhen(
+                Mono.fromSupplier(() -> new ReactiveRedisMessageListenerContainer(connectionFactory)),
+                container -> toReservationIds(container.receive(expiredChannel).map(ReactiveSubscription.Message::getMessage)),
+                ReactiveRedisMessageListenerContainer::destroyLater
+            ))
+            .doOnSubscribe(s -> log.info("Escuchando expiraciones en {} con prefijo {}",
+                expiredChannel.getTopic(), properties.getKeyPrefixReservationCache()));
+
+        return Flux.merge(failInBatches(leaderOnly(redisExpirations)), failInBatches(wheelExpirations));
+    }
+
+    /**
+     * Reenvía {@code expirations} solo mientras esta réplica tiene el liderazgo. Se intenta tomar o renovar
+     * cada tercio del TTL; al perderlo se cancela la suscripción y al recuperarlo se vuelve a suscribir.
+     * Si la suscripción a Redis falla se reintenta con espera creciente, sin límite de intentos: el listener
+     * nunca termina por un corte de Redis y el barrido cubre lo que expire mientras tanto.
+     */
+    Flux<Long> leaderOnly(Flux<Long> expirations) {
+        Flux<Long> resilient = expirations
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, RESUBSCRIBE_MIN_BACKOFF)
+                .maxBackoff(RESUBSCRIBE_MAX_BACKOFF)
+                .doBeforeRetry(signal -> log.warn("Canal de expiraciones de Redis interrumpido, reintento {}: {}",
+                    signal.totalRetries() + 1, signal.failure().getMessage())));
+        if (!properties.isExpirationLeaderEnabled()) {
+            return resilient;
+        }
+        Duration ttl = Duration.ofMillis(properties.getExpirationLeaderMillis());
+        return Flux.interval(Duration.ZERO, ttl.dividedBy(3))
+            .onBackpressureDrop()
+            .concatMap(tick -> acquireOrRenewLeadership(ttl))
+            .distinctUntilChanged()
+            .doOnNext(leader -> log.info("Listener de expiraciones de Redis: {} ({})",
+                leader ? "líder, escuchando" : "en espera, otra réplica escucha", owner))
+            .switchMap(leader -> leader ? resilient : Flux.empty());
+    }
+
+    private Mono<Boolean> acquireOrRenewLeadership(Duration ttl) {
+        return redisTemplate.execute(ACQUIRE_OR_RENEW, List.of(properties.getExpirationLeaderKey()),
+                List.of(owner, Long.toString(ttl.toMillis())))
+            .next()
+            .map(result -> result == 1L)
+            .defaultIfEmpty(false)
+            // Sin Redis tampoco llegan expiraciones; el barrido cubre hasta que vuelva
+            .onErrorResume(e -> {
+                log.warn("No se pudo renovar el liderazgo del listener de expiraciones: {}", e.getMessage());
+                return Mono.just(false);
+            });
+    }
+
+    /**
+     * Convierte las claves expiradas en ids de reserva y las falla por lotes.
+     */
+    Flux<Void> failExpired(Flux<String> expiredKeys) {
+        return failInBatches(toReservationIds(expiredKeys));
+    }
+
+    private Flux<Long> toReservationIds(Flux<String> expiredKeys) {
+        String prefix = properties.getKeyPrefixReservationCache();
+        return expiredKeys
+            .filter(key -> key.startsWith(prefix))
+            .flatMap(key -> {
+                try {
+                    return Mono.just(Long.parseLong(key.substring(prefix.length())));
+                } catch (NumberFormatException e) {
+                    log.warn("Clave expirada con id inválido: {}", key);
+                    return Mono.empty();
+                }
+            });
+    }
+
+    private Flux<Void> failInBatches(Flux<Long> reservationIds) {
+        return reservationIds
+            .bufferTimeout(properties.getExpirationBatchSize(), Duration.ofMillis(properties.getExpirationBatchMaxWaitMillis()))
+            .concatMap(batch -> failReservationUseCase.failExpiredReservations(batch)
+                .doOnSuccess(__ -> log.info("Reservas expiradas procesadas: {}", batch))
+                .onErrorResume(e -> {
+                    log.error("Error fallando reservas expiradas {}: {}", batch, e.getMessage(), e);
+                    return Mono.empty();
+                }));
+    }
+
+    /**
+     * Redis no publica expiraciones por defecto. Si el servidor no permite CONFIG (Redis administrado),
+     * se deja registrado y se debe habilitar {@code notify-keyspace-events Ex} desde la configuración del servidor.
+     */
+    private Mono<Void> configureKeyspaceNotifications(ReactiveRedisConnectionFactory connectionFactory) {
+        if (!properties.isConfigureKeyspaceNotifications()) {
+            return Mono.empty();
+        }
+        return Mono.usingWhen(
+                Mono.fromSupplier(connectionFactory::getReactiveConnection),
+                connection -> connection.serverCommands().setConfig("notify-keyspace-events", "Ex"),
+                ReactiveRedisConnection::closeLater
+            )
+            .doOnSuccess(__ -> log.info("notify-keyspace-events=Ex configurado en Redis"))
+            .onErrorResume(e -> {
+                log.warn("No se pudo configurar notify-keyspace-events en Redis: {}", e.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+}
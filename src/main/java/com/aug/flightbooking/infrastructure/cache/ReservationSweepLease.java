@@ -0,0 +1,98 @@
+package com.aug.flightbooking.infrastructure.cache;
+
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Lease en Redis para que el barrido de reservas vencidas lo ejecute una sola réplica por periodo.
+ * - Se toma con SET NX PX y un TTL igual a period-flux-seconds. Tras un barrido correcto no se libera:
+ *   cada réplica tiene su propio Flux.interval sin alinear y, si se liberara al terminar, otra réplica
+ *   lo tomaría segundos después y volvería a barrer. Así hay como máximo un barrido por periodo.
+ * - Si el barrido falla (o se cancela) el lease se libera, solo si sigue siendo suyo, para que otra réplica reintente.
+ * - Si el dueño cae, el lease vence por TTL y el siguiente tick de otra réplica lo toma.
+ * - Si Redis no responde se barre igualmente: el UPDATE condicionado por estado evita fallar dos veces la misma reserva.
+ */
+@Component
+@Slf4j
+public class ReservationSweepLease {
+
+    // Borra la clave solo si el valor es el dueño actual, para no liberar un lease que ya tomó otra réplica
+    private static final RedisScript<Long> RELEASE = RedisScript.of(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+        Long.class);
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final AppProperties.Redis.RedisReservation properties;
+    private final String owner;
+
+    public ReservationSweepLease(
+        @Qualifier("reservationRedisTemplate") ReactiveRedisTemplate<String, String> redisTemplate,
+        AppProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties.getRedis().getRedisReservation();
+        // En Kubernetes HOSTNAME es el nombre del pod; facilita ver en Redis quién tiene el lease
+        String hostname = System.getenv("HOSTNAME");
+        this.owner = (hostname != null ? hostname : "instance") + "-" + UUID.randomUUID();
+    }
+
+    /**
+     * Ejecuta {@code work} solo si esta réplica obtiene el lease; en otro caso completa sin hacer nada.
+     * El lease se libera únicamente si {@code work} falla o se cancela.
+     */
+    public Mono<Void> runExclusive(Mono<Void> work) {
+        if (!properties.isSweepLeaseEnabled()) {
+            return work;
+        }
+        return Mono.usingWhen(
+            acquire(),
+            acquired -> {
+                if (!acquired) {
+                    log.debug("Lease del barrido en poder de otra réplica; se omite este tick");
+                    return Mono.empty();
+                }
+                return work;
+            },
+            // Barrido correcto: el lease se conserva hasta que venza y cubre el resto del periodo
+            acquired -> Mono.empty(),
+            (acquired, error) -> acquired ? release() : Mono.empty(),
+            acquired -> acquired ? release() : Mono.empty()
+        );
+    }
+
+    Mono<Boolean> acquire() {
+        return redisTemplate.opsForValue()
+            .setIfAbsent(properties.getSweepLeaseKey(), owner, Duration.ofSeconds(properties.getPeriodFluxSeconds()))
+            .defaultIfEmpty(false)
+            .doOnNext(acquired -> {
+                if (acquired) {
+                    log.debug("Lease del barrido tomado por {}", owner);
+                }
+            })
+            .onErrorResume(e -> {
+                log.warn("No se pudo tomar el lease del barrido en Redis, se barre sin coordinar: {}", e.getMessage());
+                return Mono.just(true);
+            });
+    }
+
+    Mono<Void> release() {
+        return redisTemplate.execute(RELEASE, List.of(properties.getSweepLeaseKey()), List.of(owner))
+            .onErrorResume(e -> {
+                log.warn("No se pudo liberar el lease del barrido, vencerá por TTL: {}", e.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    String owner() {
+        return owner;
+    }
+}
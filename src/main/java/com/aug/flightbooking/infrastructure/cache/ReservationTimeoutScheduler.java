@@ -13,6 +13,9 @@ import java.time.Duration;
 /**
  * Scheduler que verifica periódicamente si una reserva debe marcarse como fallida,
  * pero solo se activa cuando se invoca startScheduler() desde AppStartupFinalListener.
+ * Los timeouts se resuelven en ReservationExpirationListener; este barrido es la red de seguridad
+ * para expiraciones que no llegaron (instancia caída, Pub/Sub sin entrega garantizada).
+ * Con varias réplicas solo barre la que obtiene {@link ReservationSweepLease}, como máximo una vez por periodo.
  */
 @Component
 @Slf4j
@@ -20,24 +23,27 @@ public class ReservationTimeoutScheduler {
 
     private final AppProperties.Redis.RedisReservation properties;
     private final FailReservationUseCase failReservationUseCase;
+    private final ReservationSweepLease sweepLease;
 
     public ReservationTimeoutScheduler(AppProperties properties,
-                                       FailReservationUseCase failReservationUseCase) {
+                                       FailReservationUseCase failReservationUseCase,
+                                       ReservationSweepLease sweepLease) {
         this.properties = properties.getRedis().getRedisReservation();
         this.failReservationUseCase = failReservationUseCase;
+        this.sweepLease = sweepLease;
     }
 
     public Flux<Void> startSchedulerReservations() {
         log.info("Iniciando Scheduler ReservationTimeoutScheduler, every {} seconds", properties.getPeriodFluxSeconds());
-        return Flux.interval(Duration.ZERO, Duration.ofSeconds(30L))
+        return Flux.interval(Duration.ZERO, Duration.ofSeconds(properties.getPeriodFluxSeconds()))
             .doOnSubscribe(s -> log.info("Flux.interval suscrito"))
             // Loguea cada tick recibido
             .doOnNext(tick -> log.debug("Tick recibido: {}", tick))
 
-            // Para cada tick, llamamos a failReservations y medimos su duración
+            // Para cada tick, la réplica que obtiene el lease llama a failReservations y medimos su duración
             .flatMap(tick ->
-                failReservationUseCase
-                    .failReservations(properties.getReservationTimeoutSeconds())
+                sweepLease.runExclusive(failReservationUseCase
+                    .failReservations(properties.getReservationTimeoutSeconds(), properties.getSweepPageSize()))
                     // elapsed() convierte el Mono<Void> en Mono<Tuple2<Long, Void>>
                     .elapsed()
                     // doOnNext recibe un Tuple2<duraciónMs, Void>
@@ -0,0 +1,255 @@
+package com.aug.flightbooking.infrastructure.cache;
+
+import com.aug.flightbooking.application.ports.out.ReservationRepository;
+import com.aug.flightbooking.domain.models.reservation.Reservation;
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import io.lettuce.core.RedisFuture;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Motor de timeouts de reservas en memoria, para despliegues sin keyspace notifications de Redis.
+ *
+ * - registerTimeout/cancelTimeout se resuelven en una {@link HashedTimingWheel}, sin ir a Redis.
+ * - Redis queda como respaldo durable: las altas y bajas se encolan y se escriben en lotes
+ *   cada backupFlushMillis (write-behind); para una misma reserva solo se escribe la última operación.
+ * - Las reservas vencidas se publican en {@link #expirations()} y ReservationExpirationListener las falla por lotes.
+ * - Al iniciar, la rueda se reconstruye por páginas con las reservas CREATED/PENDING de la base de datos,
+ *   usando el TTL que aún les quede en Redis o, si no tienen clave, createdAt + reservationTimeoutSeconds.
+ *
+ * La base de datos no registra qué instancia creó cada reserva, así que la reconstrucción adopta todas las
+ * pendientes: con varias réplicas, la que reinicia también programa las de las demás, que vencen en ambas.
+ * Es inofensivo porque fallar una reserva es un compare-and-set sobre CREATED/PENDING: el segundo UPDATE
+ * no cambia nada, y una reserva ya confirmada por su dueño tampoco. El barrido periódico cubre las que se
+ * pierdan en una caída.
+ */
+@Component
+@Slf4j
+public class ReservationTimeoutWheel {
+
+    private static final String WAITING = "WAITING";
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ReservationRepository reservationRepository;
+    private final RedisCommandBatcher commandBatcher;
+    private final AppProperties.Redis.RedisReservation redisProperties;
+    private final AppProperties.TimeoutWheel properties;
+    private final HashedTimingWheel wheel;
+    private final ConcurrentLinkedQueue<BackupOp> backupQueue = new ConcurrentLinkedQueue<>();
+    private final Sinks.Many<Long> expired = Sinks.many().unicast().onBackpressureBuffer();
+
+    private Disposable ticker;
+    private Disposable backupFlusher;
+
+    public ReservationTimeoutWheel(
+            @Qualifier("reservationRedisTemplate") ReactiveRedisTemplate<String, String> redisTemplate,
+            ReservationRepository reservationRepository,
+            RedisCommandBatcher commandBatcher,
+            AppProperties appProperties) {
+        this.redisTemplate = redisTemplate;
+        this.reservationRepository = reservationRepository;
+        this.commandBatcher = commandBatcher;
+        this.redisProperties = appProperties.getRedis().getRedisReservation();
+        this.properties = appProperties.getTimeoutWheel();
+        this.wheel = isEnabled()
+                ? new HashedTimingWheel(properties.getTickMillis(), properties.getWheelSize(), System.currentTimeMillis())
+                : null;
+    }
+
+    public boolean isEnabled() {
+        return properties != null && properties.isEnabled();
+    }
+
+    /**
+     * Reconstruye la rueda y arranca el avance por ticks y el respaldo en Redis.
+     * No hace nada si la rueda está deshabilitada.
+     */
+    public Mono<Void> start() {
+        if (!isEnabled()) {
+            return Mono.empty();
+        }
+        return rebuild()
+            .doOnSuccess(__ -> {
+                Duration tick = Duration.ofMillis(properties.getTickMillis());
+                this.ticker = Flux.interval(tick, tick)
+                    .onBackpressureDrop()
+                    .subscribe(t -> advance(System.currentTimeMillis()));
+                Duration backupPeriod = Duration.ofMillis(properties.getBackupFlushMillis());
+                this.backupFlusher = Flux.interval(backupPeriod, backupPeriod)
+                    .onBackpressureDrop()
+                    .concatMap(t -> drainBackup()
+                        .onErrorResume(ex -> {
+                            log.error("[timeout-wheel] Error escribiendo respaldo en Redis", ex);
+                            return Mono.empty();
+                        }))
+                    .subscribe();
+                log.info("[timeout-wheel] Activa con tick={} ms, casillas={}, timeouts={}",
+                    tick.toMillis(), properties.getWheelSize(), wheel.size());
+            });
+    }
+
+    public void register(Long reservationId) {
+        long timeoutMillis = Duration.ofSeconds(redisProperties.getReservationTimeoutSeconds()).toMillis();
+        wheel.schedule(reservationId, System.currentTimeMillis() + timeoutMillis);
+        backupQueue.add(new BackupOp(reservationId, true));
+    }
+
+    public void cancel(Long reservationId) {
+        wheel.cancel(reservationId);
+        backupQueue.add(new BackupOp(reservationId, false));
+    }
+
+    public boolean contains(Long reservationId) {
+        return wheel.contains(reservationId);
+    }
+
+    /**
+     * Ids de reservas cuyo timeout venció. Admite un único suscriptor.
+     */
+    public Flux<Long> expirations() {
+        return expired.asFlux();
+    }
+
+    /**
+     * Avanza la rueda y publica los vencidos. Solo lo invoca el ticker, por eso la emisión no compite.
+     */
+    void advance(long nowMillis) {
+        for (Long reservationId : wheel.advanceTo(nowMillis)) {
+            expired.tryEmitNext(reservationId);
+        }
+    }
+
+    /**
+     * Vacía la cola de respaldo en lotes de backupBatchSize.
+     */
+    Mono<Void> drainBackup() {
+        return flushBackup()
+            .repeat(() -> !backupQueue.isEmpty())
+            .then();
+    }
+
+    /**
+     * Escribe en Redis un lote de operaciones pendientes; de cada reserva solo cuenta la última.
+     */
+    Mono<Void> flushBackup() {
+        Map<Long, BackupOp> latest = new LinkedHashMap<>();
+        BackupOp op;
+        // Un único consumidor (el flusher): peek + poll no compite. Las operaciones de reservas
+        // ya incluidas en el lote se siguen absorbiendo para no partir alta y baja en lotes distintos
+        while ((op = backupQueue.peek()) != null
+                && (latest.size() < properties.getBackupBatchSize() || latest.containsKey(op.reservationId()))) {
+            backupQueue.poll();
+            latest.put(op.reservationId(), op);
+        }
+        if (latest.isEmpty()) {
+            return Mono.empty();
+        }
+        Duration ttl = Duration.ofSeconds(redisProperties.getReservationTimeoutSeconds());
+        if (commandBatcher.isEnabled()) {
+            // Todo el lote en un pipeline: un flush en lugar de un round trip por operación
+            return commandBatcher.execute(commands -> latest.values().stream()
+                    .<RedisFuture<?>>map(pending -> pending.register()
+                        ? commands.setex(key(pending.reservationId()), ttl.getSeconds(), WAITING)
+                        : commands.del(key(pending.reservationId())))
+                    .toList())
+                .onErrorResume(ex -> {
+                    log.warn("[timeout-wheel] No se pudo respaldar un lote de {} reservas: {}", latest.size(), ex.getMessage());
+                    return Mono.empty();
+                });
+        }
+        return Flux.fromIterable(latest.values())
+            .flatMap(pending -> {
+                String key = key(pending.reservationId());
+                Mono<Boolean> write = pending.register()
+                    ? redisTemplate.opsForValue().set(key, WAITING, ttl)
+                    : redisTemplate.opsForValue().delete(key);
+                // Redis es solo respaldo: un fallo se registra y la reconstrucción usa la base de datos
+                return write.onErrorResume(ex -> {
+                    log.warn("[timeout-wheel] No se pudo respaldar la reserva {}: {}", pending.reservationId(), ex.getMessage());
+                    return Mono.empty();
+                });
+            })
+            .then();
+    }
+
+    /**
+     * Reprograma las reservas pendientes: TTL restante en Redis si la clave existe, si no createdAt + timeout.
+     * Recorre la base de datos por páginas con keyset (createdAt, id) y consulta en Redis solo las claves de
+     * cada página, así la memoria y el trabajo por paso quedan acotados a rebuildPageSize reservas.
+     */
+    Mono<Void> rebuild() {
+        Instant now = Instant.now();
+        int pageSize = Math.max(1, properties.getRebuildPageSize());
+        AtomicLong withTtl = new AtomicLong();
+
+        return rebuildPage(now, Instant.EPOCH, 0L, pageSize, withTtl)
+            .expand(page -> {
+                if (page.size() < pageSize) {
+                    return Mono.empty();
+                }
+                Reservation last = page.get(page.size() - 1);
+                return rebuildPage(now, last.getCreatedAt(), last.getId(), pageSize, withTtl);
+            })
+            .map(List::size)
+            .reduce(0L, Long::sum)
+            .doOnNext(total -> log.info("[timeout-wheel] Reconstruida con {} reservas pendientes ({} con TTL en Redis)",
+                total, withTtl.get()))
+            .then();
+    }
+
+    /**
+     * Programa una página y la emite (para calcular el cursor siguiente) cuando todas sus reservas quedaron en la rueda.
+     */
+    private Mono<List<Reservation>> rebuildPage(Instant now, Instant afterCreatedAt, Long afterId, int pageSize,
+                                                AtomicLong withTtl) {
+        long timeoutMillis = Duration.ofSeconds(redisProperties.getReservationTimeoutSeconds()).toMillis();
+        return reservationRepository.findPendingPage(now, afterCreatedAt, afterId, pageSize)
+            .collectList()
+            .filter(page -> !page.isEmpty())
+            .flatMap(page -> Flux.fromIterable(page)
+                .flatMap(reservation -> redisTemplate.getExpire(key(reservation.getId()))
+                    .filter(ttl -> !ttl.isNegative() && !ttl.isZero())
+                    .map(ttl -> {
+                        withTtl.incrementAndGet();
+                        return now.toEpochMilli() + ttl.toMillis();
+                    })
+                    .defaultIfEmpty(reservation.getCreatedAt().toEpochMilli() + timeoutMillis)
+                    .doOnNext(deadline -> wheel.schedule(reservation.getId(), deadline)))
+                .then(Mono.just(page)));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.dispose();
+        }
+        if (backupFlusher == null) {
+            return;
+        }
+        backupFlusher.dispose();
+        // Último respaldo para que la reconstrucción tenga los TTL más recientes
+        drainBackup().block(Duration.ofSeconds(10));
+    }
+
+    private String key(Long reservationId) {
+        return redisProperties.getKeyPrefixReservationCache() + reservationId;
+    }
+
+    private record BackupOp(Long reservationId, boolean register) {
+    }
+}
@@ -3,6 +3,9 @@ package com.aug.flightbooking.infrastructure.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @ConfigurationProperties(prefix = "app")
 @Data
 public class AppProperties {
@@ -11,6 +14,16 @@ public class AppProperties {
 
     private Kafka kafka;
 
+    private SeatInventory seatInventory;
+
+    private TimeoutWheel timeoutWheel;
+
+    private FlightCache flightCache;
+
+    private Outbox outbox;
+
+    private R2dbcPool r2dbcPool = new R2dbcPool();
+
     // -----------------------------------------------
     // Subclases anidadas
     // -----------------------------------------------
@@ -20,6 +33,26 @@ public class AppProperties {
         private long timeout;
         private RedisReservation redisReservation;
         private RedisFlight redisFlight;
+        private Lettuce lettuce = new Lettuce();
+
+        @Data
+        public static class Lettuce {
+            // 0: valor por defecto de Lettuce (núcleos disponibles)
+            private int ioThreadPoolSize = 0;
+            private int computationThreadPoolSize = 0;
+            private boolean commandLatencyMetrics = true;
+            private boolean batchEnabled = false;
+            private Pool pool = new Pool();
+        }
+
+        @Data
+        public static class Pool {
+            private boolean enabled = false;
+            private int maxActive = 8;
+            private int maxIdle = 8;
+            private int minIdle = 0;
+            private long maxWaitMillis = 5000;
+        }
 
         @Data
         public static class RedisReservation {
@@ -29,6 +62,16 @@ public class AppProperties {
             private long reservationTimeoutSeconds;
             private long periodFluxSeconds;
             private String keyPrefixReservationCache;
+            private boolean expirationListenerEnabled;
+            private boolean configureKeyspaceNotifications;
+            private int expirationBatchSize;
+            private long expirationBatchMaxWaitMillis;
+            private boolean expirationLeaderEnabled;
+            private String expirationLeaderKey;
+            private long expirationLeaderMillis;
+            private int sweepPageSize;
+            private boolean sweepLeaseEnabled;
+            private String sweepLeaseKey;
         }
 
         @Data
@@ -36,6 +79,9 @@ public class AppProperties {
             private String host;
             private int port;
             private int database;
+            private boolean catalogEnabled;
+            private String catalogKey;
+            private long catalogTtlSeconds;
         }
     }
 
@@ -53,6 +99,7 @@ public class AppProperties {
             private String flightseatConfirmedTopic;
             private String flightseatRejectedTopic;
             private String ticketCreatedTopic;
+            private String codec;
         }
 
         @Data
@@ -62,7 +109,79 @@ public class AppProperties {
             private String flightseatReservationConfirmedGroupId;
             private String flightseatReservationRejectedGroupId;
             private String ticketReservationCreatedGroupId;
+            // Ajustes por topic; un topic sin entrada usa los valores por defecto de Tuning
+            private Map<String, Tuning> topics = new HashMap<>();
+            private Dedupe dedupe = new Dedupe();
+        }
+
+        @Data
+        public static class Dedupe {
+            private boolean enabled = true;
+            private int localMaxEntries = 10000;
+            private long ttlSeconds = 86400;
+            private String keyPrefix = "event.processed.";
         }
+
+        @Data
+        public static class Tuning {
+            private int concurrency = 1;
+            private boolean batchEnabled = false;
+            private int batchSize = 200;
+            private long batchMaxWaitMillis = 50;
+            private int retryAttempts = 3;
+            private long retryBackoffMillis = 500;
+            private int conflictRetryAttempts = 5;
+            private int maxPollRecords = 100;
+            private int fetchMinBytes = 1;
+            private int fetchMaxWaitMillis = 500;
+            private int maxPartitionFetchBytes = 1048576;
+            private int maxDeferredCommits = 1000;
+        }
+    }
+
+    @Data
+    public static class SeatInventory {
+        private boolean enabled;
+        private int shards;
+        private long flushPeriodMillis;
+        private int flushBatchSize;
+    }
+
+    @Data
+    public static class TimeoutWheel {
+        private boolean enabled;
+        private long tickMillis;
+        private int wheelSize;
+        private long backupFlushMillis;
+        private int backupBatchSize;
+        private int rebuildPageSize;
+    }
+
+
+    @Data
+    public static class FlightCache {
+        private boolean enabled;
+        private long maxSize;
+        private long ttlSeconds;
+    }
+
+    @Data
+    public static class Outbox {
+        private long pollMillis;
+        private int batchSize;
     }
 
+    @Data
+    public static class R2dbcPool {
+        private String name = "flightbooking";
+        private int initialSize = 10;
+        private int maxSize = 20;
+        private long maxIdleMillis = 1_800_000;
+        private long maxAcquireMillis = 3000;
+        // Vacío: se valida con Connection.validate(validationDepth) en lugar de una consulta
+        private String validationQuery = "";
+        private String validationDepth = "REMOTE";
+        // Sentencias preparadas por conexión (preparedStatementCacheQueries de r2dbc-postgresql); 0 deshabilita
+        private int statementCacheSize = 256;
+    }
 }
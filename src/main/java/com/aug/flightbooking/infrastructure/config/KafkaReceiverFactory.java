@@ -6,6 +6,7 @@ import org.apache.kafka.common.serialization.StringDeserializer;
 import reactor.kafka.receiver.KafkaReceiver;
 import reactor.kafka.receiver.ReceiverOptions;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -19,7 +20,14 @@ public class KafkaReceiverFactory {
      * @return instancia de KafkaReceiver lista para recibir mensajes
      */
     public static KafkaReceiver<String, byte[]> createReceiver(String bootstrapServers, String topic, String groupId) {
-        Map<String, Object> props = Map.of(
+        ReceiverOptions<String, byte[]> options = ReceiverOptions.<String, byte[]>create(baseProps(bootstrapServers, groupId))
+                .subscription(List.of(topic));
+
+        return KafkaReceiver.create(options);
+    }
+
+    private static Map<String, Object> baseProps(String bootstrapServers, String groupId) {
+        return Map.of(
                 // Dirección del broker Kafka
                 ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
 
@@ -42,9 +50,33 @@ public class KafkaReceiverFactory {
                 // Solo leer mensajes que ya hayan sido "committed" si el productor es transaccional
                 ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed"
         );
+    }
+
+    /**
+     * Crea un KafkaReceiver aplicando los ajustes de rendimiento del topic.
+     * @param tuning concurrencia, tamaños de poll/fetch y commits diferidos del topic
+     * @param onRebalance acción a ejecutar al asignar y al revocar particiones (null si no hay)
+     */
+    public static KafkaReceiver<String, byte[]> createReceiver(String bootstrapServers, String topic, String groupId,
+                                                               AppProperties.Kafka.Tuning tuning, Runnable onRebalance) {
+        Map<String, Object> props = new HashMap<>(baseProps(bootstrapServers, groupId));
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, tuning.getMaxPollRecords());
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, tuning.getFetchMinBytes());
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, tuning.getFetchMaxWaitMillis());
+        props.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, tuning.getMaxPartitionFetchBytes());
+
+        // Con procesamiento en paralelo los ACK llegan fuera de orden: se difieren los commits
+        // para no confirmar offsets por encima del registro pendiente más bajo de cada partición
+        int maxDeferredCommits = tuning.getConcurrency() > 1 ? tuning.getMaxDeferredCommits() : 0;
 
         ReceiverOptions<String, byte[]> options = ReceiverOptions.<String, byte[]>create(props)
-                .subscription(List.of(topic));
+                .subscription(List.of(topic))
+                .maxDeferredCommits(maxDeferredCommits);
+        if (onRebalance != null) {
+            options = options
+                    .addAssignListener(partitions -> onRebalance.run())
+                    .addRevokeListener(partitions -> onRebalance.run());
+        }
 
         return KafkaReceiver.create(options);
     }
@@ -0,0 +1,81 @@
+package com.aug.flightbooking.infrastructure.config;
+
+import com.aug.flightbooking.infrastructure.persistence.pool.MeteredConnectionPool;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import io.r2dbc.spi.ValidationDepth;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+
+/**
+ * Pool de conexiones R2DBC y transacciones reactivas.
+ *
+ * - El pool se arma con app.r2dbc-pool (tamaños, tiempos, validación y caché de sentencias) sobre la
+ *   conexión de spring.r2dbc; al declararlo, Spring Boot no crea su propio ConnectionFactory.
+ * - El gestor de transacciones se declara explícito porque spring-boot-starter-jdbc (solo para Liquibase)
+ *   también autoconfigura uno JDBC; con este bean presente ese no se crea y @Transactional sobre Mono/Flux
+ *   no es ambiguo.
+ */
+@Configuration
+@Slf4j
+public class R2dbcConfig {
+
+    // Opción de r2dbc-postgresql: sentencias preparadas que cada conexión conserva
+    private static final Option<Integer> PREPARED_STATEMENT_CACHE_QUERIES = Option.valueOf("preparedStatementCacheQueries");
+
+    @Bean(destroyMethod = "dispose")
+    public MeteredConnectionPool connectionFactory(R2dbcProperties r2dbcProperties,
+                                                   AppProperties appProperties,
+                                                   MeterRegistry meterRegistry) {
+        AppProperties.R2dbcPool properties = appProperties.getR2dbcPool();
+
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(r2dbcProperties.getUrl()).mutate();
+        if (StringUtils.hasText(r2dbcProperties.getUsername())) {
+            options.option(ConnectionFactoryOptions.USER, r2dbcProperties.getUsername());
+        }
+        if (StringUtils.hasText(r2dbcProperties.getPassword())) {
+            options.option(ConnectionFactoryOptions.PASSWORD, r2dbcProperties.getPassword());
+        }
+        options.option(PREPARED_STATEMENT_CACHE_QUERIES, properties.getStatementCacheSize());
+        ConnectionFactory connectionFactory = ConnectionFactories.get(options.build());
+
+        ConnectionPoolConfiguration.Builder pool = ConnectionPoolConfiguration.builder(connectionFactory)
+            .name(properties.getName())
+            .initialSize(properties.getInitialSize())
+            .maxSize(properties.getMaxSize())
+            .maxIdleTime(Duration.ofMillis(properties.getMaxIdleMillis()))
+            .maxAcquireTime(Duration.ofMillis(properties.getMaxAcquireMillis()))
+            .validationDepth(ValidationDepth.valueOf(properties.getValidationDepth()));
+        if (StringUtils.hasText(properties.getValidationQuery())) {
+            pool.validationQuery(properties.getValidationQuery());
+        }
+
+        log.info("Pool R2DBC '{}': inicial={}, máximo={}, espera máxima={} ms, caché de sentencias={}",
+            properties.getName(), properties.getInitialSize(), properties.getMaxSize(),
+            properties.getMaxAcquireMillis(), properties.getStatementCacheSize());
+        return new MeteredConnectionPool(new ConnectionPool(pool.build()), properties.getName(), meterRegistry);
+    }
+
+    @Bean
+    public ReactiveTransactionManager transactionManager(ConnectionFactory connectionFactory) {
+        return new R2dbcTransactionManager(connectionFactory);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperator(ReactiveTransactionManager transactionManager) {
+        return TransactionalOperator.create(transactionManager);
+    }
+}
@@ -1,37 +1,81 @@
 package com.aug.flightbooking.infrastructure.config;
 
+import com.aug.flightbooking.infrastructure.cache.RedisCommandBatcher;
 import io.lettuce.core.ClientOptions;
-import org.springframework.beans.factory.annotation.Value;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.metrics.CommandLatencyRecorder;
+import io.lettuce.core.metrics.MicrometerCommandLatencyRecorder;
+import io.lettuce.core.metrics.MicrometerOptions;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @Configuration
 public class RedisConfig {
 
   private final AppProperties.Redis redisProperties;
+  // Fábricas creadas a mano: Spring no las destruye, se cierran en destroy()
+  private final List<LettuceConnectionFactory> factories = new CopyOnWriteArrayList<>();
+  // Se apagan en destroy(), después de las fábricas que los usan
+  private volatile ClientResources clientResources;
 
   public RedisConfig(AppProperties appProperties) {
     this.redisProperties = appProperties.getRedis();
   }
 
+  /**
+   * Recursos de Lettuce (event loops de I/O, hilos de cómputo, timers) compartidos por todas las conexiones
+   * a Redis; sin este bean cada fábrica crea su propio grupo de hilos.
+   * Con commandLatencyMetrics publica en Micrometer los histogramas lettuce.command.completion y
+   * lettuce.command.firstresponse, etiquetados por comando.
+   * Sin método de destrucción propio: este bean depende de RedisConfig y Spring lo destruiría antes de que
+   * destroy() cierre las fábricas; se apaga al final de destroy().
+   */
+  @Bean(destroyMethod = "")
+  public ClientResources redisClientResources(MeterRegistry meterRegistry) {
+    AppProperties.Redis.Lettuce lettuce = redisProperties.getLettuce();
+    DefaultClientResources.Builder builder = DefaultClientResources.builder();
+    if (lettuce.getIoThreadPoolSize() > 0) {
+      builder.ioThreadPoolSize(lettuce.getIoThreadPoolSize());
+    }
+    if (lettuce.getComputationThreadPoolSize() > 0) {
+      builder.computationThreadPoolSize(lettuce.getComputationThreadPoolSize());
+    }
+    builder.commandLatencyRecorder(lettuce.isCommandLatencyMetrics()
+        ? new MicrometerCommandLatencyRecorder(meterRegistry, MicrometerOptions.builder().histogram(true).build())
+        : CommandLatencyRecorder.disabled());
+    this.clientResources = builder.build();
+    return clientResources;
+  }
+
   /**
    * Crea el template para Redis de RESERVAS (reservations).
    * Se conecta a host, puerto y base lógica definidos para ese contexto.
    */
   @Bean("reservationRedisTemplate")
-  public ReactiveRedisTemplate<String, String> reservationRedisTemplate() {
+  public ReactiveRedisTemplate<String, String> reservationRedisTemplate(ClientResources clientResources) {
     return buildRedisTemplate(
         redisProperties.getRedisReservation().getHost(),
         redisProperties.getRedisReservation().getPort(),
-        redisProperties.getRedisReservation().getDatabase()
+        redisProperties.getRedisReservation().getDatabase(),
+        clientResources
     );
   }
 
@@ -40,31 +84,68 @@ public class RedisConfig {
    * Se conecta a host, puerto y base lógica definidos para ese contexto.
    */
   @Bean("flightRedisTemplate")
-  public ReactiveRedisTemplate<String, String> flightRedisTemplate() {
+  public ReactiveRedisTemplate<String, String> flightRedisTemplate(ClientResources clientResources) {
     return buildRedisTemplate(
         redisProperties.getRedisFlight().getHost(),
         redisProperties.getRedisFlight().getPort(),
-        redisProperties.getRedisFlight().getDatabase()
+        redisProperties.getRedisFlight().getDatabase(),
+        clientResources
     );
   }
 
+  /**
+   * Conexión dedicada de RESERVAS para comandos en lote con flush manual (ver {@link RedisCommandBatcher}).
+   */
+  @Bean(destroyMethod = "close")
+  public RedisCommandBatcher reservationRedisCommandBatcher(ClientResources clientResources) {
+    RedisURI uri = RedisURI.builder()
+        .withHost(redisProperties.getRedisReservation().getHost())
+        .withPort(redisProperties.getRedisReservation().getPort())
+        .withDatabase(redisProperties.getRedisReservation().getDatabase())
+        .withTimeout(Duration.ofMillis(redisProperties.getTimeout()))
+        .build();
+    return new RedisCommandBatcher(RedisClient.create(clientResources, uri), uri,
+        redisProperties.getLettuce().isBatchEnabled());
+  }
+
+  /**
+   * Cierra las fábricas y, cuando ya no queda ninguna conexión, los recursos compartidos de Lettuce.
+   * Se ejecuta después de destruir los beans de este config (templates y RedisCommandBatcher).
+   */
+  @PreDestroy
+  public void destroy() {
+    factories.forEach(LettuceConnectionFactory::destroy);
+    if (clientResources != null) {
+      clientResources.shutdown();
+    }
+  }
+
   /**
    * Método reutilizable que construye un ReactiveRedisTemplate
    * con configuración manual: serialización String, conexión Lettuce personalizada,
    * timeout y reconexión automática.
    */
-  private ReactiveRedisTemplate<String, String> buildRedisTemplate(String host, int port, int db) {
+  private ReactiveRedisTemplate<String, String> buildRedisTemplate(String host, int port, int db,
+                                                                   ClientResources clientResources) {
     // Configuración de conexión a Redis (host, puerto, base lógica)
     RedisStandaloneConfiguration redisConfig = new RedisStandaloneConfiguration(host, port);
     redisConfig.setDatabase(db);
 
     /*
      * Configura el cliente Lettuce con opciones de alto rendimiento:
+     * - Recursos (event loops) compartidos entre fábricas
      * - Timeout de comandos
      * - Reconexión automática
      * - Ping previo a activar conexión
+     * Los comandos reactivos comparten una única conexión nativa (multiplexada); el pool, si se habilita,
+     * solo lo usan los comandos bloqueantes o transaccionales, que necesitan una conexión exclusiva.
      */
-    LettuceClientConfiguration clientConfig = LettuceClientConfiguration.builder()
+    AppProperties.Redis.Pool pool = redisProperties.getLettuce().getPool();
+    LettuceClientConfiguration.LettuceClientConfigurationBuilder builder = pool.isEnabled()
+        ? LettucePoolingClientConfiguration.builder().poolConfig(poolConfig(pool))
+        : LettuceClientConfiguration.builder();
+    LettuceClientConfiguration clientConfig = builder
+        .clientResources(clientResources)
         .commandTimeout(Duration.ofMillis(redisProperties.getTimeout())) // equivalente a spring.data.redis.timeout
         .shutdownTimeout(Duration.ofMillis(100))
         .clientOptions(ClientOptions.builder()
@@ -76,6 +157,7 @@ public class RedisConfig {
     // Fábrica de conexiones reactivas usando la configuración anterior
     LettuceConnectionFactory factory = new LettuceConnectionFactory(redisConfig, clientConfig);
     factory.afterPropertiesSet(); // Necesario al crear la factory manualmente
+    factories.add(factory);
 
     // Define un ReactiveRedisTemplate con serialización básica de claves y valores tipo String <-> String
     RedisSerializationContext<String, String> context = RedisSerializationContext
@@ -86,6 +168,13 @@ public class RedisConfig {
 
     return new ReactiveRedisTemplate<>(factory, context);
   }
-}
-
 
+  private static GenericObjectPoolConfig<StatefulConnection<?, ?>> poolConfig(AppProperties.Redis.Pool pool) {
+    GenericObjectPoolConfig<StatefulConnection<?, ?>> config = new GenericObjectPoolConfig<>();
+    config.setMaxTotal(pool.getMaxActive());
+    config.setMaxIdle(pool.getMaxIdle());
+    config.setMinIdle(pool.getMinIdle());
+    config.setMaxWait(Duration.ofMillis(pool.getMaxWaitMillis()));
+    return config;
+  }
+}
@@ -1,7 +1,11 @@
 package com.aug.flightbooking.infrastructure.init;
 
+import com.aug.flightbooking.infrastructure.cache.ReservationExpirationListener;
 import com.aug.flightbooking.infrastructure.cache.ReservationTimeoutScheduler;
+import com.aug.flightbooking.infrastructure.cache.ReservationTimeoutWheel;
 import com.aug.flightbooking.infrastructure.messaging.listener.ReactiveListenersOrchestrator;
+import com.aug.flightbooking.infrastructure.messaging.publisher.OutboxRelay;
+import com.aug.flightbooking.infrastructure.persistence.inventory.SeatInventoryEngine;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.AdminClientConfig;
@@ -24,9 +28,13 @@ public class AppStartupFinalListener {
 
     private final ReactiveRedisTemplate<String, String> redisTemplate;
     private final ReservationTimeoutScheduler timeoutScheduler;
+    private final ReservationExpirationListener expirationListener;
     private final FlightDataInitializer flightDataInitializer;
     private final ReservationDataInitializer reservationDataInitializer;
     private final ReactiveListenersOrchestrator reactiveListenersOrchestrator;
+    private final SeatInventoryEngine seatInventoryEngine;
+    private final ReservationTimeoutWheel reservationTimeoutWheel;
+    private final OutboxRelay outboxRelay;
 
     @Value("${app.kafka.bootstrap-servers}")
     private String kafkaBootstrapServers;
@@ -34,15 +42,23 @@ public class AppStartupFinalListener {
     public AppStartupFinalListener(
             @Qualifier("reservationRedisTemplate") ReactiveRedisTemplate<String, String> redisTemplate,
             ReservationTimeoutScheduler timeoutScheduler,
+            ReservationExpirationListener expirationListener,
             FlightDataInitializer flightDataInitializer,
             ReservationDataInitializer reservationDataInitializer,
-            ReactiveListenersOrchestrator reactiveListenersOrchestrator
+            ReactiveListenersOrchestrator reactiveListenersOrchestrator,
+            SeatInventoryEngine seatInventoryEngine,
+            ReservationTimeoutWheel reservationTimeoutWheel,
+            OutboxRelay outboxRelay
     ) {
         this.redisTemplate = redisTemplate;
         this.timeoutScheduler = timeoutScheduler;
+        this.expirationListener = expirationListener;
         this.flightDataInitializer = flightDataInitializer;
         this.reservationDataInitializer = reservationDataInitializer;
         this.reactiveListenersOrchestrator = reactiveListenersOrchestrator;
+        this.seatInventoryEngine = seatInventoryEngine;
+        this.reservationTimeoutWheel = reservationTimeoutWheel;
+        this.outboxRelay = outboxRelay;
     }
 
     @EventListener(ApplicationReadyEvent.class)
@@ -69,6 +85,10 @@ public class AppStartupFinalListener {
                 log.info("Inicio de creación de Reservas");
                 return reservationDataInitializer.init(flightResponses); // Mono<List<ReservationResponse>>
             })
+            // Lo pendiente en seat_grant se vuelca antes de consumir reservation.created
+            .then(Mono.defer(seatInventoryEngine::start))
+            // La rueda de timeouts se reconstruye antes de que lleguen respuestas que cancelen timeouts
+            .then(Mono.defer(reservationTimeoutWheel::start))
             .then(Mono.fromRunnable(() -> {
                 log.info("Activando listeners reactivamente...");
                 reactiveListenersOrchestrator.startAllListeners(); // ejecución paralela
@@ -86,6 +106,22 @@ public class AppStartupFinalListener {
                             null,
                             error -> log.error("Error inesperado en el Scheduler", error)
                     );
+
+                // Publicación de los eventos del outbox, también en paralelo
+                outboxRelay.start()
+                    .doOnSubscribe(s -> log.info("OutboxRelay suscrito"))
+                    .subscribe(
+                            null,
+                            error -> log.error("Error inesperado en el relay del outbox", error)
+                    );
+
+                // Timeouts por expiración de claves en Redis, también en paralelo
+                expirationListener.listen()
+                    .doOnSubscribe(s -> log.info("ReservationExpirationListener suscrito"))
+                    .subscribe(
+                            null,
+                            error -> log.error("Error inesperado en el listener de expiraciones", error)
+                    );
             }))
             .doOnError(ex -> {
                 log.error("Error durante inicio de la aplicación: {}", ex.getMessage(), ex);
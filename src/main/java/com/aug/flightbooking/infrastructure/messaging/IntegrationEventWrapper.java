@@ -1,5 +1,6 @@
 package com.aug.flightbooking.infrastructure.messaging;
 
+import com.aug.flightbooking.application.events.IntegrationEvent;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -8,6 +9,7 @@ import java.time.Instant;
 /**
  * Wrapper genérico para eventos publicados en Kafka o Rabbit.
  * Incluye metadata común y el payload real del evento.
+ * En Kafka la metadata viaja como headers (ver {@link KafkaEventHeaders}) y el payload como valor del record.
  *
  * @param <T> Tipo del evento real (debe implementar IntegrationEvent)
  */
@@ -15,6 +17,7 @@ public record IntegrationEventWrapper<T>(
         @JsonProperty("eventType") String eventType,
         @JsonProperty("version") String version,
         @JsonProperty("traceId") String traceId,
+        @JsonProperty("eventId") String eventId,
         @JsonProperty("timestamp") Instant timestamp,
         @JsonProperty("data") T data
 ) {
@@ -31,9 +34,18 @@ public record IntegrationEventWrapper<T>(
             String eventType,
             String version,
             String traceId,
+            String eventId,
             Instant timestamp
     ) {
-        return new IntegrationEventWrapper<>(eventType, version, traceId, timestamp, data);
+        return new IntegrationEventWrapper<>(eventType, version, traceId, eventId, timestamp, data);
     }
-}
 
+    /**
+     * Envuelve un evento tomando su metadata una sola vez: traceId, eventId y timestamp
+     * se generan en cada llamada a sus getters, así que se fijan aquí para todo el envío.
+     */
+    public static <T extends IntegrationEvent> IntegrationEventWrapper<T> of(T event) {
+        return wrap(event, event.getEventType(), event.getVersion(), event.getTraceId(),
+                event.getEventId(), event.getTimestamp());
+    }
+}
@@ -0,0 +1,78 @@
+package com.aug.flightbooking.infrastructure.messaging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Metadata de {@link IntegrationEventWrapper} como headers Kafka.
+ * Permite enrutar, filtrar, deduplicar o mandar a DLQ un mensaje leyendo solo los headers,
+ * sin deserializar el payload.
+ */
+@Slf4j
+public final class KafkaEventHeaders {
+
+    public static final String EVENT_TYPE = "eventType";
+    public static final String EVENT_VERSION = "eventVersion";
+    public static final String TRACE_ID = "traceId";
+    public static final String EVENT_ID = "eventId";
+    // Epoch en milisegundos, más barato de leer que ISO-8601
+    public static final String TIMESTAMP = "timestamp";
+
+    private KafkaEventHeaders() {
+    }
+
+    public static void write(Headers headers, IntegrationEventWrapper<?> envelope) {
+        add(headers, EVENT_TYPE, envelope.eventType());
+        add(headers, EVENT_VERSION, envelope.version());
+        add(headers, TRACE_ID, envelope.traceId());
+        add(headers, EVENT_ID, envelope.eventId());
+        if (envelope.timestamp() != null) {
+            add(headers, TIMESTAMP, Long.toString(envelope.timestamp().toEpochMilli()));
+        }
+    }
+
+    /**
+     * Arma el envelope con los headers y el payload sin decodificar.
+     * Los mensajes publicados antes de tener headers devuelven la metadata en null.
+     * Un timestamp mal formado también queda en null: se lee dentro del pipeline del listener
+     * y una excepción aquí terminaría el stream del topic en lugar de afectar solo al registro.
+     */
+    public static IntegrationEventWrapper<byte[]> read(Headers headers, byte[] payload) {
+        String timestamp = value(headers, TIMESTAMP);
+        return IntegrationEventWrapper.wrap(
+                payload,
+                value(headers, EVENT_TYPE),
+                value(headers, EVENT_VERSION),
+                value(headers, TRACE_ID),
+                value(headers, EVENT_ID),
+                parseTimestamp(timestamp)
+        );
+    }
+
+    private static Instant parseTimestamp(String timestamp) {
+        if (timestamp == null) {
+            return null;
+        }
+        try {
+            return Instant.ofEpochMilli(Long.parseLong(timestamp.trim()));
+        } catch (NumberFormatException e) {
+            log.warn("Header {} inválido '{}', se ignora", TIMESTAMP, timestamp);
+            return null;
+        }
+    }
+
+    private static void add(Headers headers, String name, String value) {
+        if (value != null) {
+            headers.add(name, value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String value(Headers headers, String name) {
+        Header header = headers == null ? null : headers.lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
@@ -5,6 +5,7 @@ import com.aug.flightbooking.infrastructure.config.KafkaSenderFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Headers;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 import reactor.kafka.sender.KafkaSender;
@@ -18,9 +19,14 @@ public class KafkaDlqPublisher {
     private final AppProperties properties;
     private final KafkaSender<String, byte[]> kafkaSender;
 
-    public Mono<Void> sendToDlq(String mainTopic, byte[] payload) {
+    /**
+     * Reenvía el payload original a la DLQ conservando la clave, para que un reproceso
+     * desde la DLQ mantenga la misma partición y el mismo orden por clave.
+     * Los headers se copian tal cual: sin el de codec el payload no se podría volver a leer.
+     */
+    public Mono<Void> sendToDlq(String mainTopic, String key, byte[] payload, Headers headers) {
         String dlqTopic = resolveDlqTopic(mainTopic);
-        ProducerRecord<String, byte[]> pr = new ProducerRecord<>(dlqTopic, payload);
+        ProducerRecord<String, byte[]> pr = new ProducerRecord<>(dlqTopic, null, key, payload, headers);
 
         return kafkaSender.send(Mono.just(SenderRecord.create(pr, null)))
                 .next()
@@ -0,0 +1,36 @@
+package com.aug.flightbooking.infrastructure.messaging.listener;
+
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Registro de un topic en {@link KafkaListenerEngine}: qué se consume, con qué grupo,
+ * a qué evento se decodifica y qué caso de uso lo procesa.
+ *
+ * @param eventName    valor esperado del header eventType; los registros con otro tipo van a DLQ sin decodificar
+ * @param batchHandler handler opcional para el modo lote; null si el topic solo se procesa registro a registro
+ * @param onRebalance  acción opcional al asignar o revocar particiones; corre en el hilo del consumidor, antes de
+ *                     que el grupo reparta las particiones revocadas o de recibir de las asignadas
+ */
+public record KafkaListenerDefinition<T>(
+    String topic,
+    String groupId,
+    String eventName,
+    Class<T> eventType,
+    Function<T, Mono<Void>> handler,
+    Function<List<T>, Mono<Void>> batchHandler,
+    Runnable onRebalance
+) {
+
+    public KafkaListenerDefinition(String topic, String groupId, String eventName, Class<T> eventType,
+                                   Function<T, Mono<Void>> handler) {
+        this(topic, groupId, eventName, eventType, handler, null, null);
+    }
+
+    public KafkaListenerDefinition(String topic, String groupId, String eventName, Class<T> eventType,
+                                   Function<T, Mono<Void>> handler, Function<List<T>, Mono<Void>> batchHandler) {
+        this(topic, groupId, eventName, eventType, handler, batchHandler, null);
+    }
+}
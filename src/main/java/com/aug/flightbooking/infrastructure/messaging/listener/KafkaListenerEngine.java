@@ -0,0 +1,281 @@
+package com.aug.flightbooking.infrastructure.messaging.listener;
+
+import com.aug.flightbooking.domain.exceptions.OptimisticConcurrencyException;
+import com.aug.flightbooking.infrastructure.cache.ProcessedEventCache;
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import com.aug.flightbooking.infrastructure.config.KafkaReceiverFactory;
+import com.aug.flightbooking.infrastructure.messaging.IntegrationEventWrapper;
+import com.aug.flightbooking.infrastructure.messaging.KafkaEventHeaders;
+import com.aug.flightbooking.infrastructure.messaging.serialization.EventCodecRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pipeline común de consumo Kafka: filtro por headers → decode (según el header de codec) → handler con reintentos → ACK,
+ * y DLQ cuando falla. El tipo de evento se valida con el header eventType y los duplicados se descartan
+ * por eventId ({@link ProcessedEventCache}) antes de tocar el payload.
+ * Cada listener solo registra su {@link KafkaListenerDefinition}; la concurrencia, el modo lote,
+ * los reintentos y los tamaños de poll/fetch se leen por topic desde app.kafka.consumer.topics.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class KafkaListenerEngine {
+
+    private final AppProperties properties;
+    private final EventCodecRegistry codecs;
+    private final KafkaDlqPublisher dlqPublisher;
+    private final MeterRegistry meterRegistry;
+    private final ProcessedEventCache processedEvents;
+
+    public <T> Flux<Void> listen(KafkaListenerDefinition<T> definition) {
+        String topic = definition.topic();
+        AppProperties.Kafka.Tuning tuning = tuningFor(topic);
+        KafkaReceiver<String, byte[]> receiver = KafkaReceiverFactory.createReceiver(
+                properties.getKafka().getBootstrapServers(),
+                topic,
+                definition.groupId(),
+                tuning,
+                definition.onRebalance()
+        );
+        ListenerMeters meters = ListenerMeters.register(meterRegistry, topic);
+
+        Flux<Void> pipeline = tuning.isBatchEnabled() && definition.batchHandler() != null
+            ? onBatches(receiver, definition, tuning, meters)
+            : KeyOrderedProcessing.process(receiver.receive(), tuning.getConcurrency(),
+                record -> process(definition, tuning, meters, record));
+
+        return pipeline
+            .doOnSubscribe(sub -> log.info("[{}] Listener activo. groupId={} concurrency={} batch={}",
+                topic, definition.groupId(), tuning.getConcurrency(), tuning.isBatchEnabled()))
+            .doOnError(e -> log.error("[{}] Error en stream principal", topic, e));
+    }
+
+    AppProperties.Kafka.Tuning tuningFor(String topic) {
+        return properties.getKafka().getConsumer().getTopics()
+            .getOrDefault(topic, new AppProperties.Kafka.Tuning());
+    }
+
+    private <T> Mono<Void> process(KafkaListenerDefinition<T> definition, AppProperties.Kafka.Tuning tuning,
+                                   ListenerMeters meters, ReceiverRecord<String, byte[]> record) {
+        String topic = definition.topic();
+        long start = System.nanoTime();
+        IntegrationEventWrapper<byte[]> envelope = KafkaEventHeaders.read(record.headers(), record.value());
+
+        // 0) Tipo de evento inesperado según headers => DLQ sin decodificar
+        if (!accepts(definition, envelope)) {
+            return dlqPublisher.sendToDlq(topic, record.key(), record.value(), record.headers())
+                .then(Mono.<Void>fromRunnable(() -> {
+                    log.warn("[{}] eventType={} no esperado (eventId={}), enviado a DLQ. ACK original",
+                        topic, envelope.eventType(), envelope.eventId());
+                    meters.dlq().increment();
+                    record.receiverOffset().acknowledge();
+                }))
+                .doFinally(signal -> meters.latency().record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        }
+
+        // 1) Duplicado según eventId => ACK sin decodificar ni invocar el handler
+        return processedEvents.isProcessed(envelope.eventId())
+            .flatMap(duplicate -> duplicate
+                ? Mono.<Void>fromRunnable(() -> {
+                    log.info("[{}] Evento duplicado eventId={}, se omite. ACK offset={}", topic, envelope.eventId(), record.offset());
+                    record.receiverOffset().acknowledge();
+                })
+                : decodeAndHandle(definition, tuning, meters, record, envelope))
+            .doFinally(signal -> meters.latency().record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    private <T> Mono<Void> decodeAndHandle(KafkaListenerDefinition<T> definition, AppProperties.Kafka.Tuning tuning,
+                                           ListenerMeters meters, ReceiverRecord<String, byte[]> record,
+                                           IntegrationEventWrapper<byte[]> envelope) {
+        String topic = definition.topic();
+
+        // 2) Decode
+        return codecs.decode(record.headers(), record.value(), definition.eventType())
+            // 3) Handler con reintentos (solo handler)
+            .flatMap(event ->
+                Mono.defer(() -> definition.handler().apply(event)) // re-invoca en cada retry
+                    .doOnSuccess(__ ->
+                        log.info("[{}] Procesado OK. key={} offset={} eventId={} traceId={}",
+                            topic, record.key(), record.offset(), envelope.eventId(), envelope.traceId())
+                    )
+                    .retryWhen(conflictRetrySpec(tuning))
+                    .retryWhen(retrySpec(tuning))
+                    // 4) Éxito final => se registra el eventId y ACK
+                    .then(Mono.defer(() -> processedEvents.markProcessed(envelope.eventId())))
+                    .then(Mono.<Void>fromRunnable(() -> {
+                        log.debug("[{}] ACK offset={} partition={}", topic, record.offset(), record.partition());
+                        meters.processed().increment();
+                        record.receiverOffset().acknowledge();
+                    }))
+                    // 5) Falló tras reintentos => DLQ y luego ACK
+                    .onErrorResume(ex ->
+                        dlqPublisher.sendToDlq(topic, record.key(), record.value(), record.headers())
+                            .then(Mono.fromRunnable(() -> {
+                                log.error("[{}] Falló tras reintentos, enviado a DLQ. ACK original", topic, ex);
+                                meters.dlq().increment();
+                                record.receiverOffset().acknowledge();
+                            }))
+                    )
+            )
+            // 6) Si el decode falla, también va a DLQ y luego ACK
+            .onErrorResume(ex ->
+                dlqPublisher.sendToDlq(topic, record.key(), record.value(), record.headers())
+                    .then(Mono.fromRunnable(() -> {
+                        log.error("[{}] Decode falló, enviado a DLQ. ACK original", topic, ex);
+                        meters.dlq().increment();
+                        record.receiverOffset().acknowledge();
+                    }))
+            );
+    }
+
+    /**
+     * Modo lote: por cada partición se acumulan hasta {@code batchSize} registros o {@code batchMaxWaitMillis},
+     * se procesan con una sola llamada al handler de lote y se hace un único commit del último offset.
+     */
+    private <T> Flux<Void> onBatches(KafkaReceiver<String, byte[]> receiver, KafkaListenerDefinition<T> definition,
+                                     AppProperties.Kafka.Tuning tuning, ListenerMeters meters) {
+        return receiver.receive()
+            .groupBy(record -> record.receiverOffset().topicPartition())
+            .flatMap(partition -> partition
+                .bufferTimeout(tuning.getBatchSize(), Duration.ofMillis(tuning.getBatchMaxWaitMillis()))
+                .concatMap(records -> processBatch(definition, tuning, meters, records))
+            );
+    }
+
+    private <T> Mono<Void> processBatch(KafkaListenerDefinition<T> definition, AppProperties.Kafka.Tuning tuning,
+                                        ListenerMeters meters, List<ReceiverRecord<String, byte[]>> records) {
+        String topic = definition.topic();
+        ReceiverRecord<String, byte[]> last = records.get(records.size() - 1);
+        long start = System.nanoTime();
+        meters.batchSize().record(records.size());
+
+        Set<String> batchEventIds = new HashSet<>();
+        return Flux.fromIterable(records)
+            // 0) Copias del mismo eventId dentro del lote: solo se procesa la primera. markProcessed corre
+            //    al terminar el lote, así que isProcessed no las detecta entre sí
+            .filter(record -> {
+                String eventId = KafkaEventHeaders.read(record.headers(), null).eventId();
+                if (eventId == null || batchEventIds.add(eventId)) {
+                    return true;
+                }
+                log.info("[{}] Evento duplicado eventId={} dentro del lote, se omite. offset={}", topic, eventId, record.offset());
+                return false;
+            })
+            // 1) Decode de cada registro; los duplicados se omiten y los de otro eventType o que fallan
+            //    van a DLQ, en ambos casos quedan fuera del lote
+            .concatMap(record -> {
+                IntegrationEventWrapper<byte[]> envelope = KafkaEventHeaders.read(record.headers(), record.value());
+                Mono<T> event = accepts(definition, envelope)
+                    ? processedEvents.isProcessed(envelope.eventId())
+                        .filter(duplicate -> {
+                            if (duplicate) {
+                                log.info("[{}] Evento duplicado eventId={}, se omite del lote", topic, envelope.eventId());
+                            }
+                            return !duplicate;
+                        })
+                        .flatMap(__ -> codecs.decode(record.headers(), record.value(), definition.eventType()))
+                    : Mono.error(new IllegalArgumentException("eventType no esperado: " + envelope.eventType()));
+                return event
+                    .map(decoded -> Map.entry(record, decoded))
+                    .onErrorResume(ex -> dlqPublisher.sendToDlq(topic, record.key(), record.value(), record.headers())
+                        .then(Mono.fromRunnable(() -> {
+                            log.error("[{}] Decode falló, enviado a DLQ. offset={} eventId={}",
+                                topic, record.offset(), envelope.eventId(), ex);
+                            meters.dlq().increment();
+                        })));
+            })
+            .collectList()
+            // 2) Handler del lote completo con reintentos
+            .flatMap(decoded -> {
+                List<T> events = decoded.stream().map(Map.Entry::getValue).toList();
+                return Mono.defer(() -> definition.batchHandler().apply(events))
+                    .doOnSuccess(__ -> {
+                        log.info("[{}] Lote procesado OK. eventos={} partition={}", topic, events.size(), last.partition());
+                        meters.processed().increment(events.size());
+                    })
+                    .retryWhen(conflictRetrySpec(tuning))
+                    .retryWhen(retrySpec(tuning))
+                    .then(Flux.fromIterable(decoded)
+                        .concatMap(entry -> processedEvents.markProcessed(
+                            KafkaEventHeaders.read(entry.getKey().headers(), null).eventId()))
+                        .then())
+                    // 3) Falló tras reintentos => todos los registros del lote a DLQ
+                    .onErrorResume(ex -> Flux.fromIterable(decoded)
+                        .concatMap(entry -> dlqPublisher.sendToDlq(topic, entry.getKey().key(), entry.getKey().value(),
+                            entry.getKey().headers()))
+                        .then(Mono.fromRunnable(() -> {
+                            log.error("[{}] Lote falló tras reintentos, enviado a DLQ", topic, ex);
+                            meters.dlq().increment(decoded.size());
+                        }))
+                    );
+            })
+            // 4) Un único commit por lote: el offset del último registro cubre a los anteriores de la partición
+            .then(Mono.defer(() -> {
+                records.forEach(record -> record.receiverOffset().acknowledge());
+                log.debug("[{}] COMMIT offset={} partition={}", topic, last.offset(), last.partition());
+                return last.receiverOffset().commit();
+            }))
+            .doFinally(signal -> meters.latency().record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Sin header eventType (mensajes anteriores a los headers) se acepta y decide el decode.
+     */
+    private static boolean accepts(KafkaListenerDefinition<?> definition, IntegrationEventWrapper<byte[]> envelope) {
+        return envelope.eventType() == null
+            || definition.eventName() == null
+            || definition.eventName().equals(envelope.eventType());
+    }
+
+    /**
+     * Un conflicto de versión se reintenta sin espera: el handler vuelve a leer el agregado y aplica el cambio
+     * sobre la versión nueva. Agotados estos reintentos, el error sigue al retry con backoff.
+     */
+    private Retry conflictRetrySpec(AppProperties.Kafka.Tuning tuning) {
+        return Retry.max(tuning.getConflictRetryAttempts())
+            .filter(OptimisticConcurrencyException.class::isInstance)
+            .onRetryExhaustedThrow((spec, sig) -> sig.failure());
+    }
+
+    private Retry retrySpec(AppProperties.Kafka.Tuning tuning) {
+        return Retry.fixedDelay(tuning.getRetryAttempts(), Duration.ofMillis(tuning.getRetryBackoffMillis()))
+            .onRetryExhaustedThrow((spec, sig) -> sig.failure());
+    }
+
+    /**
+     * Métricas por topic: registros procesados, enviados a DLQ, latencia de procesamiento y tamaño de lote.
+     */
+    private record ListenerMeters(Counter processed, Counter dlq, Timer latency, DistributionSummary batchSize) {
+
+        static ListenerMeters register(MeterRegistry registry, String topic) {
+            return new ListenerMeters(
+                Counter.builder("kafka.listener.records").tag("topic", topic).tag("outcome", "processed")
+                    .description("Registros procesados correctamente").register(registry),
+                Counter.builder("kafka.listener.records").tag("topic", topic).tag("outcome", "dlq")
+                    .description("Registros enviados a DLQ").register(registry),
+                Timer.builder("kafka.listener.process").tag("topic", topic)
+                    .description("Tiempo de procesamiento por registro o por lote, reintentos incluidos").register(registry),
+                DistributionSummary.builder("kafka.listener.batch.size").tag("topic", topic)
+                    .description("Registros por lote en modo lote").register(registry)
+            );
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.aug.flightbooking.infrastructure.messaging.listener;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverRecord;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Procesamiento concurrente ordenado por clave para los listeners Kafka.
+ * Los registros con la misma clave se procesan en orden de llegada; claves distintas
+ * avanzan en paralelo hasta {@code concurrency} carriles. Con concurrency <= 1 equivale a concatMap.
+ */
+final class KeyOrderedProcessing {
+
+    private KeyOrderedProcessing() {
+    }
+
+    static Flux<Void> process(Flux<ReceiverRecord<String, byte[]>> records, int concurrency,
+                              Function<ReceiverRecord<String, byte[]>, Mono<Void>> processor) {
+        if (concurrency <= 1) {
+            return records.concatMap(processor);
+        }
+        // Cada clave cae siempre en el mismo carril, y cada carril es secuencial
+        return records
+            .groupBy(record -> Math.floorMod(Objects.hashCode(record.key()), concurrency))
+            .flatMap(lane -> lane.concatMap(processor), concurrency);
+    }
+}
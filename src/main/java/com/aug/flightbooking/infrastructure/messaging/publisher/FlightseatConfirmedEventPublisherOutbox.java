@@ -0,0 +1,64 @@
+package com.aug.flightbooking.infrastructure.messaging.publisher;
+
+import com.aug.flightbooking.application.events.FlightseatConfirmedEvent;
+import com.aug.flightbooking.application.ports.out.FlightseatConfirmedEventPublisher;
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import com.aug.flightbooking.infrastructure.persistence.repositories.R2dbcOutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Publica FlightseatConfirmed a través del outbox: el record se inserta en outbox_event dentro de la
+ * transacción de ReservationCreatedEventHandlerService, la misma que reserva los asientos.
+ * Si la transacción se revierte no quedan ni asientos ni evento y el reintento del listener parte de cero;
+ * si se confirma, {@link OutboxRelay} lo publica al menos una vez.
+ */
+@Component
+@Slf4j
+public class FlightseatConfirmedEventPublisherOutbox implements FlightseatConfirmedEventPublisher {
+
+    private final R2dbcOutboxEventRepository outboxRepository;
+    private final KafkaEventRecordFactory recordFactory;
+    private final OutboxRecordMapper outboxMapper;
+    private final AppProperties.Kafka.Producer properties;
+
+    public FlightseatConfirmedEventPublisherOutbox(R2dbcOutboxEventRepository outboxRepository,
+                                                   KafkaEventRecordFactory recordFactory,
+                                                   OutboxRecordMapper outboxMapper,
+                                                   AppProperties properties) {
+        this.outboxRepository = outboxRepository;
+        this.recordFactory = recordFactory;
+        this.outboxMapper = outboxMapper;
+        this.properties = properties.getKafka().getProducer();
+    }
+
+    @Override
+    public Mono<Void> publish(FlightseatConfirmedEvent event) {
+        return Mono.fromCallable(() -> outboxMapper.toEntity(
+                recordFactory.create(properties.getFlightseatConfirmedTopic(), event)))
+            .flatMap(outboxRepository::save)
+            .doOnNext(saved -> log.debug("FlightseatConfirmed en outbox id={}, reservationId={}",
+                saved.getId(), event.reservationId()))
+            .doOnError(error -> log.error("Error guardando FlightseatConfirmed en outbox: {}", error.getMessage(), error))
+            .then();
+    }
+
+    @Override
+    public Mono<Void> publishAll(List<FlightseatConfirmedEvent> events) {
+        if (events.isEmpty()) {
+            return Mono.empty();
+        }
+        String topic = properties.getFlightseatConfirmedTopic();
+        return Flux.fromIterable(events)
+            .map(event -> outboxMapper.toEntity(recordFactory.create(topic, event)))
+            .collectList()
+            .flatMapMany(outboxRepository::saveAll)
+            .then()
+            .doOnSuccess(__ -> log.debug("Lote de {} eventos FlightseatConfirmed en outbox", events.size()))
+            .doOnError(error -> log.error("Error guardando lote FlightseatConfirmed en outbox: {}", error.getMessage(), error));
+    }
+}
@@ -0,0 +1,31 @@
+package com.aug.flightbooking.infrastructure.messaging.publisher;
+
+import com.aug.flightbooking.application.events.IntegrationEvent;
+import com.aug.flightbooking.infrastructure.messaging.IntegrationEventWrapper;
+import com.aug.flightbooking.infrastructure.messaging.KafkaEventHeaders;
+import com.aug.flightbooking.infrastructure.messaging.serialization.EventCodec;
+import com.aug.flightbooking.infrastructure.messaging.serialization.EventCodecRegistry;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Arma el ProducerRecord de un evento: clave de partición, payload con el codec configurado,
+ * header con el nombre del codec y la metadata del {@link IntegrationEventWrapper} como headers.
+ */
+@Component
+@RequiredArgsConstructor
+public class KafkaEventRecordFactory {
+
+    private final EventCodecRegistry codecs;
+
+    public ProducerRecord<String, byte[]> create(String topic, IntegrationEvent event) {
+        EventCodec codec = codecs.defaultCodec();
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, event.getPartitionKey(), codec.encode(event));
+        record.headers().add(EventCodecRegistry.CODEC_HEADER, codec.name().getBytes(StandardCharsets.UTF_8));
+        KafkaEventHeaders.write(record.headers(), IntegrationEventWrapper.of(event));
+        return record;
+    }
+}
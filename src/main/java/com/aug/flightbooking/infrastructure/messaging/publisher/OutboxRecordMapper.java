@@ -0,0 +1,62 @@
+package com.aug.flightbooking.infrastructure.messaging.publisher;
+
+import com.aug.flightbooking.infrastructure.persistence.entities.OutboxEventEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Convierte un ProducerRecord en fila de outbox_event y de vuelta.
+ * El record se guarda ya armado por {@link KafkaEventRecordFactory}: el eventId de los headers queda fijo
+ * y un reenvío tras una caída lo descartan los consumidores por deduplicación.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxRecordMapper {
+
+    private static final TypeReference<LinkedHashMap<String, String>> HEADERS_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+
+    public OutboxEventEntity toEntity(ProducerRecord<String, byte[]> record) {
+        // Todos los headers que se publican son texto UTF-8 (codec y metadata del evento)
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (Header header : record.headers()) {
+            headers.put(header.key(), new String(header.value(), StandardCharsets.UTF_8));
+        }
+        OutboxEventEntity entity = new OutboxEventEntity();
+        entity.setTopic(record.topic());
+        entity.setRecordKey(record.key());
+        entity.setPayload(record.value());
+        entity.setCreatedAt(Instant.now());
+        try {
+            entity.setHeaders(objectMapper.writeValueAsString(headers));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudieron serializar los headers del evento", e);
+        }
+        return entity;
+    }
+
+    public ProducerRecord<String, byte[]> toRecord(OutboxEventEntity entity) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(entity.getTopic(), entity.getRecordKey(), entity.getPayload());
+        if (entity.getHeaders() == null) {
+            return record;
+        }
+        try {
+            objectMapper.readValue(entity.getHeaders(), HEADERS_TYPE)
+                .forEach((name, value) -> record.headers().add(name, value.getBytes(StandardCharsets.UTF_8)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Headers inválidos en outbox_event " + entity.getId(), e);
+        }
+        return record;
+    }
+}
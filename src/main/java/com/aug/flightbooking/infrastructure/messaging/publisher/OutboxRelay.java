@@ -0,0 +1,89 @@
+package com.aug.flightbooking.infrastructure.messaging.publisher;
+
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import com.aug.flightbooking.infrastructure.persistence.entities.OutboxEventEntity;
+import com.aug.flightbooking.infrastructure.persistence.repositories.R2dbcOutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Drena outbox_event hacia Kafka en segundo plano.
+ *
+ * - Cada lote es una transacción: SELECT ... FOR UPDATE SKIP LOCKED, envío de todos los records en un solo
+ *   send (el KafkaSender idempotente los pipelinea) y DELETE de los ids enviados.
+ * - Si Kafka falla, la transacción se revierte y el lote se reintenta en el siguiente ciclo.
+ * - Con varias réplicas cada una toma filas distintas gracias a SKIP LOCKED.
+ * Solo se activa cuando se invoca start() desde AppStartupFinalListener.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final R2dbcOutboxEventRepository outboxRepository;
+    private final KafkaSender<String, byte[]> kafkaSender;
+    private final OutboxRecordMapper outboxMapper;
+    private final TransactionalOperator transactionalOperator;
+    private final AppProperties.Outbox properties;
+
+    public OutboxRelay(R2dbcOutboxEventRepository outboxRepository,
+                       KafkaSender<String, byte[]> kafkaSender,
+                       OutboxRecordMapper outboxMapper,
+                       TransactionalOperator transactionalOperator,
+                       AppProperties properties) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaSender = kafkaSender;
+        this.outboxMapper = outboxMapper;
+        this.transactionalOperator = transactionalOperator;
+        this.properties = properties.getOutbox();
+    }
+
+    public Flux<Integer> start() {
+        Duration period = Duration.ofMillis(properties.getPollMillis());
+        log.info("[outbox] Relay activo cada {} ms, lotes de {}", period.toMillis(), properties.getBatchSize());
+        return Flux.interval(period, period)
+            .onBackpressureDrop()
+            .concatMap(tick -> drain()
+                .onErrorResume(ex -> {
+                    log.error("[outbox] Error publicando eventos pendientes: {}", ex.getMessage(), ex);
+                    return Mono.just(0);
+                }));
+    }
+
+    /**
+     * Publica lotes mientras salgan llenos; devuelve el total publicado.
+     */
+    Mono<Integer> drain() {
+        int batchSize = properties.getBatchSize();
+        return relayBatch()
+            .expand(sent -> sent == batchSize ? relayBatch() : Mono.empty())
+            .reduce(0, Integer::sum)
+            .doOnNext(total -> {
+                if (total > 0) {
+                    log.debug("[outbox] {} eventos publicados", total);
+                }
+            });
+    }
+
+    Mono<Integer> relayBatch() {
+        Mono<Integer> batch = outboxRepository.lockBatch(properties.getBatchSize())
+            .collectList()
+            .flatMap(rows -> rows.isEmpty() ? Mono.just(0) : send(rows));
+        return transactionalOperator.transactional(batch);
+    }
+
+    private Mono<Integer> send(List<OutboxEventEntity> rows) {
+        Long[] ids = rows.stream().map(OutboxEventEntity::getId).toArray(Long[]::new);
+        return kafkaSender.send(Flux.fromIterable(rows)
+                .map(row -> SenderRecord.create(outboxMapper.toRecord(row), row.getId())))
+            .then(Mono.defer(() -> outboxRepository.deleteByIds(ids)))
+            .thenReturn(rows.size());
+    }
+}
@@ -0,0 +1,45 @@
+package com.aug.flightbooking.infrastructure.messaging.publisher;
+
+import com.aug.flightbooking.application.events.ReservationCreatedEvent;
+import com.aug.flightbooking.application.ports.out.ReservationCreatedEventPublisher;
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import com.aug.flightbooking.infrastructure.persistence.repositories.R2dbcOutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Publica ReservationCreated a través del outbox: inserta el record en outbox_event dentro de la
+ * transacción en curso (la de CreateReservationService) y {@link OutboxRelay} lo envía a Kafka después.
+ * Si la transacción se revierte, el evento no existe; si se confirma, el relay lo publica al menos una vez.
+ */
+@Component
+@Slf4j
+public class ReservationCreatedEventPublisherOutbox implements ReservationCreatedEventPublisher {
+
+    private final R2dbcOutboxEventRepository outboxRepository;
+    private final KafkaEventRecordFactory recordFactory;
+    private final OutboxRecordMapper outboxMapper;
+    private final AppProperties.Kafka.Producer properties;
+
+    public ReservationCreatedEventPublisherOutbox(R2dbcOutboxEventRepository outboxRepository,
+                                                  KafkaEventRecordFactory recordFactory,
+                                                  OutboxRecordMapper outboxMapper,
+                                                  AppProperties properties) {
+        this.outboxRepository = outboxRepository;
+        this.recordFactory = recordFactory;
+        this.outboxMapper = outboxMapper;
+        this.properties = properties.getKafka().getProducer();
+    }
+
+    @Override
+    public Mono<Void> publish(ReservationCreatedEvent event) {
+        return Mono.fromCallable(() -> outboxMapper.toEntity(
+                recordFactory.create(properties.getReservationCreatedTopic(), event)))
+            .flatMap(outboxRepository::save)
+            .doOnNext(saved -> log.debug("ReservationCreated en outbox id={}, reservationId={}",
+                saved.getId(), event.reservationId()))
+            .doOnError(error -> log.error("Error guardando ReservationCreated en outbox: {}", error.getMessage(), error))
+            .then();
+    }
+}
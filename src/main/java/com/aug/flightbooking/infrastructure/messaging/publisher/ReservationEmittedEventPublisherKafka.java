@@ -3,7 +3,6 @@ package com.aug.flightbooking.infrastructure.messaging.publisher;
 import com.aug.flightbooking.application.events.ReservationEmittedEvent;
 import com.aug.flightbooking.application.ports.out.ReservationEmittedEventPublisher;
 import com.aug.flightbooking.infrastructure.config.AppProperties;
-import com.aug.flightbooking.infrastructure.messaging.serialization.ReactiveJsonEncoder;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.stereotype.Component;
@@ -17,29 +16,24 @@ public class ReservationEmittedEventPublisherKafka implements ReservationEmitted
 
     private final KafkaSender<String, byte[]> kafkaSender;
     private final AppProperties.Kafka.Producer properties;
-    private final ReactiveJsonEncoder encoder;
+    private final KafkaEventRecordFactory recordFactory;
 
     public ReservationEmittedEventPublisherKafka(KafkaSender<String, byte[]> kafkaSender,
-                                                 AppProperties properties, ReactiveJsonEncoder encoder) {
-        this.encoder = encoder;
+                                                 AppProperties properties, KafkaEventRecordFactory recordFactory) {
+        this.recordFactory = recordFactory;
         this.properties = properties.getKafka().getProducer();
         this.kafkaSender = kafkaSender;
     }
 
     @Override
     public Mono<Void> publish(ReservationEmittedEvent event) {
-        String key = event.getTraceId();
         Long reservationId = event.reservationId();
         String topic = properties.getReservationEmittedTopic();
 
-        return encoder.encode(event)
-            .map(payload -> {
-                ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, key, payload);
-                return SenderRecord.create(record, null);
+        return Mono.defer(() -> {
+                ProducerRecord<String, byte[]> record = recordFactory.create(topic, event);
+                return kafkaSender.send(Mono.just(SenderRecord.create(record, null))).next();
             })
-            .flatMap(senderRecord ->
-                    kafkaSender.send(Mono.just(senderRecord)).next()
-            )
             .doOnNext(result ->
                     log.info("Evento ReservationEmitted publicado correctamente, reservationId: {}", reservationId)
             )
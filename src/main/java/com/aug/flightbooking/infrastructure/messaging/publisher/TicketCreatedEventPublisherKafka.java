@@ -3,7 +3,6 @@ package com.aug.flightbooking.infrastructure.messaging.publisher;
 import com.aug.flightbooking.application.events.TicketCreatedEvent;
 import com.aug.flightbooking.application.ports.out.TicketCreatedEventPublisher;
 import com.aug.flightbooking.infrastructure.config.AppProperties;
-import com.aug.flightbooking.infrastructure.messaging.serialization.ReactiveJsonEncoder;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.stereotype.Component;
@@ -17,29 +16,24 @@ public class TicketCreatedEventPublisherKafka implements TicketCreatedEventPubli
 
     private final KafkaSender<String, byte[]> kafkaSender;
     private final AppProperties.Kafka.Producer properties;
-    private final ReactiveJsonEncoder encoder;
+    private final KafkaEventRecordFactory recordFactory;
 
     public TicketCreatedEventPublisherKafka(KafkaSender<String, byte[]> kafkaSender,
-                                            AppProperties properties, ReactiveJsonEncoder encoder) {
-        this.encoder = encoder;
+                                            AppProperties properties, KafkaEventRecordFactory recordFactory) {
+        this.recordFactory = recordFactory;
         this.properties = properties.getKafka().getProducer();
         this.kafkaSender = kafkaSender;
     }
 
     @Override
     public Mono<Void> publish(TicketCreatedEvent event) {
-        String key = event.getTraceId();
         String topic = properties.getTicketCreatedTopic();
         Long reservationId = event.reservationId();
 
-        return encoder.encode(event)
-            .map(payload -> {
-                ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, key, payload);
-                return SenderRecord.create(record, null);
+        return Mono.defer(() -> {
+                ProducerRecord<String, byte[]> record = recordFactory.create(topic, event);
+                return kafkaSender.send(Mono.just(SenderRecord.create(record, null))).next();
             })
-            .flatMap(senderRecord ->
-                    kafkaSender.send(Mono.just(senderRecord)).next()
-            )
             .doOnNext(result ->
                     log.info("Evento TicketCreated publicado exitosamente, reservationId: {}", reservationId)
             )
@@ -0,0 +1,245 @@
+package com.aug.flightbooking.infrastructure.messaging.serialization;
+
+import com.aug.flightbooking.application.events.IntegrationEvent;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Codec binario compacto para eventos record.
+ * <p>
+ * Formato: {@code [0xC1][versión][huella de esquema][campos...]}. La versión es {@code getVersion()} del evento
+ * y la huella es un CRC32 de los nombres y tipos de los componentes del record; si el consumidor tiene otro
+ * esquema para la misma clase, el decode falla en lugar de leer campos corridos.
+ * Los enteros van en varint zigzag y los textos con longitud varint + UTF-8, sin nombres de campo.
+ */
+@Component
+public class CompactBinaryEventCodec implements EventCodec {
+
+    public static final String NAME = "compact";
+
+    private static final byte MAGIC = (byte) 0xC1;
+
+    private static final List<Class<?>> SUPPORTED_TYPES = List.of(
+        Long.class, long.class, Integer.class, int.class, String.class, Boolean.class, boolean.class);
+
+    private final Map<Class<?>, RecordSchema> schemas = new ConcurrentHashMap<>();
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(IntegrationEvent event) {
+        RecordSchema schema = schemaFor(event.getClass());
+        Writer out = new Writer();
+        out.writeByte(MAGIC);
+        out.writeString(event.getVersion());
+        out.writeFixedInt(schema.fingerprint());
+        try {
+            for (RecordComponent component : schema.components()) {
+                writeField(out, component.getType(), component.getAccessor().invoke(event));
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo leer " + event.getClass().getSimpleName(), e);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public <T> T decode(byte[] data, Class<T> type) {
+        RecordSchema schema = schemaFor(type);
+        Reader in = new Reader(data);
+        if (in.readByte() != MAGIC) {
+            throw new IllegalArgumentException("El payload no está en formato compacto");
+        }
+        String version = in.readString();
+        int fingerprint = in.readFixedInt();
+        if (fingerprint != schema.fingerprint()) {
+            throw new IllegalStateException("Esquema incompatible para " + type.getSimpleName() + " (versión " + version + ")");
+        }
+        Object[] values = new Object[schema.components().length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readField(in, schema.components()[i].getType());
+        }
+        try {
+            return type.cast(schema.constructor().newInstance(values));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo construir " + type.getSimpleName(), e);
+        }
+    }
+
+    private RecordSchema schemaFor(Class<?> type) {
+        return schemas.computeIfAbsent(type, RecordSchema::of);
+    }
+
+    private static void writeField(Writer out, Class<?> type, Object value) {
+        if (type == String.class) {
+            out.writeString((String) value);
+        } else if (type == long.class || type == int.class) {
+            out.writeVarLong(((Number) value).longValue());
+        } else if (type == boolean.class) {
+            out.writeByte((byte) ((Boolean) value ? 1 : 0));
+        } else if (value == null) {
+            out.writeByte((byte) 0);
+        } else if (type == Boolean.class) {
+            out.writeByte((byte) ((Boolean) value ? 2 : 1));
+        } else {
+            // Long / Integer con marca de presencia
+            out.writeByte((byte) 1);
+            out.writeVarLong(((Number) value).longValue());
+        }
+    }
+
+    private static Object readField(Reader in, Class<?> type) {
+        if (type == String.class) {
+            return in.readString();
+        }
+        if (type == long.class) {
+            return in.readVarLong();
+        }
+        if (type == int.class) {
+            return (int) in.readVarLong();
+        }
+        if (type == boolean.class) {
+            return in.readByte() == 1;
+        }
+        byte marker = in.readByte();
+        if (marker == 0) {
+            return null;
+        }
+        if (type == Boolean.class) {
+            return marker == 2;
+        }
+        long value = in.readVarLong();
+        return type == Integer.class ? (Object) (int) value : (Object) value;
+    }
+
+    private record RecordSchema(RecordComponent[] components, Constructor<?> constructor, int fingerprint) {
+
+        static RecordSchema of(Class<?> type) {
+            if (!type.isRecord()) {
+                throw new IllegalArgumentException(type.getSimpleName() + " no es un record; el codec compacto solo soporta records");
+            }
+            RecordComponent[] components = type.getRecordComponents();
+            CRC32 crc = new CRC32();
+            for (RecordComponent component : components) {
+                if (!SUPPORTED_TYPES.contains(component.getType())) {
+                    throw new IllegalArgumentException("Tipo no soportado en " + type.getSimpleName() + "." + component.getName());
+                }
+                crc.update((component.getName() + ":" + component.getType().getName() + ";").getBytes(StandardCharsets.UTF_8));
+            }
+            try {
+                Class<?>[] types = Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new);
+                return new RecordSchema(components, type.getDeclaredConstructor(types), (int) crc.getValue());
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException("Sin constructor canónico en " + type.getSimpleName(), e);
+            }
+        }
+    }
+
+    private static final class Writer {
+        private byte[] buffer = new byte[64];
+        private int position;
+
+        void writeByte(byte value) {
+            ensure(1);
+            buffer[position++] = value;
+        }
+
+        void writeFixedInt(int value) {
+            ensure(4);
+            buffer[position++] = (byte) (value >>> 24);
+            buffer[position++] = (byte) (value >>> 16);
+            buffer[position++] = (byte) (value >>> 8);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            long zigzag = (value << 1) ^ (value >> 63);
+            ensure(10);
+            while ((zigzag & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((zigzag & 0x7F) | 0x80);
+                zigzag >>>= 7;
+            }
+            buffer[position++] = (byte) zigzag;
+        }
+
+        // Longitud + 1 para distinguir null (0) de cadena vacía (1)
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensure(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        byte readByte() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Payload compacto truncado");
+            }
+            return data[position++];
+        }
+
+        int readFixedInt() {
+            return ((readByte() & 0xFF) << 24) | ((readByte() & 0xFF) << 16) | ((readByte() & 0xFF) << 8) | (readByte() & 0xFF);
+        }
+
+        long readVarLong() {
+            long raw = 0;
+            int shift = 0;
+            byte current;
+            do {
+                current = readByte();
+                raw |= (long) (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0);
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        String readString() {
+            long length = readVarLong();
+            if (length == 0) {
+                return null;
+            }
+            int size = (int) (length - 1);
+            if (position + size > data.length) {
+                throw new IllegalArgumentException("Payload compacto truncado");
+            }
+            String value = new String(data, position, size, StandardCharsets.UTF_8);
+            position += size;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.aug.flightbooking.infrastructure.messaging.serialization;
+
+import com.aug.flightbooking.application.events.IntegrationEvent;
+
+/**
+ * Formato de serialización de eventos sobre Kafka.
+ * El nombre del codec viaja en el header {@link EventCodecRegistry#CODEC_HEADER} de cada mensaje,
+ * de modo que los consumidores eligen el codec por mensaje y pueden leer varios formatos a la vez.
+ */
+public interface EventCodec {
+
+    /**
+     * Nombre con el que se registra el codec y que se escribe en el header.
+     */
+    String name();
+
+    byte[] encode(IntegrationEvent event);
+
+    <T> T decode(byte[] data, Class<T> type);
+}
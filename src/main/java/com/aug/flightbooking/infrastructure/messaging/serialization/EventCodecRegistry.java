@@ -0,0 +1,63 @@
+package com.aug.flightbooking.infrastructure.messaging.serialization;
+
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Codecs disponibles por nombre. Los publishers usan el codec configurado en app.kafka.producer.codec;
+ * los consumidores eligen el codec según el header de cada mensaje (sin header se asume JSON),
+ * así que durante un cambio de formato conviven mensajes de ambos tipos en el mismo topic.
+ */
+@Component
+@Slf4j
+public class EventCodecRegistry {
+
+    public static final String CODEC_HEADER = "codec";
+
+    private final Map<String, EventCodec> codecs;
+    private final EventCodec defaultCodec;
+
+    public EventCodecRegistry(List<EventCodec> codecs, AppProperties properties) {
+        this.codecs = codecs.stream().collect(Collectors.toMap(EventCodec::name, Function.identity()));
+        String configured = properties.getKafka().getProducer().getCodec();
+        this.defaultCodec = forName(configured == null ? JsonEventCodec.NAME : configured);
+    }
+
+    public EventCodec defaultCodec() {
+        return defaultCodec;
+    }
+
+    public EventCodec forName(String name) {
+        EventCodec codec = codecs.get(name);
+        if (codec == null) {
+            throw new IllegalArgumentException("Codec desconocido: " + name);
+        }
+        return codec;
+    }
+
+    public <T> Mono<T> decode(Headers headers, byte[] data, Class<T> type) {
+        try {
+            return Mono.just(codecFor(headers).decode(data, type));
+        } catch (Exception e) {
+            log.error("Error deserializando {}: {}", type.getSimpleName(), e.getMessage());
+            return Mono.error(new RuntimeException("Error deserializando mensaje", e));
+        }
+    }
+
+    private EventCodec codecFor(Headers headers) {
+        Header header = headers == null ? null : headers.lastHeader(CODEC_HEADER);
+        return header == null
+            ? codecs.get(JsonEventCodec.NAME)
+            : forName(new String(header.value(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,40 @@
+package com.aug.flightbooking.infrastructure.messaging.serialization;
+
+import com.aug.flightbooking.application.events.IntegrationEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Codec JSON: el formato original de los eventos. Es el que se asume cuando un mensaje no trae header de codec.
+ */
+@Component
+@RequiredArgsConstructor
+public class JsonEventCodec implements EventCodec {
+
+    public static final String NAME = "json";
+
+    private final ReactiveJsonEncoder encoder;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(IntegrationEvent event) {
+        return encoder.serialize(event);
+    }
+
+    @Override
+    public <T> T decode(byte[] data, Class<T> type) {
+        try {
+            return objectMapper.readValue(data, type);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("JSON inválido para " + type.getSimpleName(), e);
+        }
+    }
+}
@@ -1,40 +1,55 @@
 package com.aug.flightbooking.infrastructure.messaging.serialization;
 
-import org.springframework.core.ResolvableType;
-import org.springframework.core.io.buffer.DataBufferUtils;
-import org.springframework.core.io.buffer.DefaultDataBufferFactory;
-import org.springframework.http.MediaType;
-import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Component
 public class ReactiveJsonEncoder {
 
-    private final Jackson2JsonEncoder encoder;
-    private final DefaultDataBufferFactory bufferFactory;
+    // Buffer por hilo: se reutiliza entre eventos y solo se copia al byte[] final que necesita Kafka
+    private static final ThreadLocal<ByteArrayBuilder> BUFFER =
+        ThreadLocal.withInitial(() -> new ByteArrayBuilder(512));
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ReactiveJsonEncoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
 
     public ReactiveJsonEncoder() {
-        this.encoder = new Jackson2JsonEncoder();
-        this.bufferFactory = new DefaultDataBufferFactory();
+        this(Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    /**
+     * Serializa de forma síncrona con un ObjectWriter precalculado para el tipo del valor.
+     * No hay nada asíncrono en serializar a memoria, así que los publishers lo usan sin Mono.
+     */
+    public byte[] serialize(Object value) {
+        ObjectWriter writer = writers.computeIfAbsent(value.getClass(), objectMapper::writerFor);
+        ByteArrayBuilder buffer = BUFFER.get();
+        buffer.reset();
+        try {
+            writer.writeValue(buffer, value);
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Error serializando " + value.getClass().getSimpleName(), e);
+        } finally {
+            buffer.reset();
+        }
     }
 
     public <T> Mono<byte[]> encode(T value) {
-        ResolvableType type = ResolvableType.forInstance(value);
-
-        return DataBufferUtils.join(
-                encoder.encode(
-                        Mono.just(value),
-                        bufferFactory,
-                        type,
-                        MediaType.APPLICATION_JSON,
-                        null
-                )
-        ).map(dataBuffer -> {
-            byte[] bytes = new byte[dataBuffer.readableByteCount()];
-            dataBuffer.read(bytes);
-            DataBufferUtils.release(dataBuffer);
-            return bytes;
-        });
+        return Mono.fromCallable(() -> serialize(value));
     }
 }
@@ -1,11 +1,19 @@
 package com.aug.flightbooking.infrastructure.persistence.adapters;
 
+import com.aug.flightbooking.application.commands.SearchFlightsCommand;
+import com.aug.flightbooking.domain.exceptions.OptimisticConcurrencyException;
 import com.aug.flightbooking.domain.models.flight.Flight;
 import com.aug.flightbooking.application.ports.out.FlightRepository;
 import com.aug.flightbooking.infrastructure.persistence.entities.FlightEntity;
+import com.aug.flightbooking.infrastructure.persistence.inventory.SeatInventoryEngine;
 import com.aug.flightbooking.infrastructure.persistence.mappers.FlightMapper;
 import com.aug.flightbooking.infrastructure.persistence.repositories.R2dbcFlightRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -15,16 +23,28 @@ import reactor.core.publisher.Mono;
 public class FlightRepositoryAdapter implements FlightRepository {
 
     private final R2dbcFlightRepository r2dbcFlightRepository;
+    private final SeatInventoryEngine seatInventoryEngine;
+    private final R2dbcEntityTemplate entityTemplate;
 
     @Override
     public Mono<Flight> findById(Long flightId) {
         return r2dbcFlightRepository.findById(flightId).map(FlightMapper::toDomain);
     }
 
+    /**
+     * Lee solo el contador de asientos reservados y la versión; lo usa CachingFlightRepository en los aciertos de caché.
+     */
+    public Mono<R2dbcFlightRepository.SeatCounter> findSeatCounter(Long flightId) {
+        return r2dbcFlightRepository.findSeatCounter(flightId);
+    }
+
     @Override
     public Mono<Flight> save(Flight flight) {
         FlightEntity entity = FlightMapper.toEntity(flight);
-        return r2dbcFlightRepository.save(entity).map(FlightMapper::toDomain);
+        return r2dbcFlightRepository.save(entity)
+                .onErrorMap(OptimisticLockingFailureException.class, ex -> new OptimisticConcurrencyException(
+                        "Vuelo " + flight.getId() + " modificado concurrentemente (versión " + flight.getVersion() + ")", ex))
+                .map(FlightMapper::toDomain);
     }
 
     @Override
@@ -32,4 +52,53 @@ public class FlightRepositoryAdapter implements FlightRepository {
         return r2dbcFlightRepository.findAll()
                 .map(FlightMapper::toDomain);
     }
+
+    /**
+     * Los filtros se traducen a un WHERE; el orden por id y el LIMIT también los resuelve PostgreSQL.
+     */
+    @Override
+    public Flux<Flight> search(SearchFlightsCommand command) {
+        Criteria criteria = Criteria.empty();
+        if (command.origin() != null) {
+            criteria = criteria.and("origin").is(command.origin());
+        }
+        if (command.destination() != null) {
+            criteria = criteria.and("destination").is(command.destination());
+        }
+        if (command.departureFrom() != null) {
+            criteria = criteria.and("scheduledDeparture").greaterThanOrEquals(command.departureFrom());
+        }
+        if (command.departureTo() != null) {
+            criteria = criteria.and("scheduledDeparture").lessThan(command.departureTo());
+        }
+        if (command.afterId() != null) {
+            criteria = criteria.and("id").greaterThan(command.afterId());
+        }
+        Query query = Query.query(criteria).sort(Sort.by("id"));
+        if (command.limit() != null) {
+            query = query.limit(command.limit());
+        }
+        return entityTemplate.select(FlightEntity.class)
+                .matching(query)
+                .all()
+                .map(FlightMapper::toDomain);
+    }
+
+    @Override
+    public Mono<Boolean> tryReserveSeat(Long flightId) {
+        // Con el inventario en memoria activo la decisión no toca la BD; se vuelca en lotes
+        if (seatInventoryEngine.isEnabled()) {
+            return seatInventoryEngine.tryReserveSeat(flightId);
+        }
+        return r2dbcFlightRepository.incrementReservedSeats(flightId)
+                .map(updatedRows -> updatedRows > 0);
+    }
+
+    @Override
+    public Mono<Integer> tryReserveSeats(Long flightId, int requested) {
+        if (seatInventoryEngine.isEnabled()) {
+            return seatInventoryEngine.tryReserveSeats(flightId, requested);
+        }
+        return r2dbcFlightRepository.reserveSeats(flightId, requested);
+    }
 }
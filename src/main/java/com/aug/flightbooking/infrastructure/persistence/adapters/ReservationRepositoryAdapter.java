@@ -1,11 +1,19 @@
 package com.aug.flightbooking.infrastructure.persistence.adapters;
 
+import com.aug.flightbooking.application.commands.SearchReservationsCommand;
 import com.aug.flightbooking.application.ports.out.ReservationRepository;
+import com.aug.flightbooking.domain.exceptions.OptimisticConcurrencyException;
 import com.aug.flightbooking.domain.models.reservation.Reservation;
+import com.aug.flightbooking.domain.models.reservation.ReservationStatus;
 import com.aug.flightbooking.infrastructure.persistence.entities.ReservationEntity;
 import com.aug.flightbooking.infrastructure.persistence.mappers.ReservationMapper;
 import com.aug.flightbooking.infrastructure.persistence.repositories.R2dbcReservationRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -18,11 +26,15 @@ import java.util.List;
 public class ReservationRepositoryAdapter implements ReservationRepository {
 
     private final R2dbcReservationRepository repository;
+    private final R2dbcEntityTemplate entityTemplate;
 
     @Override
     public Mono<Reservation> save(Reservation reservation) {
         ReservationEntity entity = ReservationMapper.toEntity(reservation);
         return repository.save(entity)
+                .onErrorMap(OptimisticLockingFailureException.class, ex -> new OptimisticConcurrencyException(
+                        "Reserva " + reservation.getId() + " modificada concurrentemente (versión "
+                                + reservation.getVersion() + ")", ex))
                 .map(ReservationMapper::toDomain);
     }
 
@@ -43,4 +55,49 @@ public class ReservationRepositoryAdapter implements ReservationRepository {
         return repository.findAll()
                 .map(ReservationMapper::toDomain);
     }
+
+    @Override
+    public Flux<Reservation> search(SearchReservationsCommand command) {
+        Criteria criteria = Criteria.empty();
+        if (command.status() != null) {
+            criteria = criteria.and("status").is(command.status().name());
+        }
+        if (command.flightId() != null) {
+            criteria = criteria.and("flightId").is(command.flightId());
+        }
+        if (command.afterId() != null) {
+            criteria = criteria.and("id").greaterThan(command.afterId());
+        }
+        Query query = Query.query(criteria).sort(Sort.by("id"));
+        if (command.limit() != null) {
+            query = query.limit(command.limit());
+        }
+        return entityTemplate.select(ReservationEntity.class)
+                .matching(query)
+                .all()
+                .map(ReservationMapper::toDomain);
+    }
+
+    @Override
+    public Flux<Reservation> findPendingPage(Instant threshold, Instant afterCreatedAt, Long afterId, int limit) {
+        return repository.findPendingPage(threshold, afterCreatedAt, afterId, limit)
+                .map(ReservationMapper::toDomain);
+    }
+
+    @Override
+    public Mono<Boolean> compareAndSetStatus(Long id, List<String> expectedStatuses, ReservationStatus target,
+                                             String message) {
+        return repository.compareAndSetStatus(id, expectedStatuses, target.name(), message)
+                .map(updated -> updated > 0);
+    }
+
+    @Override
+    public Flux<Long> transitionStatus(List<Long> ids, List<String> messages, ReservationStatus target,
+                                       List<String> fromStatuses) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return repository.transitionStatus(ids.toArray(Long[]::new), messages.toArray(String[]::new),
+                target.name(), fromStatuses);
+    }
 }
@@ -1,11 +1,13 @@
 package com.aug.flightbooking.infrastructure.persistence.adapters;
 
 import com.aug.flightbooking.application.ports.out.TicketRepository;
+import com.aug.flightbooking.domain.exceptions.OptimisticConcurrencyException;
 import com.aug.flightbooking.domain.models.ticket.Ticket;
 import com.aug.flightbooking.infrastructure.persistence.entities.TicketEntity;
 import com.aug.flightbooking.infrastructure.persistence.mappers.TicketMapper;
 import com.aug.flightbooking.infrastructure.persistence.repositories.R2dbcTicketRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
@@ -22,6 +24,8 @@ public class TicketRepositoryAdapter implements TicketRepository {
     public Mono<Ticket> save(Ticket ticket) {
         TicketEntity entity = TicketMapper.toEntity(ticket);
         return r2dbcRepository.save(entity)
+            .onErrorMap(OptimisticLockingFailureException.class, ex -> new OptimisticConcurrencyException(
+                "Tiquete " + ticket.getId() + " modificado concurrentemente (versión " + ticket.getVersion() + ")", ex))
             .map(TicketMapper::toDomain);
     }
 
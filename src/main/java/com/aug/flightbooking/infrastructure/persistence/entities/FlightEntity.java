@@ -2,6 +2,7 @@ package com.aug.flightbooking.infrastructure.persistence.entities;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
@@ -44,4 +45,8 @@ public class FlightEntity {
 
     @Column("status")
     private String status;
+
+    @Version
+    @Column("version")
+    private Long version;
 }
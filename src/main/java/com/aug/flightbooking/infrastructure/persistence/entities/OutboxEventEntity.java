@@ -0,0 +1,34 @@
+package com.aug.flightbooking.infrastructure.persistence.entities;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+/**
+ * Record Kafka pendiente de publicar: payload ya codificado y headers como JSON (nombre -> valor UTF-8).
+ */
+@Data
+@Table("outbox_event")
+public class OutboxEventEntity {
+
+    @Id
+    private Long id;
+
+    @Column("topic")
+    private String topic;
+
+    @Column("record_key")
+    private String recordKey;
+
+    @Column("payload")
+    private byte[] payload;
+
+    @Column("headers")
+    private String headers;
+
+    @Column("created_at")
+    private Instant createdAt;
+}
@@ -2,6 +2,7 @@ package com.aug.flightbooking.infrastructure.persistence.entities;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
@@ -31,4 +32,8 @@ public class ReservationEntity {
 
     @Column("created_at")
     private Instant createdAt;
+
+    @Version
+    @Column("version")
+    private Long version;
 }
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Table;
 
 /**
@@ -20,4 +21,6 @@ public class TicketEntity {
     private Long reservationId;
     private Instant issuedAt;
     private String status;
+    @Version
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.aug.flightbooking.infrastructure.persistence.inventory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contador de asientos de un vuelo en memoria.
+ * - reserved: asientos reservados vistos por este proceso (BD + seat_grant + reservas en curso).
+ * Se actualiza sin bloqueos (CAS), por lo que varios hilos pueden reservar en paralelo.
+ * Lo que se concede se persiste en seat_grant; el contador no guarda deltas propios.
+ * Un contador retirado (el vuelo pasó a otro proceso) ya no concede asientos: quien lo tenga debe
+ * volver a cargarlo desde la base de datos.
+ */
+final class SeatCounter {
+
+    // Valor de reserved en un contador retirado; el mismo CAS que concede detecta el retiro
+    static final int RETIRED = -1;
+
+    private final int totalSeats;
+    private final AtomicInteger reserved;
+
+    SeatCounter(int totalSeats, int reservedSeats) {
+        this.totalSeats = totalSeats;
+        this.reserved = new AtomicInteger(reservedSeats);
+    }
+
+    /**
+     * Intenta reservar hasta {@code requested} asientos.
+     * @return asientos concedidos (0 si el vuelo ya no tiene cupos), o {@link #RETIRED} si el contador fue retirado
+     */
+    int tryReserve(int requested) {
+        while (true) {
+            int current = reserved.get();
+            if (current == RETIRED) {
+                return RETIRED;
+            }
+            int available = totalSeats - current;
+            if (available <= 0) {
+                return 0;
+            }
+            int granted = Math.min(requested, available);
+            if (reserved.compareAndSet(current, current + granted)) {
+                return granted;
+            }
+        }
+    }
+
+    /**
+     * Devuelve asientos concedidos que no llegaron a persistirse.
+     */
+    void release(int seats) {
+        while (true) {
+            int current = reserved.get();
+            // Retirado: el próximo contador se carga de la BD, donde el asiento no quedó
+            if (current == RETIRED || reserved.compareAndSet(current, current - seats)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Deja de conceder asientos; las reservas en curso sobre este contador ven {@link #RETIRED}.
+     */
+    void retire() {
+        reserved.set(RETIRED);
+    }
+
+    int getReservedSeats() {
+        return reserved.get();
+    }
+
+    int getTotalSeats() {
+        return totalSeats;
+    }
+}
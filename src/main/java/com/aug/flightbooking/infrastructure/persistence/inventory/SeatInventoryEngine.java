@@ -0,0 +1,239 @@
+package com.aug.flightbooking.infrastructure.persistence.inventory;
+
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import com.aug.flightbooking.infrastructure.persistence.repositories.R2dbcFlightRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Inventario de asientos en memoria con escritura diferida (write-behind) a PostgreSQL.
+ *
+ * - Cada vuelo tiene un {@link SeatCounter} sin bloqueos; las reservas se aprueban o rechazan
+ *   en memoria, sin leer ni bloquear la fila del vuelo.
+ * - Los contadores se reparten en shards por flightId para no concentrar todos los vuelos en un mapa.
+ * - Cada asiento concedido se inserta en seat_grant dentro de la transacción de quien reserva; es un
+ *   INSERT sin contención, y lo confirmado sobrevive a una caída aunque aún no se haya volcado.
+ * - Cada flushPeriodMillis los registros de seat_grant se suman a reserved_seats y se borran, en lotes de
+ *   flushBatchSize registros con una sola sentencia por lote.
+ *
+ * Un contador solo es válido mientras este proceso es el único que atiende el vuelo. reservation.created va
+ * particionado por flightId, así que el dueño de un vuelo es quien tiene su partición: en cada asignación o
+ * revocación {@link #releaseCounters()} descarta los contadores y espera a que terminen las transacciones con
+ * asientos en curso. Así el siguiente dueño carga el vuelo de la BD con todo lo concedido por el anterior.
+ * Los contadores se cargan al primer uso, nunca de antemano.
+ */
+@Component
+@Slf4j
+public class SeatInventoryEngine {
+
+    // Tope de espera en un rebalance; debe quedar muy por debajo de max.poll.interval.ms
+    private static final Duration REBALANCE_WAIT = Duration.ofSeconds(10);
+
+    private final R2dbcFlightRepository flightRepository;
+    private final AppProperties.SeatInventory properties;
+    private final List<Map<Long, SeatCounter>> shards;
+    // Asientos concedidos cuya transacción aún no termina
+    private final AtomicInteger inFlightGrants = new AtomicInteger();
+
+    private Disposable flusher;
+
+    public SeatInventoryEngine(R2dbcFlightRepository flightRepository, AppProperties appProperties) {
+        this.flightRepository = flightRepository;
+        this.properties = appProperties.getSeatInventory();
+
+        int shardCount = isEnabled() ? Math.max(1, properties.getShards()) : 1;
+        this.shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties != null && properties.isEnabled();
+    }
+
+    /**
+     * Vuelca los asientos pendientes de seat_grant y arranca el volcado periódico.
+     * No hace nada si el inventario está deshabilitado.
+     */
+    public Mono<Void> start() {
+        if (!isEnabled()) {
+            return Mono.empty();
+        }
+        return flush()
+            .doOnSuccess(__ -> {
+                Duration period = Duration.ofMillis(properties.getFlushPeriodMillis());
+                this.flusher = Flux.interval(period, period)
+                    .onBackpressureDrop()
+                    .concatMap(tick -> flush()
+                        .onErrorResume(ex -> {
+                            log.error("[seat-inventory] Error volcando seat_grant, se reintenta en el siguiente ciclo", ex);
+                            return Mono.empty();
+                        }))
+                    .subscribe();
+                log.info("[seat-inventory] Volcado activo cada {} ms", period.toMillis());
+            });
+    }
+
+    /**
+     * Intenta reservar un asiento en memoria. Si el vuelo aún no está cargado, se carga una vez
+     * desde la base de datos. Retorna false si el vuelo no existe o no tiene cupos.
+     */
+    public Mono<Boolean> tryReserveSeat(Long flightId) {
+        return tryReserveSeats(flightId, 1)
+            .map(granted -> granted == 1)
+            .defaultIfEmpty(false);
+    }
+
+    /**
+     * Intenta reservar hasta {@code requested} asientos en memoria y registra los concedidos en seat_grant.
+     * Retorna los asientos concedidos, o vacío si el vuelo no existe.
+     */
+    public Mono<Integer> tryReserveSeats(Long flightId, int requested) {
+        SeatCounter counter = shardFor(flightId).get(flightId);
+        Mono<SeatCounter> loaded = counter != null ? Mono.just(counter) : load(flightId);
+        return loaded.flatMap(c -> {
+            int granted = c.tryReserve(requested);
+            if (granted == SeatCounter.RETIRED) {
+                // Se retiró entre la lectura del mapa y la reserva: se vuelve a cargar
+                shardFor(flightId).remove(flightId, c);
+                return tryReserveSeats(flightId, requested);
+            }
+            if (granted == 0) {
+                return Mono.just(0);
+            }
+            return trackUntilCompletion(c, granted)
+                .flatMap(tracked -> flightRepository.recordSeatGrant(flightId, granted)
+                    // En una transacción el asiento vuelve con el rollback; sin ella se devuelve aquí
+                    .doOnError(ex -> {
+                        if (!tracked) {
+                            c.release(granted);
+                        }
+                    }))
+                .thenReturn(granted);
+        });
+    }
+
+    /**
+     * Suma a reserved_seats los asientos registrados en seat_grant, lote a lote hasta vaciarla.
+     */
+    public Mono<Void> flush() {
+        int batchSize = Math.max(1, properties.getFlushBatchSize());
+        return flightRepository.foldSeatGrants(batchSize)
+            .expand(folded -> folded >= batchSize ? flightRepository.foldSeatGrants(batchSize) : Mono.empty())
+            .reduce(0L, Long::sum)
+            .doOnNext(total -> {
+                if (total > 0) {
+                    log.debug("[seat-inventory] Volcados {} registros de seat_grant", total);
+                }
+            })
+            .then();
+    }
+
+    /**
+     * Cambió la asignación de particiones de reservation.created: se retiran todos los contadores y se espera
+     * a que las transacciones con asientos en curso terminen, para que seat_grant ya los tenga cuando el
+     * nuevo dueño de cada vuelo lo cargue. Se llama en el hilo del consumidor Kafka y bloquea a propósito.
+     */
+    public void releaseCounters() {
+        if (!isEnabled()) {
+            return;
+        }
+        int released = 0;
+        for (Map<Long, SeatCounter> shard : shards) {
+            for (Long flightId : shard.keySet()) {
+                SeatCounter counter = shard.remove(flightId);
+                if (counter != null) {
+                    counter.retire();
+                    released++;
+                }
+            }
+        }
+        long deadline = System.nanoTime() + REBALANCE_WAIT.toNanos();
+        while (inFlightGrants.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        if (inFlightGrants.get() > 0) {
+            log.warn("[seat-inventory] Rebalance: {} asientos siguen en transacciones abiertas tras {} ms",
+                inFlightGrants.get(), REBALANCE_WAIT.toMillis());
+        }
+        log.info("[seat-inventory] Rebalance: {} contadores descartados, se recargan al primer uso", released);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.dispose();
+        // Último volcado en un apagado ordenado; lo que quede en seat_grant lo vuelca el siguiente arranque
+        flush().block(Duration.ofSeconds(10));
+    }
+
+    /**
+     * Cuenta el asiento como en curso hasta que termina la transacción de quien reserva, y lo devuelve al
+     * contador si esa transacción se revierte (error o cancelación): el registro de seat_grant se revierte con
+     * ella, así que un reintento no acumula asientos. Sin transacción no hay nada que esperar.
+     * @return true si quedó ligado a una transacción
+     */
+    private Mono<Boolean> trackUntilCompletion(SeatCounter counter, int granted) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+            .filter(TransactionSynchronizationManager::isSynchronizationActive)
+            .doOnNext(tx -> {
+                inFlightGrants.incrementAndGet();
+                tx.registerSynchronization(new GrantSynchronization(counter, granted));
+            })
+            .hasElement()
+            .onErrorResume(NoTransactionException.class, ex -> Mono.just(false));
+    }
+
+    private Mono<SeatCounter> load(Long flightId) {
+        return flightRepository.findSeatAvailability(flightId)
+            .map(seats -> shardFor(flightId).computeIfAbsent(flightId,
+                id -> new SeatCounter(seats.totalSeats(), seats.reservedSeats())));
+    }
+
+    private Map<Long, SeatCounter> shardFor(Long flightId) {
+        return shards.get(Math.floorMod(flightId.hashCode(), shards.size()));
+    }
+
+    /**
+     * Al terminar la transacción descuenta los asientos en curso; si se revirtió, los devuelve al contador.
+     * Con un commit de resultado desconocido se conservan: sobra un asiento en memoria, no se sobrevende.
+     */
+    private class GrantSynchronization implements TransactionSynchronization {
+
+        private final SeatCounter counter;
+        private final int granted;
+
+        GrantSynchronization(SeatCounter counter, int granted) {
+            this.counter = counter;
+            this.granted = granted;
+        }
+
+        @Override
+        public Mono<Void> afterCompletion(int status) {
+            if (status == STATUS_ROLLED_BACK) {
+                counter.release(granted);
+            }
+            inFlightGrants.decrementAndGet();
+            return Mono.empty();
+        }
+    }
+}
@@ -19,7 +19,8 @@ public class FlightMapper {
                 entity.getReservedSeats(),
                 entity.getScheduledDeparture(),
                 entity.getScheduledArrival(),
-                FlightStatus.valueOf(entity.getStatus())
+                FlightStatus.valueOf(entity.getStatus()),
+                entity.getVersion()
         );
     }
 
@@ -33,11 +34,11 @@ public class FlightMapper {
         entity.setOrigin(domain.getOrigin());
         entity.setDestination(domain.getDestination());
         entity.setTotalSeats(domain.getTotalSeats());
-        entity.setDestination(domain.getDestination());
         entity.setReservedSeats(domain.getReservedSeats());
         entity.setScheduledDeparture(domain.getScheduledDeparture());
         entity.setScheduledArrival(domain.getScheduledArrival());
         entity.setStatus(domain.getStatus().name());
+        entity.setVersion(domain.getVersion());
         return entity;
     }
 }
@@ -17,6 +17,7 @@ public class ReservationMapper {
         entity.setStatus(reservation.getStatus().name());
         entity.setCreatedAt(reservation.getCreatedAt());
         entity.setMessage(reservation.getMessage());
+        entity.setVersion(reservation.getVersion());
         return entity;
     }
 
@@ -28,7 +29,8 @@ public class ReservationMapper {
                 new PassengerInfo(entity.getPassengerFullName(), entity.getPassengerDocumentId()),
                 ReservationStatus.valueOf(entity.getStatus()),
                 entity.getCreatedAt(),
-                entity.getMessage()
+                entity.getMessage(),
+                entity.getVersion()
         );
     }
 }
@@ -11,11 +11,13 @@ import com.aug.flightbooking.infrastructure.persistence.entities.TicketEntity;
 public class TicketMapper {
 
     public static TicketEntity toEntity(Ticket ticket) {
+        // Con id y versión un tiquete existente se actualiza; antes siempre se insertaba uno nuevo
         return new TicketEntity(
-            null,
+            ticket.getId(),
             ticket.getReservationId(),
             ticket.getIssuedAt(),
-            ticket.getStatus().name()
+            ticket.getStatus().name(),
+            ticket.getVersion()
         );
     }
 
@@ -24,7 +26,8 @@ public class TicketMapper {
             entity.getId(),
             entity.getReservationId(),
             TicketStatus.valueOf(entity.getStatus()),
-            entity.getIssuedAt()
+            entity.getIssuedAt(),
+            entity.getVersion()
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.aug.flightbooking.infrastructure.persistence.pool;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * ConnectionFactory de la aplicación: el pool de r2dbc-pool con sus métricas en Micrometer.
+ *
+ * - r2dbc.pool.acquired / idle / pending / allocated: conexiones en uso, ociosas, adquisiciones en espera
+ *   y conexiones abiertas, leídas del pool en cada scrape.
+ * - r2dbc.pool.acquire: latencia desde que se pide una conexión hasta que se entrega, con outcome success|error
+ *   (un error suele ser un maxAcquireTime vencido).
+ *
+ * Con pending sostenido mayor que cero el pool es el cuello de botella frente a la concurrencia de los consumidores.
+ */
+public class MeteredConnectionPool implements ConnectionFactory, Disposable {
+
+    private final ConnectionPool pool;
+    private final Timer acquireSuccess;
+    private final Timer acquireError;
+
+    public MeteredConnectionPool(ConnectionPool pool, String name, MeterRegistry meterRegistry) {
+        this.pool = pool;
+        Tags tags = Tags.of("name", name);
+        gauge(meterRegistry, "r2dbc.pool.acquired", "Conexiones entregadas y en uso", tags, PoolMetrics::acquiredSize);
+        gauge(meterRegistry, "r2dbc.pool.idle", "Conexiones ociosas en el pool", tags, PoolMetrics::idleSize);
+        gauge(meterRegistry, "r2dbc.pool.pending", "Adquisiciones esperando una conexión", tags, PoolMetrics::pendingAcquireSize);
+        gauge(meterRegistry, "r2dbc.pool.allocated", "Conexiones abiertas (en uso y ociosas)", tags, PoolMetrics::allocatedSize);
+        this.acquireSuccess = acquireTimer(meterRegistry, tags, "success");
+        this.acquireError = acquireTimer(meterRegistry, tags, "error");
+    }
+
+    @Override
+    public Mono<Connection> create() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return pool.create()
+                .doOnSuccess(connection -> acquireSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                .doOnError(ex -> acquireError.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return pool.getMetadata();
+    }
+
+    @Override
+    public void dispose() {
+        pool.dispose();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return pool.isDisposed();
+    }
+
+    private void gauge(MeterRegistry registry, String name, String description, Tags tags,
+                       ToIntFunction<PoolMetrics> metric) {
+        Gauge.builder(name, pool, p -> p.getMetrics().map(metric::applyAsInt).orElse(0))
+            .tags(tags)
+            .description(description)
+            .register(registry);
+    }
+
+    private static Timer acquireTimer(MeterRegistry registry, Tags tags, String outcome) {
+        return Timer.builder("r2dbc.pool.acquire")
+            .tags(tags)
+            .tag("outcome", outcome)
+            .description("Espera por una conexión del pool")
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+}
@@ -1,8 +1,87 @@
 package com.aug.flightbooking.infrastructure.persistence.repositories;
 
 import com.aug.flightbooking.infrastructure.persistence.entities.FlightEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
 
 public interface R2dbcFlightRepository extends ReactiveCrudRepository<FlightEntity, Long> {
 
+    /**
+     * Solo el contador de asientos y la versión; el resto del vuelo se sirve desde la caché local.
+     * @return contador (vacío si el vuelo no existe)
+     */
+    @Query("SELECT reserved_seats, version FROM flight WHERE id = :id")
+    Mono<SeatCounter> findSeatCounter(@Param("id") Long id);
+
+    /**
+     * Incrementa reserved_seats solo si aún hay cupo, en una sola sentencia.
+     * La condición se evalúa sobre la fila bloqueada, por lo que dos consumidores
+     * concurrentes no pueden sobrevender el mismo asiento.
+     * @return número de filas afectadas (1 = asiento reservado, 0 = sin cupo o vuelo inexistente)
+     */
+    @Modifying
+    @Query("UPDATE flight SET reserved_seats = reserved_seats + 1, version = version + 1 " +
+           "WHERE id = :id AND reserved_seats < total_seats")
+    Mono<Integer> incrementReservedSeats(@Param("id") Long id);
+
+    /**
+     * Reserva hasta :requested asientos en una sola sentencia, limitado a los cupos disponibles.
+     * La fila se bloquea en el CTE, así que el cálculo y el incremento son atómicos.
+     * @return asientos concedidos (vacío si el vuelo no existe)
+     */
+    @Query("WITH prev AS (SELECT id, reserved_seats, total_seats FROM flight WHERE id = :id FOR UPDATE) " +
+           "UPDATE flight AS f " +
+           "SET reserved_seats = prev.reserved_seats + LEAST(:requested, GREATEST(prev.total_seats - prev.reserved_seats, 0)), " +
+           "version = f.version + 1 " +
+           "FROM prev WHERE f.id = prev.id " +
+           "RETURNING f.reserved_seats - prev.reserved_seats AS granted")
+    Mono<Integer> reserveSeats(@Param("id") Long id, @Param("requested") int requested);
+
+    /**
+     * Cupos del vuelo para el inventario en memoria: reserved_seats más los asientos de seat_grant que el
+     * volcado aún no ha sumado. Una sola sentencia, así un volcado concurrente no se cuenta dos veces.
+     * @return cupos (vacío si el vuelo no existe)
+     */
+    @Query("SELECT f.total_seats, " +
+           "CAST(f.reserved_seats + COALESCE((SELECT SUM(g.seats) FROM seat_grant g WHERE g.flight_id = f.id), 0) AS INTEGER) AS reserved_seats " +
+           "FROM flight f WHERE f.id = :id")
+    Mono<SeatAvailability> findSeatAvailability(@Param("id") Long id);
+
+    /**
+     * Registra asientos concedidos en memoria. Corre en la transacción de quien reserva: si se revierte,
+     * el registro desaparece con ella; si se confirma, el asiento sobrevive a una caída antes del volcado.
+     */
+    @Modifying
+    @Query("INSERT INTO seat_grant (flight_id, seats) VALUES (:flightId, :seats)")
+    Mono<Integer> recordSeatGrant(@Param("flightId") Long flightId, @Param("seats") int seats);
+
+    /**
+     * Suma a reserved_seats hasta :limit registros de seat_grant y los borra, en una sola sentencia.
+     * SKIP LOCKED: otra réplica que vuelque a la vez toma registros distintos.
+     * @return registros volcados
+     */
+    @Query("WITH moved AS (" +
+           "    DELETE FROM seat_grant WHERE id IN (SELECT id FROM seat_grant ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+           "    RETURNING flight_id, seats), " +
+           "folded AS (" +
+           "    UPDATE flight AS f SET reserved_seats = f.reserved_seats + t.seats, version = f.version + 1 " +
+           "    FROM (SELECT flight_id, SUM(seats) AS seats FROM moved GROUP BY flight_id) AS t " +
+           "    WHERE f.id = t.flight_id) " +
+           "SELECT COUNT(*) FROM moved")
+    Mono<Long> foldSeatGrants(@Param("limit") int limit);
+
+    /**
+     * Proyección de {@link #findSeatCounter(Long)}.
+     */
+    record SeatCounter(Integer reservedSeats, Long version) {
+    }
+
+    /**
+     * Proyección de {@link #findSeatAvailability(Long)}.
+     */
+    record SeatAvailability(Integer totalSeats, Integer reservedSeats) {
+    }
 }
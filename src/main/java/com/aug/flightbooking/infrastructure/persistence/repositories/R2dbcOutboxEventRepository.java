@@ -0,0 +1,23 @@
+package com.aug.flightbooking.infrastructure.persistence.repositories;
+
+import com.aug.flightbooking.infrastructure.persistence.entities.OutboxEventEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface R2dbcOutboxEventRepository extends ReactiveCrudRepository<OutboxEventEntity, Long> {
+
+    /**
+     * Toma los eventos más antiguos y los bloquea hasta el fin de la transacción.
+     * SKIP LOCKED: otra réplica que drene a la vez toma el lote siguiente en lugar de esperar.
+     */
+    @Query("SELECT * FROM outbox_event ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED")
+    Flux<OutboxEventEntity> lockBatch(@Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM outbox_event WHERE id = ANY(CAST(:ids AS BIGINT[]))")
+    Mono<Integer> deleteByIds(@Param("ids") Long[] ids);
+}
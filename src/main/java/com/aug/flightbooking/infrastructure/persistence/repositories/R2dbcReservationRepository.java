@@ -3,6 +3,8 @@ package com.aug.flightbooking.infrastructure.persistence.repositories;
 import com.aug.flightbooking.infrastructure.persistence.entities.ReservationEntity;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -23,5 +25,53 @@ public interface R2dbcReservationRepository extends ReactiveCrudRepository<Reser
             @Param("threshold") Instant threshold
     );
 
+    /**
+     * Página del barrido de reservas sin respuesta, por keyset (created_at, id) a partir del último registro leído.
+     * Los estados van literales para que PostgreSQL use el índice parcial idx_reservation_pending_created_at
+     * (V3_create_reservation_pending_index): el costo por página no depende del tamaño de la tabla.
+     */
+    @Query("SELECT * FROM reservation " +
+           "WHERE status IN ('CREATED', 'PENDING') " +
+           "AND created_at < :threshold " +
+           "AND (created_at, id) > (:afterCreatedAt, :afterId) " +
+           "ORDER BY created_at, id " +
+           "LIMIT :limit")
+    Flux<ReservationEntity> findPendingPage(
+            @Param("threshold") Instant threshold,
+            @Param("afterCreatedAt") Instant afterCreatedAt,
+            @Param("afterId") Long afterId,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Cambio de estado como compare-and-set: solo escribe status y message, y solo si el estado actual
+     * está en :expected. Sin lectura previa ni bloqueos; 0 filas indica que otro proceso cambió la reserva.
+     */
+    @Modifying
+    @Query("UPDATE reservation SET status = :target, message = :message, version = version + 1 " +
+           "WHERE id = :id AND status IN (:expected)")
+    Mono<Integer> compareAndSetStatus(
+            @Param("id") Long id,
+            @Param("expected") List<String> expected,
+            @Param("target") String target,
+            @Param("message") String message
+    );
+
+    /**
+     * Transición en lote: ids[i] pasa a :target con messages[i], solo si su estado actual está en :statuses.
+     * La condición se evalúa sobre la fila bloqueada por el UPDATE, así una confirmación concurrente no se pisa.
+     * @return ids realmente actualizados
+     */
+    @Query("UPDATE reservation AS r SET status = :target, message = v.message, version = r.version + 1 " +
+           "FROM (SELECT UNNEST(CAST(:ids AS BIGINT[])) AS id, UNNEST(CAST(:messages AS TEXT[])) AS message) AS v " +
+           "WHERE r.id = v.id AND r.status IN (:statuses) " +
+           "RETURNING r.id")
+    Flux<Long> transitionStatus(
+            @Param("ids") Long[] ids,
+            @Param("messages") String[] messages,
+            @Param("target") String target,
+            @Param("statuses") List<String> statuses
+    );
+
 }
 
@@ -0,0 +1,50 @@
+package com.aug.flightbooking.infrastructure.web.controllers;
+
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Paginación por cursor (keyset sobre el id) compartida por los listados.
+ * - El cliente envía {@code cursor} (último id recibido) y {@code limit}.
+ * - Se piden limit + 1 filas: si llega la fila extra hay más páginas y el id de la última fila devuelta
+ *   viaja en la cabecera {@link #NEXT_CURSOR_HEADER}; sin cabecera, la página es la última.
+ */
+final class CursorPage {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 500;
+
+    private CursorPage() {
+    }
+
+    /**
+     * Límite de página acotado a [1, MAX_LIMIT]; sin valor se usa DEFAULT_LIMIT.
+     */
+    static int limit(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.max(1, Math.min(requested, MAX_LIMIT));
+    }
+
+    /**
+     * Arma la respuesta a partir de las filas leídas con limit + 1.
+     */
+    static <T, R> Mono<ResponseEntity<List<R>>> of(Flux<T> rows, int limit,
+                                                   Function<T, Long> idOf, Function<T, R> toResponse) {
+        return rows.collectList().map(items -> {
+            if (items.size() <= limit) {
+                return ResponseEntity.ok(items.stream().map(toResponse).toList());
+            }
+            List<T> page = items.subList(0, limit);
+            return ResponseEntity.ok()
+                    .header(NEXT_CURSOR_HEADER, String.valueOf(idOf.apply(page.get(limit - 1))))
+                    .body(page.stream().map(toResponse).toList());
+        });
+    }
+}
@@ -1,8 +1,10 @@
 package com.aug.flightbooking.infrastructure.web.controllers;
 
 import com.aug.flightbooking.application.commands.CreateFlightCommand;
+import com.aug.flightbooking.application.commands.SearchFlightsCommand;
 import com.aug.flightbooking.application.ports.in.CreateFlightUseCase;
 import com.aug.flightbooking.application.ports.in.GetAllFlightsUseCase;
+import com.aug.flightbooking.domain.models.flight.Flight;
 import com.aug.flightbooking.infrastructure.web.dtos.FlightCreateRequest;
 import com.aug.flightbooking.infrastructure.web.dtos.FlightCreateResponse;
 import com.aug.flightbooking.infrastructure.web.dtos.FlightResponse;
@@ -11,11 +13,15 @@ import com.aug.flightbooking.infrastructure.web.mappers.FlightResponseMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/flight")
 @RequiredArgsConstructor
@@ -36,9 +42,45 @@ public class FlightController {
                 .defaultIfEmpty(ResponseEntity.internalServerError().build());
     }
 
+    /**
+     * Sin parámetros devuelve el catálogo completo (servido desde caché).
+     * Con filtros o cursor pagina en la base de datos; la siguiente página se indica en X-Next-Cursor.
+     */
     @GetMapping
-    public Flux<FlightResponse> getAllFlights() {
-        return getAllFlightsUseCase.getAllFlights()
+    public Mono<ResponseEntity<List<FlightResponse>>> getAllFlights(
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination,
+            @RequestParam(required = false) Instant departureFrom,
+            @RequestParam(required = false) Instant departureTo,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (origin == null && destination == null && departureFrom == null && departureTo == null
+                && cursor == null && limit == null) {
+            return getAllFlightsUseCase.getAllFlights()
+                    .map(responseMapper::toResponse)
+                    .collectList()
+                    .map(ResponseEntity::ok);
+        }
+        int pageSize = CursorPage.limit(limit);
+        SearchFlightsCommand command = new SearchFlightsCommand(
+                origin, destination, departureFrom, departureTo, cursor, pageSize + 1);
+        return CursorPage.of(getAllFlightsUseCase.searchFlights(command), pageSize,
+                Flight::getId, responseMapper::toResponse);
+    }
+
+    /**
+     * Mismos filtros sin paginar, emitidos como NDJSON a medida que llegan de la base de datos.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<FlightResponse> streamFlights(
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination,
+            @RequestParam(required = false) Instant departureFrom,
+            @RequestParam(required = false) Instant departureTo,
+            @RequestParam(required = false) Long cursor) {
+        SearchFlightsCommand command = new SearchFlightsCommand(
+                origin, destination, departureFrom, departureTo, cursor, null);
+        return getAllFlightsUseCase.searchFlights(command)
                 .map(responseMapper::toResponse);
     }
 }
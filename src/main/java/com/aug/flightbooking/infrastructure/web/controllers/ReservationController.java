@@ -1,6 +1,9 @@
 package com.aug.flightbooking.infrastructure.web.controllers;
 
+import com.aug.flightbooking.application.commands.SearchReservationsCommand;
 import com.aug.flightbooking.application.ports.in.GetAllReservationsUseCase;
+import com.aug.flightbooking.domain.models.reservation.Reservation;
+import com.aug.flightbooking.domain.models.reservation.ReservationStatus;
 import com.aug.flightbooking.infrastructure.web.dtos.ReservationRequest;
 import com.aug.flightbooking.infrastructure.web.dtos.ReservationResponse;
 import com.aug.flightbooking.infrastructure.web.mappers.ReservationCreateMapper;
@@ -15,6 +18,8 @@ import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/reservation")
@@ -35,9 +40,31 @@ public class ReservationController {
                 ).defaultIfEmpty(ResponseEntity.internalServerError().build());
     }
 
+    /**
+     * Listado paginado por id, filtrable por estado y vuelo; la siguiente página se indica en X-Next-Cursor.
+     */
     @GetMapping
-    public Flux<ReservationResponse> getAllReservations() {
-        return getAllReservationsUseCase.getAllReservations()
+    public Mono<ResponseEntity<List<ReservationResponse>>> getAllReservations(
+            @RequestParam(required = false) ReservationStatus status,
+            @RequestParam(required = false) Long flightId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limit) {
+        int pageSize = CursorPage.limit(limit);
+        SearchReservationsCommand command = new SearchReservationsCommand(status, flightId, cursor, pageSize + 1);
+        return CursorPage.of(getAllReservationsUseCase.searchReservations(command), pageSize,
+                Reservation::getId, reservationResponseMapper::toResponse);
+    }
+
+    /**
+     * Mismos filtros sin paginar, emitidos como NDJSON a medida que llegan de la base de datos.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ReservationResponse> streamReservations(
+            @RequestParam(required = false) ReservationStatus status,
+            @RequestParam(required = false) Long flightId,
+            @RequestParam(required = false) Long cursor) {
+        SearchReservationsCommand command = new SearchReservationsCommand(status, flightId, cursor, null);
+        return getAllReservationsUseCase.searchReservations(command)
                 .map(reservationResponseMapper::toResponse);
     }
 }
@@ -1,10 +1,12 @@
 package com.aug.flightbooking.infrastructure.web.controllers;
 
 import com.aug.flightbooking.application.ports.in.CheckInTicketUseCase;
+import com.aug.flightbooking.domain.exceptions.OptimisticConcurrencyException;
 import com.aug.flightbooking.infrastructure.web.dtos.CheckInRequest;
 import com.aug.flightbooking.infrastructure.web.mappers.CheckInCreateMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
@@ -27,6 +29,10 @@ public class TicketCheckInController {
     public Mono<ResponseEntity<Object>> checkIn(@Valid @RequestBody CheckInRequest checkInRequest) {
         return checkInTicketUseCase.checkIn(mapper.toCommand(checkInRequest))
             .thenReturn(ResponseEntity.accepted().build())
+            // Check-in concurrente sobre el mismo tiquete: el cliente puede reintentar
+            .onErrorResume(OptimisticConcurrencyException.class, ex ->
+                Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).build())
+            )
             .onErrorResume(ex ->
                 Mono.just(ResponseEntity.badRequest().build())
             );
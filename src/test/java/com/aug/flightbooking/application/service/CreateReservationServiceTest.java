@@ -8,9 +8,9 @@ import com.aug.flightbooking.application.ports.out.ReservationRepository;
 import com.aug.flightbooking.domain.models.reservation.PassengerInfo;
 import com.aug.flightbooking.domain.models.reservation.Reservation;
 import com.aug.flightbooking.domain.models.reservation.ReservationStatus;
-import com.aug.flightbooking.domain.models.reservation.ReservationStatusAction;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -19,8 +19,9 @@ import reactor.test.StepVerifier;
 
 import java.time.Instant;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 public class CreateReservationServiceTest {
 
@@ -33,9 +34,6 @@ public class CreateReservationServiceTest {
     @Mock
     private ReservationCache reservationCache;
 
-    @Mock
-    private ReservationStatusUpdater reservationStatusUpdater;
-
     @InjectMocks
     private CreateReservationService service;
 
@@ -58,7 +56,7 @@ public class CreateReservationServiceTest {
                 1L,
                 command.flightId(),
                 new PassengerInfo(command.fullName(), command.documentId()),
-                ReservationStatus.CREATED,
+                ReservationStatus.PENDING,
                 Instant.now(),
                 null
         );
@@ -72,16 +70,18 @@ public class CreateReservationServiceTest {
         // Mock del registro en Redis
         when(reservationCache.registerTimeout(1L)).thenReturn(Mono.empty());
 
-        // Mock de la actualización del estado
-        when(reservationStatusUpdater.updateStatus(reservation, ReservationStatusAction.PENDING))
-                .thenReturn(Mono.empty());
-
         // Se verifica que el resultado contenga el ID y el estado esperado
         StepVerifier.create(service.createReservation(command))
                 .expectNextMatches(result ->
                         result.id().equals(1L) &&
-                                result.status().equals(ReservationStatus.CREATED.name())
+                                result.status().equals(ReservationStatus.PENDING.name())
                 )
                 .verifyComplete();
+
+        // Un único INSERT, ya en PENDING, sin UPDATE posterior
+        ArgumentCaptor<Reservation> inserted = ArgumentCaptor.forClass(Reservation.class);
+        verify(reservationRepository, times(1)).save(inserted.capture());
+        assertThat(inserted.getValue().getStatus()).isEqualTo(ReservationStatus.PENDING);
+        verifyNoMoreInteractions(reservationRepository);
     }
 }
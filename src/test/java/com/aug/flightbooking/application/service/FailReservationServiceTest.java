@@ -5,7 +5,6 @@ import com.aug.flightbooking.application.ports.out.ReservationRepository;
 import com.aug.flightbooking.domain.models.reservation.PassengerInfo;
 import com.aug.flightbooking.domain.models.reservation.Reservation;
 import com.aug.flightbooking.domain.models.reservation.ReservationStatus;
-import com.aug.flightbooking.domain.models.reservation.ReservationStatusAction;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,10 +14,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
+import reactor.test.publisher.PublisherProbe;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -32,6 +34,8 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class FailReservationServiceTest {
 
+    private static final int PAGE_SIZE = 500;
+
     @Mock
     private ReservationRepository reservationRepository;
 
@@ -57,28 +61,27 @@ class FailReservationServiceTest {
         Instant createdAt = Instant.now().minusSeconds(7200);
         Reservation r = buildReservation(10L, ReservationStatus.CREATED, createdAt);
 
-        // Se simula que el repositorio devuelve esa reserva para los estados CREATED y PENDING
-        when(reservationRepository.findReservationsBefore(any(Instant.class), eq(List.of(ReservationStatus.CREATED.name(), ReservationStatus.PENDING.name()))))
+        // Se simula que la primera página (cursor inicial) devuelve esa reserva
+        when(reservationRepository.findPendingPage(any(Instant.class), eq(Instant.EPOCH), eq(0L), eq(PAGE_SIZE)))
                 .thenReturn(Flux.just(r));
 
-        // Se simula que en caché no hay valor (defaultIfEmpty -> "MISSING")
-        when(reservationCache.get(10L)).thenReturn(Mono.empty());
+        // Se simula que en caché no hay valor para la reserva
+        when(reservationCache.getAll(List.of(10L))).thenReturn(Mono.just(Map.of()));
 
-        // Se stubbea la actualización de estado a FAILED sin error
-        when(reservationStatusUpdater.updateStatus(eq(10L), anyString(), eq(ReservationStatusAction.FAILED)))
-                .thenReturn(Mono.empty());
+        // Se stubbea la transición en lote a FAILED sin error
+        when(reservationStatusUpdater.transitionStatuses(anyMap(), eq(ReservationStatus.FAILED)))
+                .thenReturn(Flux.just(10L));
 
         // Se ejecuta el caso de uso
-        StepVerifier.create(service.failReservations(3600))
+        StepVerifier.create(service.failReservations(3600, PAGE_SIZE))
                 .verifyComplete();
 
-        // Se capturan los argumentos del mensaje para validar contenido relevante
-        ArgumentCaptor<String> msgCaptor = ArgumentCaptor.forClass(String.class);
-        verify(reservationStatusUpdater, times(1))
-                .updateStatus(eq(10L), msgCaptor.capture(), eq(ReservationStatusAction.FAILED));
+        ArgumentCaptor<Map<Long, String>> messages = messagesCaptor();
+        verify(reservationStatusUpdater, times(1)).transitionStatuses(messages.capture(), eq(ReservationStatus.FAILED));
+        assertThat(messages.getValue()).containsOnlyKeys(10L);
 
-        String msg = msgCaptor.getValue();
-        // Se verifica que el mensaje refleje que no estaba en caché y contenga marcas de timeout
+        // Se valida que el mensaje refleje que no estaba en caché y contenga marcas de timeout
+        String msg = messages.getValue().get(10L);
         assertTrue(msg.contains("NO encontrada en la caché"), "El mensaje debe indicar ausencia en caché");
         assertTrue(msg.contains("TimeOut"), "El mensaje debe indicar timeout");
         assertTrue(msg.contains("Created At"), "El mensaje debe incluir la fecha de creación");
@@ -91,33 +94,88 @@ class FailReservationServiceTest {
         Instant createdAt = Instant.now().minusSeconds(7200);
         Reservation r = buildReservation(11L, ReservationStatus.PENDING, createdAt);
 
-        when(reservationRepository.findReservationsBefore(any(Instant.class), anyList()))
+        when(reservationRepository.findPendingPage(any(Instant.class), any(Instant.class), anyLong(), anyInt()))
                 .thenReturn(Flux.just(r));
 
         // Se simula que la caché tiene algún valor
-        when(reservationCache.get(11L)).thenReturn(Mono.just("OK"));
+        when(reservationCache.getAll(List.of(11L))).thenReturn(Mono.just(Map.of(11L, "OK")));
 
-        when(reservationStatusUpdater.updateStatus(eq(11L), anyString(), eq(ReservationStatusAction.FAILED)))
-                .thenReturn(Mono.empty());
+        when(reservationStatusUpdater.transitionStatuses(anyMap(), eq(ReservationStatus.FAILED)))
+                .thenReturn(Flux.just(11L));
 
-        StepVerifier.create(service.failReservations(3600))
+        StepVerifier.create(service.failReservations(3600, PAGE_SIZE))
                 .verifyComplete();
 
         // Se valida que se intentó actualizar a FAILED
-        verify(reservationStatusUpdater, times(1))
-                .updateStatus(eq(11L), anyString(), eq(ReservationStatusAction.FAILED));
+        ArgumentCaptor<Map<Long, String>> messages = messagesCaptor();
+        verify(reservationStatusUpdater, times(1)).transitionStatuses(messages.capture(), eq(ReservationStatus.FAILED));
+        assertThat(messages.getValue().get(11L)).doesNotContain("NO encontrada");
+    }
+
+    @Test
+    @DisplayName("failReservations(): recorre por keyset (createdAt, id), con un MGET y un UPDATE por página")
+    void fail_in_keyset_pages() {
+        Instant createdAt = Instant.now().minusSeconds(7200);
+        Reservation r1 = buildReservation(1L, ReservationStatus.CREATED, createdAt);
+        Reservation r2 = buildReservation(2L, ReservationStatus.CREATED, createdAt.plusSeconds(1));
+        Reservation r3 = buildReservation(3L, ReservationStatus.PENDING, createdAt.plusSeconds(2));
+
+        // Página completa: se pide la siguiente desde la última reserva; página incompleta: fin del barrido
+        when(reservationRepository.findPendingPage(any(Instant.class), eq(Instant.EPOCH), eq(0L), eq(2)))
+                .thenReturn(Flux.just(r1, r2));
+        when(reservationRepository.findPendingPage(any(Instant.class), eq(r2.getCreatedAt()), eq(2L), eq(2)))
+                .thenReturn(Flux.just(r3));
+        when(reservationCache.getAll(anyList())).thenReturn(Mono.just(Map.of()));
+        when(reservationStatusUpdater.transitionStatuses(anyMap(), eq(ReservationStatus.FAILED)))
+                .thenReturn(Flux.empty());
+
+        StepVerifier.create(service.failReservations(3600, 2))
+                .verifyComplete();
+
+        verify(reservationRepository, times(2)).findPendingPage(any(Instant.class), any(Instant.class), anyLong(), anyInt());
+        verify(reservationCache).getAll(List.of(1L, 2L));
+        verify(reservationCache).getAll(List.of(3L));
+        ArgumentCaptor<Map<Long, String>> messages = messagesCaptor();
+        verify(reservationStatusUpdater, times(2)).transitionStatuses(messages.capture(), eq(ReservationStatus.FAILED));
+        assertThat(messages.getAllValues().get(0)).containsOnlyKeys(1L, 2L);
+        assertThat(messages.getAllValues().get(1)).containsOnlyKeys(3L);
+    }
+
+    @Test
+    @DisplayName("failReservations(): la página siguiente se consulta solo cuando terminó el UPDATE de la anterior")
+    void next_page_waits_for_previous_update() {
+        Instant createdAt = Instant.now().minusSeconds(7200);
+        Reservation r1 = buildReservation(1L, ReservationStatus.CREATED, createdAt);
+        Reservation r2 = buildReservation(2L, ReservationStatus.CREATED, createdAt.plusSeconds(1));
+        Sinks.Many<Long> firstUpdate = Sinks.many().unicast().onBackpressureBuffer();
+        PublisherProbe<Reservation> secondPage = PublisherProbe.empty();
+
+        when(reservationRepository.findPendingPage(any(Instant.class), eq(Instant.EPOCH), eq(0L), eq(2)))
+                .thenReturn(Flux.just(r1, r2));
+        when(reservationRepository.findPendingPage(any(Instant.class), eq(r2.getCreatedAt()), eq(2L), eq(2)))
+                .thenReturn(secondPage.flux());
+        when(reservationCache.getAll(List.of(1L, 2L))).thenReturn(Mono.just(Map.of()));
+        when(reservationStatusUpdater.transitionStatuses(anyMap(), eq(ReservationStatus.FAILED)))
+                .thenReturn(firstUpdate.asFlux());
+
+        StepVerifier.create(service.failReservations(3600, 2))
+                .then(() -> assertThat(secondPage.wasSubscribed()).isFalse())
+                .then(firstUpdate::tryEmitComplete)
+                .verifyComplete();
+
+        secondPage.assertWasSubscribed();
     }
 
     @Test
     @DisplayName("failReservations(): debe completar sin acciones cuando no hay reservas vencidas")
     void no_expired_reservations() {
-        when(reservationRepository.findReservationsBefore(any(Instant.class), anyList()))
+        when(reservationRepository.findPendingPage(any(Instant.class), any(Instant.class), anyLong(), anyInt()))
                 .thenReturn(Flux.empty());
 
-        StepVerifier.create(service.failReservations(3600))
+        StepVerifier.create(service.failReservations(3600, PAGE_SIZE))
                 .verifyComplete();
 
-        verify(reservationStatusUpdater, never()).updateStatus(anyLong(), anyString(), any());
+        verifyNoInteractions(reservationCache, reservationStatusUpdater);
     }
 
     @Test
@@ -126,16 +184,38 @@ class FailReservationServiceTest {
         Instant createdAt = Instant.now().minusSeconds(7200);
         Reservation r = buildReservation(12L, ReservationStatus.CREATED, createdAt);
 
-        when(reservationRepository.findReservationsBefore(any(Instant.class), anyList()))
+        when(reservationRepository.findPendingPage(any(Instant.class), any(Instant.class), anyLong(), anyInt()))
                 .thenReturn(Flux.just(r));
 
-        when(reservationCache.get(12L)).thenReturn(Mono.empty());
+        when(reservationCache.getAll(List.of(12L))).thenReturn(Mono.just(Map.of()));
 
-        when(reservationStatusUpdater.updateStatus(eq(12L), anyString(), eq(ReservationStatusAction.FAILED)))
-                .thenReturn(Mono.error(new IllegalStateException("No se pudo actualizar")));
+        when(reservationStatusUpdater.transitionStatuses(anyMap(), eq(ReservationStatus.FAILED)))
+                .thenReturn(Flux.error(new IllegalStateException("No se pudo actualizar")));
 
-        StepVerifier.create(service.failReservations(3600))
+        StepVerifier.create(service.failReservations(3600, PAGE_SIZE))
                 .expectError(IllegalStateException.class)
                 .verify();
     }
+
+    @Test
+    @DisplayName("failExpiredReservations(): un único UPDATE por lote, sin leer las reservas")
+    void failExpired_single_update_without_reads() {
+        // 21 ya fue confirmada concurrentemente: el UPDATE condicionado por estado solo devuelve 20
+        when(reservationStatusUpdater.transitionStatuses(anyMap(), eq(ReservationStatus.FAILED)))
+                .thenReturn(Flux.just(20L));
+
+        StepVerifier.create(service.failExpiredReservations(List.of(20L, 21L)))
+                .verifyComplete();
+
+        ArgumentCaptor<Map<Long, String>> messages = messagesCaptor();
+        verify(reservationStatusUpdater, times(1)).transitionStatuses(messages.capture(), eq(ReservationStatus.FAILED));
+        assertThat(messages.getValue()).containsOnlyKeys(20L, 21L);
+        assertThat(messages.getValue().get(20L)).contains("TimeOut");
+        verifyNoInteractions(reservationRepository, reservationCache);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<Map<Long, String>> messagesCaptor() {
+        return ArgumentCaptor.forClass(Map.class);
+    }
 }
@@ -1,5 +1,6 @@
 package com.aug.flightbooking.application.service;
 
+import com.aug.flightbooking.application.commands.SearchFlightsCommand;
 import com.aug.flightbooking.application.ports.out.FlightRepository;
 import com.aug.flightbooking.domain.models.flight.Flight;
 import org.junit.jupiter.api.DisplayName;
@@ -53,4 +54,19 @@ class GetAllFlightsServiceTest {
 
         verify(flightRepository, times(1)).findAll();
     }
+
+    @Test
+    @DisplayName("searchFlights(): delega los filtros y el cursor en el repositorio")
+    void searchFlights_delegates_to_repository() {
+        Flight f1 = mock(Flight.class);
+        SearchFlightsCommand command = new SearchFlightsCommand("SCL", "LIM", null, null, 10L, 51);
+
+        when(flightRepository.search(command)).thenReturn(Flux.just(f1));
+
+        StepVerifier.create(service.searchFlights(command))
+                .expectNext(f1)
+                .verifyComplete();
+
+        verify(flightRepository, never()).findAll();
+    }
 }
@@ -1,7 +1,9 @@
 package com.aug.flightbooking.application.service;
 
+import com.aug.flightbooking.application.commands.SearchReservationsCommand;
 import com.aug.flightbooking.application.ports.out.ReservationRepository;
 import com.aug.flightbooking.domain.models.reservation.Reservation;
+import com.aug.flightbooking.domain.models.reservation.ReservationStatus;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -53,4 +55,19 @@ class GetAllReservationsServiceTest {
 
         verify(reservationRepository, times(1)).findAll();
     }
+
+    @Test
+    @DisplayName("searchReservations(): delega los filtros y el cursor en el repositorio")
+    void searchReservations_delegates_to_repository() {
+        Reservation r1 = mock(Reservation.class);
+        SearchReservationsCommand command = new SearchReservationsCommand(ReservationStatus.PENDING, 100L, null, 51);
+
+        when(reservationRepository.search(command)).thenReturn(Flux.just(r1));
+
+        StepVerifier.create(service.searchReservations(command))
+                .expectNext(r1)
+                .verifyComplete();
+
+        verify(reservationRepository, never()).findAll();
+    }
 }
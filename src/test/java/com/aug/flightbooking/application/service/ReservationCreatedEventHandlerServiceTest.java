@@ -16,12 +16,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 /**
  * Pruebas unitarias para ReservationCreatedEventHandlerService.
- * Verifica publicación de eventos según disponibilidad de asientos.
+ * Verifica publicación de eventos según el resultado de la reserva atómica de asientos.
  */
 @ExtendWith(MockitoExtension.class)
 class ReservationCreatedEventHandlerServiceTest {
@@ -39,37 +41,35 @@ class ReservationCreatedEventHandlerServiceTest {
     private ReservationCreatedEventHandlerService service;
 
     @Test
-    @DisplayName("handle(): vuelo encontrado con asiento disponible publica FlightseatConfirmedEvent")
+    @DisplayName("handle(): asiento reservado atómicamente publica FlightseatConfirmedEvent")
     void handle_flight_with_seat_confirms() {
         // Se arma el evento con los 4 campos requeridos
         ReservationCreatedEvent event =
                 new ReservationCreatedEvent(2L, 200L, "John Doe", "CC-123");
 
-        // Se simula vuelo con asiento disponible
-        Flight flight = mock(Flight.class);
-        when(flight.tryReserveSeat()).thenReturn(true);
-        when(flightRepository.findById(200L)).thenReturn(Mono.just(flight));
-        when(flightRepository.save(flight)).thenReturn(Mono.just(flight));
+        // El UPDATE condicional reserva el asiento
+        when(flightRepository.tryReserveSeat(200L)).thenReturn(Mono.just(true));
         when(confirmedPublisher.publish(any(FlightseatConfirmedEvent.class))).thenReturn(Mono.empty());
 
         // Se ejecuta y completa sin errores
         StepVerifier.create(service.handle(event)).verifyComplete();
 
-        // Se verifica publicación de evento confirmado y persistencia del vuelo
+        // Se verifica publicación de evento confirmado sin leer ni reescribir la fila completa
         verify(confirmedPublisher, times(1)).publish(new FlightseatConfirmedEvent(2L));
-        verify(flightRepository, times(1)).save(flight);
+        verify(flightRepository, never()).findById(any());
+        verify(flightRepository, never()).save(any());
         verifyNoInteractions(rejectedPublisher);
     }
 
     @Test
-    @DisplayName("handle(): vuelo encontrado sin asiento disponible publica FlightseatRejectedEvent")
+    @DisplayName("handle(): vuelo sin asiento disponible publica FlightseatRejectedEvent")
     void handle_flight_without_seat_rejects() {
         ReservationCreatedEvent event =
                 new ReservationCreatedEvent(3L, 300L, "Jane Roe", "CC-999");
 
-        // Se simula vuelo sin asiento
+        // El UPDATE no afecta filas y el vuelo existe
         Flight flight = mock(Flight.class);
-        when(flight.tryReserveSeat()).thenReturn(false);
+        when(flightRepository.tryReserveSeat(300L)).thenReturn(Mono.just(false));
         when(flightRepository.findById(300L)).thenReturn(Mono.just(flight));
         when(rejectedPublisher.publish(any(FlightseatRejectedEvent.class))).thenReturn(Mono.empty());
 
@@ -88,6 +88,7 @@ class ReservationCreatedEventHandlerServiceTest {
         ReservationCreatedEvent event =
                 new ReservationCreatedEvent(4L, 400L, "Alice", "CC-111");
 
+        when(flightRepository.tryReserveSeat(400L)).thenReturn(Mono.just(false));
         when(flightRepository.findById(400L)).thenReturn(Mono.empty());
 
         StepVerifier.create(service.handle(event)).verifyComplete();
@@ -96,16 +97,90 @@ class ReservationCreatedEventHandlerServiceTest {
     }
 
     @Test
-    @DisplayName("handle(): si ocurre error técnico, se captura y completa vacío")
-    void handle_error_is_caught() {
+    @DisplayName("handle(): un error técnico se propaga al listener para reintento/DLQ")
+    void handle_error_propagates() {
         ReservationCreatedEvent event =
                 new ReservationCreatedEvent(5L, 500L, "Bob", "CC-222");
 
-        when(flightRepository.findById(500L))
+        when(flightRepository.tryReserveSeat(500L))
                 .thenReturn(Mono.error(new RuntimeException("Error técnico")));
 
-        StepVerifier.create(service.handle(event)).verifyComplete();
+        StepVerifier.create(service.handle(event))
+                .expectErrorMessage("Error técnico")
+                .verify();
 
         verifyNoInteractions(confirmedPublisher, rejectedPublisher);
     }
+
+    @Test
+    @DisplayName("handleBatch(): agrupa por vuelo, confirma los cupos otorgados y rechaza el resto")
+    void handleBatch_groups_by_flight() {
+        ReservationCreatedEvent a1 = new ReservationCreatedEvent(10L, 100L, "A1", "CC-10");
+        ReservationCreatedEvent b1 = new ReservationCreatedEvent(11L, 200L, "B1", "CC-11");
+        ReservationCreatedEvent a2 = new ReservationCreatedEvent(12L, 100L, "A2", "CC-12");
+        ReservationCreatedEvent a3 = new ReservationCreatedEvent(13L, 100L, "A3", "CC-13");
+
+        // Vuelo 100 pide 3 y solo quedan 2; vuelo 200 pide 1 y lo obtiene
+        when(flightRepository.tryReserveSeats(100L, 3)).thenReturn(Mono.just(2));
+        when(flightRepository.tryReserveSeats(200L, 1)).thenReturn(Mono.just(1));
+        when(confirmedPublisher.publishAll(any())).thenReturn(Mono.empty());
+        when(rejectedPublisher.publishAll(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.handleBatch(List.of(a1, b1, a2, a3))).verifyComplete();
+
+        verify(confirmedPublisher, times(1)).publishAll(List.of(
+                new FlightseatConfirmedEvent(10L),
+                new FlightseatConfirmedEvent(12L),
+                new FlightseatConfirmedEvent(11L)));
+        verify(rejectedPublisher, times(1)).publishAll(List.of(
+                new FlightseatRejectedEvent(13L, "No Seat")));
+        verify(flightRepository, never()).tryReserveSeat(any());
+    }
+
+    @Test
+    @DisplayName("handleBatch(): vuelo inexistente se ignora sin afectar a los demás")
+    void handleBatch_missing_flight_is_skipped() {
+        ReservationCreatedEvent missing = new ReservationCreatedEvent(20L, 900L, "X", "CC-20");
+        ReservationCreatedEvent ok = new ReservationCreatedEvent(21L, 100L, "Y", "CC-21");
+
+        when(flightRepository.tryReserveSeats(900L, 1)).thenReturn(Mono.empty());
+        when(flightRepository.tryReserveSeats(100L, 1)).thenReturn(Mono.just(1));
+        when(confirmedPublisher.publishAll(any())).thenReturn(Mono.empty());
+        when(rejectedPublisher.publishAll(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.handleBatch(List.of(missing, ok))).verifyComplete();
+
+        verify(confirmedPublisher, times(1)).publishAll(List.of(new FlightseatConfirmedEvent(21L)));
+        verify(rejectedPublisher, times(1)).publishAll(List.of());
+    }
+
+    @Test
+    @DisplayName("handleBatch(): un error de BD en un vuelo falla el lote sin publicar eventos")
+    void handleBatch_db_error_propagates() {
+        ReservationCreatedEvent a1 = new ReservationCreatedEvent(30L, 100L, "A1", "CC-30");
+        ReservationCreatedEvent b1 = new ReservationCreatedEvent(31L, 200L, "B1", "CC-31");
+
+        when(flightRepository.tryReserveSeats(100L, 1)).thenReturn(Mono.just(1));
+        when(flightRepository.tryReserveSeats(200L, 1)).thenReturn(Mono.error(new RuntimeException("db down")));
+
+        StepVerifier.create(service.handleBatch(List.of(a1, b1)))
+                .expectErrorMessage("db down")
+                .verify();
+
+        verifyNoInteractions(confirmedPublisher, rejectedPublisher);
+    }
+
+    @Test
+    @DisplayName("handleBatch(): si falla la escritura de eventos el error se propaga (la transacción revierte los cupos)")
+    void handleBatch_publish_error_propagates() {
+        ReservationCreatedEvent a1 = new ReservationCreatedEvent(40L, 100L, "A1", "CC-40");
+
+        when(flightRepository.tryReserveSeats(100L, 1)).thenReturn(Mono.just(1));
+        when(confirmedPublisher.publishAll(any())).thenReturn(Mono.error(new RuntimeException("outbox down")));
+        when(rejectedPublisher.publishAll(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.handleBatch(List.of(a1)))
+                .expectErrorMessage("outbox down")
+                .verify();
+    }
 }
@@ -1,6 +1,7 @@
 package com.aug.flightbooking.application.service;
 
 import com.aug.flightbooking.application.ports.out.ReservationRepository;
+import com.aug.flightbooking.domain.exceptions.OptimisticConcurrencyException;
 import com.aug.flightbooking.domain.exceptions.ReservationChangeStatusException;
 import com.aug.flightbooking.domain.models.reservation.PassengerInfo;
 import com.aug.flightbooking.domain.models.reservation.Reservation;
@@ -9,14 +10,17 @@ import com.aug.flightbooking.domain.models.reservation.ReservationStatusAction;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -41,41 +45,47 @@ class ReservationStatusUpdaterTest {
     }
 
     @Test
-    @DisplayName("updateStatus(id,msg,action): aplica transición válida, setea mensaje y guarda")
-    void update_byId_success_sets_message_and_saves() {
-        Reservation existing = buildReservation(10L, ReservationStatus.EMITTED); // EMITTED -> CONFIRMED es válida
-        when(reservationRepository.findById(10L)).thenReturn(Mono.just(existing));
-        when(reservationRepository.save(any(Reservation.class))).thenReturn(Mono.just(existing));
+    @DisplayName("updateStatus(id,msg,action): compare-and-set desde los estados origen válidos, sin leer la reserva")
+    void update_byId_success_is_single_cas() {
+        // Solo EMITTED -> CONFIRMED es válida según la state machine
+        when(reservationRepository.compareAndSetStatus(10L, List.of("EMITTED"), ReservationStatus.CONFIRMED, "ok"))
+                .thenReturn(Mono.just(true));
 
         StepVerifier.create(updater.updateStatus(10L, "ok", ReservationStatusAction.CONFIRMED))
                 .verifyComplete();
 
-        // Captura y verifica que el mensaje haya sido seteado y el estado cambiado
-        ArgumentCaptor<Reservation> captor = ArgumentCaptor.forClass(Reservation.class);
-        verify(reservationRepository, times(1)).save(captor.capture());
-        Reservation saved = captor.getValue();
-        assertThat(saved.getMessage()).isEqualTo("ok");
-        assertThat(saved.getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+        verify(reservationRepository, never()).findById(any());
+        verify(reservationRepository, never()).save(any());
     }
 
     @Test
     @DisplayName("updateStatus(id,msg,action): si no existe la reserva -> IllegalArgumentException")
     void update_byId_not_found() {
+        when(reservationRepository.compareAndSetStatus(99L, List.of("EMITTED"), ReservationStatus.CONFIRMED, "msg"))
+                .thenReturn(Mono.just(false));
         when(reservationRepository.findById(99L)).thenReturn(Mono.empty());
 
         StepVerifier.create(updater.updateStatus(99L, "msg", ReservationStatusAction.CONFIRMED))
                 .expectError(IllegalArgumentException.class)
                 .verify();
+    }
 
-        verify(reservationRepository, never()).save(any());
+    @Test
+    @DisplayName("updateStatus(id,msg,action): estado actual no permite la transición -> ReservationChangeStatusException")
+    void update_byId_invalid_transition() {
+        when(reservationRepository.compareAndSetStatus(12L, List.of("EMITTED"), ReservationStatus.CONFIRMED, "x"))
+                .thenReturn(Mono.just(false));
+        when(reservationRepository.findById(12L)).thenReturn(Mono.just(buildReservation(12L, ReservationStatus.FAILED)));
+
+        StepVerifier.create(updater.updateStatus(12L, "x", ReservationStatusAction.CONFIRMED))
+                .expectError(ReservationChangeStatusException.class)
+                .verify();
     }
 
     @Test
-    @DisplayName("updateStatus(id,msg,action): si falla save -> propaga error")
-    void update_byId_save_error() {
-        Reservation existing = buildReservation(11L, ReservationStatus.EMITTED);
-        when(reservationRepository.findById(11L)).thenReturn(Mono.just(existing));
-        when(reservationRepository.save(any(Reservation.class)))
+    @DisplayName("updateStatus(id,msg,action): si falla el UPDATE -> propaga error")
+    void update_byId_db_error() {
+        when(reservationRepository.compareAndSetStatus(11L, List.of("EMITTED"), ReservationStatus.CONFIRMED, "x"))
                 .thenReturn(Mono.error(new RuntimeException("DB down")));
 
         StepVerifier.create(updater.updateStatus(11L, "x", ReservationStatusAction.CONFIRMED))
@@ -84,17 +94,29 @@ class ReservationStatusUpdaterTest {
     }
 
     @Test
-    @DisplayName("updateStatus(reservation, action): transición válida y guardado ok -> completa")
+    @DisplayName("updateStatus(reservation, action): transición válida -> compare-and-set sobre el estado leído")
     void update_byEntity_success() {
         Reservation existing = buildReservation(20L, ReservationStatus.PENDING); // PENDING -> EMITTED válida
-        when(reservationRepository.save(any(Reservation.class))).thenReturn(Mono.just(existing));
+        when(reservationRepository.compareAndSetStatus(20L, List.of("PENDING"), ReservationStatus.EMITTED, null))
+                .thenReturn(Mono.just(true));
 
         StepVerifier.create(updater.updateStatus(existing, ReservationStatusAction.EMITTED))
                 .verifyComplete();
 
-        ArgumentCaptor<Reservation> captor = ArgumentCaptor.forClass(Reservation.class);
-        verify(reservationRepository, times(1)).save(captor.capture());
-        assertThat(captor.getValue().getStatus()).isEqualTo(ReservationStatus.EMITTED);
+        assertThat(existing.getStatus()).isEqualTo(ReservationStatus.EMITTED);
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("updateStatus(reservation, action): otro proceso cambió la reserva -> OptimisticConcurrencyException")
+    void update_byEntity_lost_update_detected() {
+        Reservation existing = buildReservation(23L, ReservationStatus.PENDING);
+        when(reservationRepository.compareAndSetStatus(23L, List.of("PENDING"), ReservationStatus.EMITTED, null))
+                .thenReturn(Mono.just(false));
+
+        StepVerifier.create(updater.updateStatus(existing, ReservationStatusAction.EMITTED))
+                .expectError(OptimisticConcurrencyException.class)
+                .verify();
     }
 
     @Test
@@ -107,18 +129,42 @@ class ReservationStatusUpdaterTest {
                 .expectError(ReservationChangeStatusException.class)
                 .verify();
 
-        verify(reservationRepository, never()).save(any());
+        verifyNoInteractions(reservationRepository);
     }
 
     @Test
-    @DisplayName("updateStatus(reservation, action): save falla -> propaga error")
-    void update_byEntity_save_error() {
+    @DisplayName("updateStatus(reservation, action): el UPDATE falla -> propaga error")
+    void update_byEntity_db_error() {
         Reservation existing = buildReservation(22L, ReservationStatus.PENDING);
-        when(reservationRepository.save(any(Reservation.class)))
+        when(reservationRepository.compareAndSetStatus(22L, List.of("PENDING"), ReservationStatus.EMITTED, null))
                 .thenReturn(Mono.error(new RuntimeException("DB error")));
 
         StepVerifier.create(updater.updateStatus(existing, ReservationStatusAction.EMITTED))
                 .expectError(RuntimeException.class)
                 .verify();
     }
+
+    @Test
+    @DisplayName("transitionStatuses(map,target): un UPDATE con los estados origen válidos según la máquina de estados")
+    void transition_batch_uses_state_machine_sources() {
+        Map<Long, String> messages = new LinkedHashMap<>();
+        messages.put(30L, "m30");
+        messages.put(31L, "m31");
+        when(reservationRepository.transitionStatus(List.of(30L, 31L), List.of("m30", "m31"),
+                ReservationStatus.FAILED, List.of("CREATED", "PENDING")))
+                .thenReturn(Flux.just(30L));
+
+        StepVerifier.create(updater.transitionStatuses(messages, ReservationStatus.FAILED))
+                .expectNext(30L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("transitionStatuses(map,target): sin reservas no consulta la base de datos")
+    void transition_batch_empty() {
+        StepVerifier.create(updater.transitionStatuses(Map.of(), ReservationStatus.FAILED))
+                .verifyComplete();
+
+        verifyNoInteractions(reservationRepository);
+    }
 }
@@ -2,6 +2,8 @@ package com.aug.flightbooking.domain.models.reservation;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.EnumSet;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ReservationStateMachineTest {
@@ -67,4 +69,11 @@ public class ReservationStateMachineTest {
             assertFalse(result, "Transition from REJECTED to " + to + " should not be allowed");
         }
     }
+
+    @Test
+    void shouldReturnSourcesOfFailed() {
+        // Solo CREATED y PENDING pueden pasar a FAILED; es la condición del UPDATE en lote
+        assertEquals(EnumSet.of(ReservationStatus.CREATED, ReservationStatus.PENDING),
+                ReservationStateMachine.sourcesOf(ReservationStatus.FAILED));
+    }
 }
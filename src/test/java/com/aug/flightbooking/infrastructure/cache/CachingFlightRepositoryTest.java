@@ -0,0 +1,229 @@
+package com.aug.flightbooking.infrastructure.cache;
+
+import com.aug.flightbooking.domain.models.flight.Airline;
+import com.aug.flightbooking.domain.models.flight.Flight;
+import com.aug.flightbooking.domain.models.flight.FlightStatus;
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import com.aug.flightbooking.infrastructure.persistence.adapters.FlightRepositoryAdapter;
+import com.aug.flightbooking.infrastructure.persistence.repositories.R2dbcFlightRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para CachingFlightRepository.
+ * Verifica que los aciertos solo lean reserved_seats, la invalidación en save(), las métricas de la caché
+ * y que el catálogo solo refleje reservas confirmadas.
+ */
+@ExtendWith(MockitoExtension.class)
+class CachingFlightRepositoryTest {
+
+    @Mock
+    private FlightRepositoryAdapter delegate;
+
+    @Mock
+    private RedisFlightCatalogCache catalogCache;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CachingFlightRepository repository;
+
+    @BeforeEach
+    void setup() {
+        AppProperties.FlightCache flightCache = new AppProperties.FlightCache();
+        flightCache.setEnabled(true);
+        flightCache.setMaxSize(100);
+        flightCache.setTtlSeconds(600);
+        AppProperties properties = new AppProperties();
+        properties.setFlightCache(flightCache);
+        meterRegistry = new SimpleMeterRegistry();
+        repository = new CachingFlightRepository(delegate, catalogCache, properties, meterRegistry);
+    }
+
+    private Flight flight(long id, int reservedSeats) {
+        Instant departure = Instant.parse("2025-10-01T10:00:00Z");
+        return Flight.fromPersistence(id, new Airline("Avianca", "AV"), "AV123", "BOG", "MDE",
+                100, reservedSeats, departure, departure.plusSeconds(3600), FlightStatus.SCHEDULED);
+    }
+
+    @Test
+    @DisplayName("findById(): el primer acceso carga el vuelo y los siguientes solo leen reserved_seats y version")
+    void hit_reads_only_reserved_seats() {
+        when(delegate.findById(1L)).thenReturn(Mono.just(flight(1L, 10)));
+        when(delegate.findSeatCounter(1L)).thenReturn(Mono.just(new R2dbcFlightRepository.SeatCounter(42, 7L)));
+
+        StepVerifier.create(repository.findById(1L))
+                .assertNext(f -> assertThat(f.getReservedSeats()).isEqualTo(10))
+                .verifyComplete();
+        StepVerifier.create(repository.findById(1L))
+                .assertNext(f -> {
+                    assertThat(f.getReservedSeats()).isEqualTo(42);
+                    assertThat(f.getVersion()).isEqualTo(7L);
+                    assertThat(f.getFlightCode()).isEqualTo("AV123");
+                    assertThat(f.getTotalSeats()).isEqualTo(100);
+                })
+                .verifyComplete();
+
+        verify(delegate, times(1)).findById(1L);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "flight.catalog").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("save(): invalida el vuelo y el siguiente acceso vuelve a cargarlo")
+    void save_invalidates() {
+        Flight stored = flight(2L, 0);
+        when(delegate.findById(2L)).thenReturn(Mono.just(stored));
+        when(delegate.save(stored)).thenReturn(Mono.just(stored));
+
+        StepVerifier.create(repository.findById(2L)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(repository.save(stored)).expectNext(stored).verifyComplete();
+        StepVerifier.create(repository.findById(2L)).expectNextCount(1).verifyComplete();
+
+        verify(delegate, times(2)).findById(2L);
+        verify(delegate, never()).findSeatCounter(anyLong());
+    }
+
+    @Test
+    @DisplayName("findById(): si el vuelo ya no existe en la BD se invalida y completa vacío")
+    void missing_in_database_invalidates() {
+        when(delegate.findById(3L)).thenReturn(Mono.just(flight(3L, 0)), Mono.empty());
+        when(delegate.findSeatCounter(3L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(repository.findById(3L)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(repository.findById(3L)).verifyComplete();
+        StepVerifier.create(repository.findById(3L)).verifyComplete();
+
+        verify(delegate, times(2)).findById(3L);
+    }
+
+    @Test
+    @DisplayName("Deshabilitada: delega siempre sin cachear")
+    void disabled_delegates() {
+        AppProperties properties = new AppProperties();
+        properties.setFlightCache(new AppProperties.FlightCache());
+        CachingFlightRepository disabled = new CachingFlightRepository(delegate, catalogCache, properties, meterRegistry);
+        when(delegate.findById(4L)).thenReturn(Mono.just(flight(4L, 0)));
+
+        StepVerifier.create(disabled.findById(4L)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(disabled.findById(4L)).expectNextCount(1).verifyComplete();
+
+        verify(delegate, times(2)).findById(4L);
+    }
+
+    @Test
+    @DisplayName("findAll(): con el catálogo en Redis no consulta la BD")
+    void findAll_served_from_catalog() {
+        Flight cached = flight(5L, 7);
+        when(catalogCache.isEnabled()).thenReturn(true);
+        when(catalogCache.getAll()).thenReturn(Mono.just(List.of(cached)));
+
+        StepVerifier.create(repository.findAll()).expectNext(cached).verifyComplete();
+
+        verify(delegate, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("findAll(): si el catálogo no está en Redis abre la reconstrucción, lee la BD y lo escribe")
+    void findAll_rebuilds_catalog_on_miss() {
+        Flight f1 = flight(6L, 0);
+        Flight f2 = flight(7L, 3);
+        when(catalogCache.isEnabled()).thenReturn(true);
+        when(catalogCache.getAll()).thenReturn(Mono.empty());
+        when(catalogCache.beginRebuild()).thenReturn(Mono.empty());
+        when(delegate.findAll()).thenReturn(Flux.just(f1, f2));
+        when(catalogCache.putAll(List.of(f1, f2))).thenReturn(Mono.empty());
+
+        StepVerifier.create(repository.findAll()).expectNext(f1, f2).verifyComplete();
+
+        // La reconstrucción se abre antes de leer la tabla
+        InOrder order = inOrder(catalogCache, delegate);
+        order.verify(catalogCache).beginRebuild();
+        order.verify(delegate).findAll();
+        order.verify(catalogCache).putAll(List.of(f1, f2));
+    }
+
+    @Test
+    @DisplayName("tryReserveSeats()/save(): incrementan los asientos del catálogo o lo invalidan")
+    void seat_changes_refresh_catalog() {
+        Flight stored = flight(8L, 0);
+        when(catalogCache.isEnabled()).thenReturn(true);
+        when(delegate.tryReserveSeats(8L, 3)).thenReturn(Mono.just(2));
+        when(delegate.tryReserveSeat(8L)).thenReturn(Mono.just(false));
+        when(catalogCache.addReservedSeats(8L, 2)).thenReturn(Mono.empty());
+        when(delegate.save(stored)).thenReturn(Mono.just(stored));
+        when(catalogCache.evict()).thenReturn(Mono.empty());
+
+        StepVerifier.create(repository.tryReserveSeats(8L, 3)).expectNext(2).verifyComplete();
+        StepVerifier.create(repository.tryReserveSeat(8L)).expectNext(false).verifyComplete();
+        StepVerifier.create(repository.save(stored)).expectNext(stored).verifyComplete();
+
+        verify(catalogCache, times(1)).addReservedSeats(anyLong(), anyInt());
+        verify(catalogCache).evict();
+    }
+
+    @Test
+    @DisplayName("tryReserveSeat(): en una transacción el catálogo se incrementa solo si se confirma")
+    void catalog_increment_waits_for_commit() {
+        TransactionalOperator tx = TransactionalOperator.create(new NoOpTransactionManager());
+        when(catalogCache.isEnabled()).thenReturn(true);
+        when(delegate.tryReserveSeat(8L)).thenReturn(Mono.just(true));
+        when(catalogCache.addReservedSeats(8L, 1)).thenReturn(Mono.empty());
+
+        // Falla algo después de reservar: la transacción se revierte y el catálogo no cambia
+        StepVerifier.create(tx.transactional(repository.tryReserveSeat(8L).then(Mono.error(new RuntimeException("outbox")))))
+                .expectError(RuntimeException.class)
+                .verify();
+        verify(catalogCache, never()).addReservedSeats(anyLong(), anyInt());
+
+        StepVerifier.create(tx.transactional(repository.tryReserveSeat(8L))).expectNext(true).verifyComplete();
+        verify(catalogCache, times(1)).addReservedSeats(8L, 1);
+    }
+
+    /**
+     * Gestor de transacciones sin base de datos: solo ejecuta las sincronizaciones de commit y rollback.
+     */
+    private static final class NoOpTransactionManager extends AbstractReactiveTransactionManager {
+
+        @Override
+        protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+            return new Object();
+        }
+
+        @Override
+        protected Mono<Void> doBegin(TransactionSynchronizationManager synchronizationManager, Object transaction,
+                                     TransactionDefinition definition) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager,
+                                      GenericReactiveTransaction status) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager,
+                                        GenericReactiveTransaction status) {
+            return Mono.empty();
+        }
+    }
+}
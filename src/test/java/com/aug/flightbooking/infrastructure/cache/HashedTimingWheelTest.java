@@ -0,0 +1,73 @@
+package com.aug.flightbooking.infrastructure.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas para HashedTimingWheel con tiempo controlado (sin hilos).
+ */
+class HashedTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    @DisplayName("advanceTo(): dispara cada id al alcanzar su deadline y lo retira de la rueda")
+    void advance_fires_at_deadline() {
+        HashedTimingWheel wheel = new HashedTimingWheel(100, 8, START);
+        wheel.schedule(1L, START + 250);
+        wheel.schedule(2L, START + 500);
+
+        assertThat(wheel.advanceTo(START + 200)).isEmpty();
+        assertThat(wheel.advanceTo(START + 300)).containsExactly(1L);
+        assertThat(wheel.contains(1L)).isFalse();
+        assertThat(wheel.advanceTo(START + 500)).containsExactly(2L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deadlines a varias vueltas: no se disparan en vueltas anteriores")
+    void advance_respects_rounds() {
+        HashedTimingWheel wheel = new HashedTimingWheel(100, 4, START);
+        // Tick 10: misma casilla que los ticks 2 y 6
+        wheel.schedule(1L, START + 1000);
+
+        assertThat(wheel.advanceTo(START + 200)).isEmpty();
+        assertThat(wheel.advanceTo(START + 600)).isEmpty();
+        assertThat(wheel.advanceTo(START + 1000)).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("cancel(): un id cancelado no se dispara")
+    void cancel_prevents_expiry() {
+        HashedTimingWheel wheel = new HashedTimingWheel(100, 8, START);
+        wheel.schedule(1L, START + 100);
+
+        assertThat(wheel.cancel(1L)).isTrue();
+        assertThat(wheel.cancel(1L)).isFalse();
+        assertThat(wheel.advanceTo(START + 1000)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("schedule(): reprogramar reemplaza el deadline anterior")
+    void reschedule_replaces_deadline() {
+        HashedTimingWheel wheel = new HashedTimingWheel(100, 8, START);
+        wheel.schedule(1L, START + 100);
+        wheel.schedule(1L, START + 400);
+
+        assertThat(wheel.advanceTo(START + 300)).isEmpty();
+        assertThat(wheel.advanceTo(START + 400)).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Deadline vencido o pausa larga: se dispara en el siguiente avance")
+    void past_deadline_and_long_pause() {
+        HashedTimingWheel wheel = new HashedTimingWheel(100, 4, START);
+        wheel.advanceTo(START + 500);
+        wheel.schedule(1L, START);
+        wheel.schedule(2L, START + 700);
+
+        assertThat(wheel.advanceTo(START + 10_000)).containsExactlyInAnyOrder(1L, 2L);
+    }
+}
@@ -0,0 +1,136 @@
+package com.aug.flightbooking.infrastructure.cache;
+
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para ProcessedEventCache.
+ * Verifica el LRU local, la consulta y el registro en Redis (SET NX EX) y los contadores de hit/miss.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProcessedEventCacheTest {
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, String> valueOps;
+
+    private AppProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ProcessedEventCache cache;
+
+    @BeforeEach
+    void setup() {
+        AppProperties.Kafka kafka = new AppProperties.Kafka();
+        kafka.setConsumer(new AppProperties.Kafka.Consumer());
+        kafka.getConsumer().getDedupe().setLocalMaxEntries(2);
+        kafka.getConsumer().getDedupe().setTtlSeconds(60);
+        properties = new AppProperties();
+        properties.setKafka(kafka);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ProcessedEventCache(redisTemplate, properties, meterRegistry);
+    }
+
+    private double dedupe(String result, String level) {
+        return meterRegistry.get("kafka.listener.dedupe").tag("result", result).tag("level", level).counter().count();
+    }
+
+    @Test
+    @DisplayName("markProcessed(): registra en Redis con TTL y las consultas siguientes se resuelven en memoria")
+    void markProcessed_then_local_hit() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent("event.processed.evt-1", "1", Duration.ofSeconds(60))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(cache.markProcessed("evt-1")).verifyComplete();
+        StepVerifier.create(cache.isProcessed("evt-1")).expectNext(true).verifyComplete();
+
+        verify(redisTemplate, never()).hasKey(anyString());
+        assertThat(dedupe("hit", "local")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("isProcessed(): si no está en memoria consulta Redis y cuenta hit o miss")
+    void isProcessed_queries_redis_on_local_miss() {
+        when(redisTemplate.hasKey("event.processed.evt-2")).thenReturn(Mono.just(true));
+        when(redisTemplate.hasKey("event.processed.evt-3")).thenReturn(Mono.just(false));
+
+        StepVerifier.create(cache.isProcessed("evt-2")).expectNext(true).verifyComplete();
+        StepVerifier.create(cache.isProcessed("evt-3")).expectNext(false).verifyComplete();
+        // El hit de Redis queda en memoria
+        StepVerifier.create(cache.isProcessed("evt-2")).expectNext(true).verifyComplete();
+
+        verify(redisTemplate, times(1)).hasKey("event.processed.evt-2");
+        assertThat(dedupe("hit", "redis")).isEqualTo(1.0);
+        assertThat(dedupe("miss", "none")).isEqualTo(1.0);
+        assertThat(dedupe("hit", "local")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("isProcessed(): un error de Redis se trata como no procesado")
+    void isProcessed_redis_error_is_a_miss() {
+        when(redisTemplate.hasKey("event.processed.evt-4")).thenReturn(Mono.error(new RuntimeException("redis down")));
+
+        StepVerifier.create(cache.isProcessed("evt-4")).expectNext(false).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("LRU local: al superar el máximo se descarta el menos usado y se vuelve a consultar Redis")
+    void local_lru_evicts_eldest() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent(anyString(), eq("1"), any(Duration.class))).thenReturn(Mono.just(true));
+        when(redisTemplate.hasKey("event.processed.a")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(cache.markProcessed("a")).verifyComplete();
+        StepVerifier.create(cache.markProcessed("b")).verifyComplete();
+        StepVerifier.create(cache.markProcessed("c")).verifyComplete();
+
+        StepVerifier.create(cache.isProcessed("a")).expectNext(true).verifyComplete();
+        verify(redisTemplate, times(1)).hasKey("event.processed.a");
+    }
+
+    @Test
+    @DisplayName("LRU local: un evento consultado en memoria pasa a ser el más reciente y sobrevive al descarte")
+    void local_lru_hit_refreshes_access_order() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent(anyString(), eq("1"), any(Duration.class))).thenReturn(Mono.just(true));
+        when(redisTemplate.hasKey("event.processed.b")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(cache.markProcessed("a")).verifyComplete();
+        StepVerifier.create(cache.markProcessed("b")).verifyComplete();
+        // El hit de "a" la mueve al final: el siguiente alta descarta "b"
+        StepVerifier.create(cache.isProcessed("a")).expectNext(true).verifyComplete();
+        StepVerifier.create(cache.markProcessed("c")).verifyComplete();
+
+        StepVerifier.create(cache.isProcessed("a")).expectNext(true).verifyComplete();
+        StepVerifier.create(cache.isProcessed("b")).expectNext(true).verifyComplete();
+        verify(redisTemplate, never()).hasKey("event.processed.a");
+        verify(redisTemplate, times(1)).hasKey("event.processed.b");
+    }
+
+    @Test
+    @DisplayName("Deshabilitado o sin eventId: no consulta ni escribe en Redis")
+    void disabled_or_null_event_id_skips_redis() {
+        StepVerifier.create(cache.isProcessed(null)).expectNext(false).verifyComplete();
+        properties.getKafka().getConsumer().getDedupe().setEnabled(false);
+        StepVerifier.create(cache.isProcessed("evt-5")).expectNext(false).verifyComplete();
+        StepVerifier.create(cache.markProcessed("evt-5")).verifyComplete();
+
+        verifyNoInteractions(redisTemplate);
+    }
+}
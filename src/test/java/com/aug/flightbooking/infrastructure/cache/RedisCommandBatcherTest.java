@@ -0,0 +1,138 @@
+package com.aug.flightbooking.infrastructure.cache;
+
+import io.lettuce.core.ConnectionFuture;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.codec.StringCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para RedisCommandBatcher.
+ * Verifica que la conexión dedicada desactive el auto-flush, que cada lote se envíe con un único flush
+ * y que un fallo al conectar o una conexión cerrada no queden en caché.
+ */
+@ExtendWith(MockitoExtension.class)
+class RedisCommandBatcherTest {
+
+    private final RedisURI uri = RedisURI.create("localhost", 6379);
+
+    @Mock
+    private RedisClient client;
+
+    @Mock
+    private StatefulRedisConnection<String, String> connection;
+
+    @Mock
+    private RedisAsyncCommands<String, String> commands;
+
+    @Mock
+    private RedisFuture<String> setFuture;
+
+    @Mock
+    private RedisFuture<Long> delFuture;
+
+    private RedisCommandBatcher batcher;
+
+    @BeforeEach
+    void setup() {
+        batcher = new RedisCommandBatcher(client, uri, true);
+    }
+
+    private void connects() {
+        when(client.connectAsync(StringCodec.UTF8, uri)).thenReturn(ConnectionFuture.completed(null, connection));
+        when(connection.async()).thenReturn(commands);
+    }
+
+    @Test
+    @DisplayName("execute(): encola los comandos, hace un solo flush y espera todas las respuestas")
+    void execute_flushes_once_per_batch() {
+        connects();
+        when(commands.setex("a", 60, "1")).thenReturn(setFuture);
+        when(commands.del("b")).thenReturn(delFuture);
+        when(setFuture.toCompletableFuture()).thenReturn(CompletableFuture.completedFuture("OK"));
+        when(delFuture.toCompletableFuture()).thenReturn(CompletableFuture.completedFuture(1L));
+
+        StepVerifier.create(batcher.execute(cmds -> List.of(cmds.setex("a", 60, "1"), cmds.del("b"))))
+                .verifyComplete();
+
+        InOrder inOrder = inOrder(connection, commands);
+        inOrder.verify(connection).setAutoFlushCommands(false);
+        inOrder.verify(commands).setex("a", 60, "1");
+        inOrder.verify(commands).del("b");
+        inOrder.verify(connection).flushCommands();
+    }
+
+    @Test
+    @DisplayName("execute(): reutiliza la conexión y falla si algún comando falla")
+    void execute_reuses_connection_and_propagates_errors() {
+        connects();
+        when(connection.isOpen()).thenReturn(true);
+        when(commands.del("b")).thenReturn(delFuture);
+        when(delFuture.toCompletableFuture())
+                .thenReturn(CompletableFuture.completedFuture(1L), CompletableFuture.failedFuture(new IllegalStateException("READONLY")));
+
+        StepVerifier.create(batcher.execute(cmds -> List.of(cmds.del("b")))).verifyComplete();
+        StepVerifier.create(batcher.execute(cmds -> List.of(cmds.del("b"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        verify(client, times(1)).connectAsync(StringCodec.UTF8, uri);
+        verify(connection, times(2)).flushCommands();
+    }
+
+    @Test
+    @DisplayName("execute(): un fallo al conectar no queda en caché; el siguiente lote vuelve a conectar")
+    void execute_retries_connection_after_failure() {
+        when(client.connectAsync(StringCodec.UTF8, uri))
+                .thenReturn(ConnectionFuture.from(null, CompletableFuture.failedFuture(new IllegalStateException("Connection refused"))))
+                .thenReturn(ConnectionFuture.completed(null, connection));
+        when(connection.async()).thenReturn(commands);
+        when(commands.del("b")).thenReturn(delFuture);
+        when(delFuture.toCompletableFuture()).thenReturn(CompletableFuture.completedFuture(1L));
+
+        StepVerifier.create(batcher.execute(cmds -> List.of(cmds.del("b"))))
+                .expectErrorMessage("Connection refused")
+                .verify();
+        StepVerifier.create(batcher.execute(cmds -> List.of(cmds.del("b")))).verifyComplete();
+
+        verify(client, times(2)).connectAsync(StringCodec.UTF8, uri);
+        verify(connection, times(1)).flushCommands();
+    }
+
+    @Test
+    @DisplayName("execute(): una conexión cerrada se descarta y se abre una nueva")
+    @SuppressWarnings("unchecked")
+    void execute_reconnects_when_connection_closed() {
+        StatefulRedisConnection<String, String> fresh = mock(StatefulRedisConnection.class);
+        when(client.connectAsync(StringCodec.UTF8, uri))
+                .thenReturn(ConnectionFuture.completed(null, connection))
+                .thenReturn(ConnectionFuture.completed(null, fresh));
+        when(connection.async()).thenReturn(commands);
+        when(fresh.async()).thenReturn(commands);
+        when(connection.isOpen()).thenReturn(false);
+        when(commands.del("b")).thenReturn(delFuture);
+        when(delFuture.toCompletableFuture()).thenReturn(CompletableFuture.completedFuture(1L));
+
+        StepVerifier.create(batcher.execute(cmds -> List.of(cmds.del("b")))).verifyComplete();
+        StepVerifier.create(batcher.execute(cmds -> List.of(cmds.del("b")))).verifyComplete();
+
+        verify(connection).closeAsync();
+        verify(fresh).setAutoFlushCommands(false);
+        verify(fresh).flushCommands();
+    }
+}
@@ -0,0 +1,150 @@
+package com.aug.flightbooking.infrastructure.cache;
+
+import com.aug.flightbooking.domain.models.flight.Airline;
+import com.aug.flightbooking.domain.models.flight.Flight;
+import com.aug.flightbooking.domain.models.flight.FlightStatus;
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para RedisFlightCatalogCache.
+ * Verifica el formato del hash (listado estático + contadores de asientos), la escritura atómica con TTL,
+ * la reconstrucción y el refresco incremental.
+ */
+@ExtendWith(MockitoExtension.class)
+class RedisFlightCatalogCacheTest {
+
+    private static final String KEY = "flight.catalog";
+    private static final String REBUILD_KEY = "flight.catalog.rebuild";
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ReactiveHashOperations<String, String, String> hashOps;
+
+    private RedisFlightCatalogCache cache;
+
+    @BeforeEach
+    void setup() {
+        AppProperties.Redis.RedisFlight redisFlight = new AppProperties.Redis.RedisFlight();
+        redisFlight.setCatalogEnabled(true);
+        redisFlight.setCatalogKey(KEY);
+        redisFlight.setCatalogTtlSeconds(300);
+        AppProperties.Redis redis = new AppProperties.Redis();
+        redis.setRedisFlight(redisFlight);
+        AppProperties properties = new AppProperties();
+        properties.setRedis(redis);
+        cache = new RedisFlightCatalogCache(redisTemplate, new ObjectMapper().findAndRegisterModules(), properties);
+    }
+
+    private Flight flight(long id, int reservedSeats) {
+        Instant departure = Instant.parse("2025-10-01T10:00:00Z");
+        return Flight.fromPersistence(id, new Airline("Avianca", "AV"), "AV" + id, "BOG", "MDE",
+                100, reservedSeats, departure, departure.plusSeconds(3600), FlightStatus.SCHEDULED);
+    }
+
+    @Test
+    @DisplayName("putAll() + getAll(): un solo script escribe hash y TTL; un HGETALL devuelve el contador actual")
+    @SuppressWarnings("unchecked")
+    void round_trip_with_incremented_seats() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(KEY, REBUILD_KEY)), anyList()))
+                .thenReturn(Flux.just(1L));
+        doReturn(hashOps).when(redisTemplate).opsForHash();
+
+        StepVerifier.create(cache.putAll(List.of(flight(1L, 4), flight(2L, 0)))).verifyComplete();
+
+        ArgumentCaptor<List<String>> args = ArgumentCaptor.forClass(List.class);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(KEY, REBUILD_KEY)), args.capture());
+        // ARGV[1] = TTL en ms; después pares campo/valor
+        List<String> argv = args.getValue();
+        assertThat(argv.get(0)).isEqualTo("300000");
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 1; i < argv.size(); i += 2) {
+            fields.put(argv.get(i), argv.get(i + 1));
+        }
+        assertThat(fields).containsEntry("seats.1", "4").containsEntry("seats.2", "0").containsKey("flights");
+        verify(redisTemplate, never()).expire(anyString(), any(Duration.class));
+
+        // Se simula un HINCRBY posterior sobre el vuelo 1
+        fields.put("seats.1", "6");
+        when(hashOps.entries(KEY)).thenReturn(Flux.fromIterable(fields.entrySet()));
+
+        StepVerifier.create(cache.getAll())
+                .assertNext(flights -> {
+                    assertThat(flights).extracting(Flight::getId).containsExactly(1L, 2L);
+                    assertThat(flights.get(0).getReservedSeats()).isEqualTo(6);
+                    assertThat(flights.get(0).getAirline().getCode()).isEqualTo("AV");
+                    assertThat(flights.get(1).getScheduledArrival()).isEqualTo(Instant.parse("2025-10-01T11:00:00Z"));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("beginRebuild(): abre el hash de reconstrucción con su TTL; un error de Redis no corta el listado")
+    @SuppressWarnings("unchecked")
+    void beginRebuild_opens_rebuild_hash() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(KEY, REBUILD_KEY)), eq(List.of("60000"))))
+                .thenReturn(Flux.just(1L), Flux.error(new RuntimeException("redis down")));
+
+        StepVerifier.create(cache.beginRebuild()).verifyComplete();
+        StepVerifier.create(cache.beginRebuild()).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("evict(): borra el catálogo y cierra la reconstrucción en curso")
+    void evict_deletes_catalog_and_rebuild() {
+        when(redisTemplate.delete(KEY, REBUILD_KEY)).thenReturn(Mono.just(2L));
+
+        StepVerifier.create(cache.evict()).verifyComplete();
+
+        verify(redisTemplate).delete(KEY, REBUILD_KEY);
+    }
+
+    @Test
+    @DisplayName("getAll(): sin listado en el hash o con error de Redis es un fallo de caché")
+    void miss_when_absent_or_error() {
+        doReturn(hashOps).when(redisTemplate).opsForHash();
+        when(hashOps.entries(KEY))
+                .thenReturn(Flux.just(Map.entry("seats.1", "3")), Flux.error(new RuntimeException("redis down")));
+
+        StepVerifier.create(cache.getAll()).verifyComplete();
+        StepVerifier.create(cache.getAll()).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("addReservedSeats(): HINCRBY condicionado a que exista el catálogo o una reconstrucción")
+    @SuppressWarnings("unchecked")
+    void addReservedSeats_runs_conditional_increment() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(KEY, REBUILD_KEY)), eq(List.of("seats.9", "2"))))
+                .thenReturn(Flux.just(5L));
+
+        StepVerifier.create(cache.addReservedSeats(9L, 2)).verifyComplete();
+        StepVerifier.create(cache.addReservedSeats(9L, 0)).verifyComplete();
+
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), anyList());
+    }
+}
@@ -14,6 +14,9 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
@@ -41,6 +44,9 @@ class RedisReservationCacheTest {
     @Mock
     private AppProperties.Redis.RedisReservation redisReservation;
 
+    @Mock
+    private ReservationTimeoutWheel timeoutWheel;
+
     // No usamos @InjectMocks porque el constructor de RedisReservationCache requiere AppProperties,
     // y queremos controlar los retornos de getRedis() y getRedisReservation().
     private RedisReservationCache cache;
@@ -56,7 +62,7 @@ class RedisReservationCacheTest {
         when(redisTemplate.opsForValue()).thenReturn(valueOps);
 
         // Instancia del SUT
-        cache = new RedisReservationCache(redisTemplate, properties);
+        cache = new RedisReservationCache(redisTemplate, properties, timeoutWheel);
     }
 
     @Test
@@ -129,4 +135,18 @@ class RedisReservationCacheTest {
 
         verify(valueOps, times(1)).get(eq(expectedKey));
     }
+
+    @Test
+    @DisplayName("getAll(): un solo MGET y solo devuelve las reservas con valor")
+    void getAll_uses_single_mget() {
+        List<String> keys = List.of("reservation:timeout:1", "reservation:timeout:2", "reservation:timeout:3");
+        when(valueOps.multiGet(keys)).thenReturn(Mono.just(Arrays.asList("WAITING", null, "WAITING")));
+
+        StepVerifier.create(cache.getAll(List.of(1L, 2L, 3L)))
+                .expectNext(Map.of(1L, "WAITING", 3L, "WAITING"))
+                .verifyComplete();
+
+        verify(valueOps, times(1)).multiGet(keys);
+        verifyNoMoreInteractions(valueOps);
+    }
 }
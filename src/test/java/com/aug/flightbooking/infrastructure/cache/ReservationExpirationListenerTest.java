@@ -0,0 +1,180 @@
+package com.aug.flightbooking.infrastructure.cache;
+
+import com.aug.flightbooking.application.ports.in.FailReservationUseCase;
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.PublisherProbe;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas para ReservationExpirationListener.
+ * Se alimenta directamente el flujo de claves expiradas, sin suscripción real a Redis.
+ * El liderazgo entre réplicas se simula con el resultado del script de Redis.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReservationExpirationListenerTest {
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private FailReservationUseCase failReservationUseCase;
+
+    @Mock
+    private ReservationTimeoutWheel timeoutWheel;
+
+    private AppProperties.Redis.RedisReservation redisReservation;
+    private ReservationExpirationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        redisReservation = new AppProperties.Redis.RedisReservation();
+        redisReservation.setKeyPrefixReservationCache("reservation.timeout.");
+        redisReservation.setExpirationListenerEnabled(true);
+        redisReservation.setExpirationBatchSize(2);
+        redisReservation.setExpirationBatchMaxWaitMillis(200);
+        redisReservation.setExpirationLeaderEnabled(true);
+        redisReservation.setExpirationLeaderKey("reservation.expiration.leader");
+        redisReservation.setExpirationLeaderMillis(15000);
+        AppProperties.Redis redis = new AppProperties.Redis();
+        redis.setRedisReservation(redisReservation);
+        AppProperties properties = new AppProperties();
+        properties.setRedis(redis);
+
+        listener = new ReservationExpirationListener(redisTemplate, properties, failReservationUseCase, timeoutWheel);
+    }
+
+    @Test
+    @DisplayName("failExpired(): ignora claves de otros prefijos o ids inválidos y falla por lotes")
+    void failExpired_filters_and_batches() {
+        when(failReservationUseCase.failExpiredReservations(anyList())).thenReturn(Mono.empty());
+
+        StepVerifier.create(listener.failExpired(Flux.just(
+                        "reservation.timeout.1",
+                        "event.processed.abc",
+                        "reservation.timeout.2",
+                        "reservation.timeout.x",
+                        "reservation.timeout.3")))
+                .verifyComplete();
+
+        verify(failReservationUseCase).failExpiredReservations(List.of(1L, 2L));
+        verify(failReservationUseCase).failExpiredReservations(List.of(3L));
+        verifyNoMoreInteractions(failReservationUseCase);
+    }
+
+    @Test
+    @DisplayName("failExpired(): un lote con error no detiene el listener")
+    void failExpired_error_continues() {
+        when(failReservationUseCase.failExpiredReservations(List.of(1L, 2L)))
+                .thenReturn(Mono.error(new RuntimeException("BD caída")));
+        when(failReservationUseCase.failExpiredReservations(List.of(3L))).thenReturn(Mono.empty());
+
+        StepVerifier.create(listener.failExpired(Flux.just(
+                        "reservation.timeout.1", "reservation.timeout.2", "reservation.timeout.3")))
+                .verifyComplete();
+
+        verify(failReservationUseCase).failExpiredReservations(List.of(3L));
+    }
+
+    @Test
+    @DisplayName("listen(): deshabilitado y sin rueda en memoria no se suscribe a Redis")
+    void listen_disabled_does_nothing() {
+        redisReservation.setExpirationListenerEnabled(false);
+
+        StepVerifier.create(listener.listen()).verifyComplete();
+
+        verifyNoInteractions(redisTemplate, failReservationUseCase);
+    }
+
+    @Test
+    @DisplayName("listen(): sin keyspace notifications falla los vencimientos de la rueda en memoria")
+    void listen_uses_wheel_expirations() {
+        redisReservation.setExpirationListenerEnabled(false);
+        when(timeoutWheel.isEnabled()).thenReturn(true);
+        when(timeoutWheel.expirations()).thenReturn(Flux.just(7L, 8L));
+        when(failReservationUseCase.failExpiredReservations(List.of(7L, 8L))).thenReturn(Mono.empty());
+
+        StepVerifier.create(listener.listen()).verifyComplete();
+
+        verify(failReservationUseCase).failExpiredReservations(List.of(7L, 8L));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("leaderOnly(): la réplica líder se suscribe a las expiraciones de Redis")
+    @SuppressWarnings("unchecked")
+    void leaderOnly_leader_listens() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("reservation.expiration.leader")), anyList()))
+                .thenReturn(Flux.just(1L));
+
+        StepVerifier.withVirtualTime(() -> listener.leaderOnly(Flux.just(5L, 6L)))
+                .thenAwait(Duration.ZERO)
+                .expectNext(5L, 6L)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    @DisplayName("leaderOnly(): una réplica sin liderazgo no se suscribe y lo toma cuando el líder deja de renovarlo")
+    @SuppressWarnings("unchecked")
+    void leaderOnly_follower_waits_until_lease_is_free() {
+        PublisherProbe<Long> expirations = PublisherProbe.of(Flux.just(9L));
+        // Dos renovaciones ajenas (0 s y 5 s) y a los 10 s la clave venció y esta réplica la toma
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("reservation.expiration.leader")), anyList()))
+                .thenReturn(Flux.just(0L), Flux.just(0L), Flux.just(1L));
+
+        StepVerifier.withVirtualTime(() -> listener.leaderOnly(expirations.flux()))
+                .thenAwait(Duration.ofSeconds(5))
+                .then(() -> assertThat(expirations.wasSubscribed()).isFalse())
+                .thenAwait(Duration.ofSeconds(5))
+                .expectNext(9L)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    @DisplayName("leaderOnly(): deshabilitado escucha en todas las réplicas sin ir a Redis")
+    void leaderOnly_disabled_passes_through() {
+        redisReservation.setExpirationLeaderEnabled(false);
+
+        StepVerifier.create(listener.leaderOnly(Flux.just(1L))).expectNext(1L).verifyComplete();
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("leaderOnly(): un error del canal de Redis no termina el listener, se vuelve a suscribir")
+    void leaderOnly_resubscribes_after_redis_error() {
+        redisReservation.setExpirationLeaderEnabled(false);
+        AtomicInteger subscriptions = new AtomicInteger();
+        Flux<Long> expirations = Flux.defer(() -> subscriptions.incrementAndGet() == 1
+                ? Flux.<Long>error(new IllegalStateException("conexión cerrada"))
+                : Flux.just(7L));
+
+        StepVerifier.withVirtualTime(() -> listener.leaderOnly(expirations))
+                .thenAwait(Duration.ofSeconds(2))
+                .expectNext(7L)
+                .verifyComplete();
+
+        assertThat(subscriptions).hasValue(2);
+    }
+}
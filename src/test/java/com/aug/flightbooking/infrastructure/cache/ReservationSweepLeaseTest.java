@@ -0,0 +1,175 @@
+package com.aug.flightbooking.infrastructure.cache;
+
+import com.aug.flightbooking.application.ports.in.FailReservationUseCase;
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para ReservationSweepLease.
+ * Verifica que solo la réplica que toma el lease (SET NX PX) ejecute el barrido, que lo conserve hasta que venza
+ * tras un barrido correcto y que lo libere si el barrido falla.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReservationSweepLeaseTest {
+
+    private static final String KEY = "reservation.sweep.lease";
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, String> valueOps;
+
+    @Mock
+    private FailReservationUseCase failReservationUseCase;
+
+    private AppProperties properties;
+    private AppProperties.Redis.RedisReservation redisReservation;
+    private ReservationSweepLease lease;
+
+    @BeforeEach
+    void setup() {
+        redisReservation = new AppProperties.Redis.RedisReservation();
+        redisReservation.setSweepLeaseEnabled(true);
+        redisReservation.setSweepLeaseKey(KEY);
+        redisReservation.setPeriodFluxSeconds(300);
+        redisReservation.setReservationTimeoutSeconds(120);
+        redisReservation.setSweepPageSize(500);
+        AppProperties.Redis redis = new AppProperties.Redis();
+        redis.setRedisReservation(redisReservation);
+        properties = new AppProperties();
+        properties.setRedis(redis);
+        lease = new ReservationSweepLease(redisTemplate, properties);
+    }
+
+    @Test
+    @DisplayName("runExclusive(): con el lease ejecuta el barrido y lo conserva hasta que venza (TTL = periodo)")
+    @SuppressWarnings("unchecked")
+    void runs_and_keeps_lease_when_acquired() {
+        AtomicBoolean swept = new AtomicBoolean();
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent(KEY, lease.owner(), Duration.ofSeconds(300))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(lease.runExclusive(Mono.fromRunnable(() -> swept.set(true))))
+                .verifyComplete();
+
+        assertThat(swept).isTrue();
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), anyList());
+    }
+
+    @Test
+    @DisplayName("runExclusive(): si otra réplica tiene el lease no barre ni libera")
+    @SuppressWarnings("unchecked")
+    void skips_when_held_by_other_replica() {
+        AtomicBoolean swept = new AtomicBoolean();
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(Mono.just(false));
+
+        StepVerifier.create(lease.runExclusive(Mono.fromRunnable(() -> swept.set(true))))
+                .verifyComplete();
+
+        assertThat(swept).isFalse();
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), anyList());
+    }
+
+    @Test
+    @DisplayName("runExclusive(): un error del barrido se propaga y se libera solo su propio lease")
+    @SuppressWarnings("unchecked")
+    void releases_on_error() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(Mono.just(true));
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(KEY)), eq(List.of(lease.owner()))))
+                .thenReturn(Flux.just(1L));
+
+        StepVerifier.create(lease.runExclusive(Mono.error(new IllegalStateException("fallo"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(KEY)), eq(List.of(lease.owner())));
+    }
+
+    @Test
+    @DisplayName("runExclusive(): si Redis no responde se barre sin coordinar")
+    @SuppressWarnings("unchecked")
+    void sweeps_when_redis_fails() {
+        AtomicBoolean swept = new AtomicBoolean();
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent(eq(KEY), anyString(), any(Duration.class)))
+                .thenReturn(Mono.error(new RuntimeException("redis down")));
+
+        StepVerifier.create(lease.runExclusive(Mono.fromRunnable(() -> swept.set(true))))
+                .verifyComplete();
+
+        assertThat(swept).isTrue();
+    }
+
+    @Test
+    @DisplayName("runExclusive(): deshabilitado ejecuta el barrido sin ir a Redis")
+    void disabled_runs_without_redis() {
+        redisReservation.setSweepLeaseEnabled(false);
+        AtomicBoolean swept = new AtomicBoolean();
+
+        StepVerifier.create(lease.runExclusive(Mono.fromRunnable(() -> swept.set(true))))
+                .verifyComplete();
+
+        assertThat(swept).isTrue();
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Dos réplicas con ticks desfasados menos de un periodo: solo una barre por periodo")
+    void two_offset_replicas_sweep_once_per_period() {
+        // Lease en memoria con vencimiento sobre el reloj virtual, como SET NX PX en Redis
+        AtomicLong expiresAt = new AtomicLong(Long.MIN_VALUE);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenAnswer(inv -> Mono.fromSupplier(() -> {
+            long now = VirtualTimeScheduler.get().now(TimeUnit.MILLISECONDS);
+            if (now < expiresAt.get()) {
+                return false;
+            }
+            expiresAt.set(now + inv.<Duration>getArgument(2).toMillis());
+            return true;
+        }));
+        AtomicInteger sweeps = new AtomicInteger();
+        when(failReservationUseCase.failReservations(120L, 500))
+                .thenAnswer(inv -> Mono.fromRunnable(sweeps::incrementAndGet));
+
+        ReservationTimeoutScheduler first = new ReservationTimeoutScheduler(properties, failReservationUseCase, lease);
+        ReservationTimeoutScheduler second = new ReservationTimeoutScheduler(
+                properties, failReservationUseCase, new ReservationSweepLease(redisTemplate, properties));
+
+        // Ticks de la primera réplica en 0, 300 y 600 s; los de la segunda en 100, 400 y 700 s
+        StepVerifier.withVirtualTime(() -> Flux.merge(
+                        first.startSchedulerReservations(),
+                        second.startSchedulerReservations().delaySubscription(Duration.ofSeconds(100))))
+                .thenAwait(Duration.ofSeconds(850))
+                .thenCancel()
+                .verify();
+
+        assertThat(sweeps).hasValue(3);
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), anyList());
+    }
+}
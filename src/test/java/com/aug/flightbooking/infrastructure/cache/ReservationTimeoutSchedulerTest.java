@@ -35,6 +35,9 @@ class ReservationTimeoutSchedulerTest {
     @Mock
     private FailReservationUseCase failReservationUseCase;
 
+    @Mock
+    private ReservationSweepLease sweepLease;
+
     private ReservationTimeoutScheduler scheduler;
 
     @BeforeEach
@@ -43,15 +46,18 @@ class ReservationTimeoutSchedulerTest {
         when(redis.getRedisReservation()).thenReturn(redisReservation);
         when(redisReservation.getReservationTimeoutSeconds()).thenReturn(123L);
         when(redisReservation.getPeriodFluxSeconds()).thenReturn(30L);
+        when(redisReservation.getSweepPageSize()).thenReturn(500);
+        // Esta réplica siempre obtiene el lease: ejecuta el barrido recibido
+        when(sweepLease.runExclusive(any())).thenAnswer(inv -> inv.getArgument(0));
 
-        scheduler = new ReservationTimeoutScheduler(properties, failReservationUseCase);
+        scheduler = new ReservationTimeoutScheduler(properties, failReservationUseCase, sweepLease);
     }
 
     @Test
     @DisplayName("startSchedulerReservations(): invoca failReservations en cada tick y continúa indefinidamente")
     void startScheduler_invokes_on_each_tick() {
         // Primera llamada OK, segunda OK: ambas completan vacío
-        when(failReservationUseCase.failReservations(123L))
+        when(failReservationUseCase.failReservations(123L, 500))
                 .thenReturn(Mono.empty(), Mono.empty());
 
         StepVerifier.withVirtualTime(() -> scheduler.startSchedulerReservations())
@@ -63,14 +69,14 @@ class ReservationTimeoutSchedulerTest {
                 .thenCancel()
                 .verify();
 
-        verify(failReservationUseCase, times(2)).failReservations(123L);
+        verify(failReservationUseCase, times(2)).failReservations(123L, 500);
     }
 
     @Test
     @DisplayName("startSchedulerReservations(): si un tick falla, onErrorContinue permite seguir con el siguiente")
     void startScheduler_errors_are_swallowed_and_continue() {
         // Primera emisión con error, segunda OK
-        when(failReservationUseCase.failReservations(123L))
+        when(failReservationUseCase.failReservations(123L, 500))
                 .thenReturn(Mono.error(new RuntimeException("Fallo de negocio")), Mono.empty());
 
         StepVerifier.withVirtualTime(() -> scheduler.startSchedulerReservations())
@@ -79,6 +85,6 @@ class ReservationTimeoutSchedulerTest {
                 .thenCancel()
                 .verify();
 
-        verify(failReservationUseCase, times(2)).failReservations(123L);
+        verify(failReservationUseCase, times(2)).failReservations(123L, 500);
     }
 }
@@ -0,0 +1,195 @@
+package com.aug.flightbooking.infrastructure.cache;
+
+import com.aug.flightbooking.application.ports.out.ReservationRepository;
+import com.aug.flightbooking.domain.models.reservation.PassengerInfo;
+import com.aug.flightbooking.domain.models.reservation.Reservation;
+import com.aug.flightbooking.domain.models.reservation.ReservationStatus;
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas para ReservationTimeoutWheel: operaciones en memoria, respaldo diferido en Redis
+ * y reconstrucción desde Redis y la base de datos.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReservationTimeoutWheelTest {
+
+    @Mock
+    private ReactiveRedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, String> valueOps;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private RedisCommandBatcher commandBatcher;
+
+    private ReservationTimeoutWheel timeoutWheel;
+
+    @BeforeEach
+    void setUp() {
+        AppProperties.Redis.RedisReservation redisReservation = new AppProperties.Redis.RedisReservation();
+        redisReservation.setKeyPrefixReservationCache("reservation.timeout.");
+        redisReservation.setReservationTimeoutSeconds(120);
+        AppProperties.Redis redis = new AppProperties.Redis();
+        redis.setRedisReservation(redisReservation);
+        AppProperties.TimeoutWheel wheel = new AppProperties.TimeoutWheel();
+        wheel.setEnabled(true);
+        wheel.setTickMillis(100);
+        wheel.setWheelSize(64);
+        wheel.setBackupBatchSize(2);
+        wheel.setRebuildPageSize(2);
+        AppProperties properties = new AppProperties();
+        properties.setRedis(redis);
+        properties.setTimeoutWheel(wheel);
+
+        timeoutWheel = new ReservationTimeoutWheel(redisTemplate, reservationRepository, commandBatcher, properties);
+    }
+
+    @Test
+    @DisplayName("register()/cancel(): en memoria, sin llamar a Redis")
+    void register_and_cancel_are_in_memory() {
+        timeoutWheel.register(1L);
+        assertThat(timeoutWheel.contains(1L)).isTrue();
+
+        timeoutWheel.cancel(1L);
+        assertThat(timeoutWheel.contains(1L)).isFalse();
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("drainBackup(): escribe solo la última operación por reserva, en lotes")
+    void drainBackup_coalesces_operations() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.set(eq("reservation.timeout.2"), eq("WAITING"), eq(Duration.ofSeconds(120)))).thenReturn(Mono.just(true));
+        when(valueOps.delete("reservation.timeout.1")).thenReturn(Mono.just(true));
+        when(valueOps.set(eq("reservation.timeout.3"), eq("WAITING"), eq(Duration.ofSeconds(120)))).thenReturn(Mono.just(true));
+
+        timeoutWheel.register(1L);
+        timeoutWheel.register(2L);
+        timeoutWheel.cancel(1L);
+        timeoutWheel.register(3L);
+
+        StepVerifier.create(timeoutWheel.drainBackup()).verifyComplete();
+
+        verify(valueOps, never()).set(eq("reservation.timeout.1"), anyString(), any(Duration.class));
+        verify(valueOps).delete("reservation.timeout.1");
+        verify(valueOps).set("reservation.timeout.3", "WAITING", Duration.ofSeconds(120));
+    }
+
+    @Test
+    @DisplayName("drainBackup(): con el batcher habilitado envía cada lote como un pipeline")
+    @SuppressWarnings("unchecked")
+    void drainBackup_uses_command_batcher() {
+        RedisAsyncCommands<String, String> commands = mock(RedisAsyncCommands.class);
+        when(commandBatcher.isEnabled()).thenReturn(true);
+        when(commandBatcher.execute(any())).thenAnswer(inv -> {
+            Function<RedisAsyncCommands<String, String>, List<? extends RedisFuture<?>>> batch = inv.getArgument(0);
+            batch.apply(commands);
+            return Mono.empty();
+        });
+
+        timeoutWheel.register(1L);
+        timeoutWheel.register(2L);
+        timeoutWheel.cancel(1L);
+        timeoutWheel.register(3L);
+
+        StepVerifier.create(timeoutWheel.drainBackup()).verifyComplete();
+
+        // backupBatchSize=2: {1 (baja), 2} y {3}
+        verify(commandBatcher, times(2)).execute(any());
+        verify(commands).del("reservation.timeout.1");
+        verify(commands).setex("reservation.timeout.2", 120, "WAITING");
+        verify(commands).setex("reservation.timeout.3", 120, "WAITING");
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("advance(): publica las reservas vencidas en expirations()")
+    void advance_publishes_expirations() {
+        timeoutWheel.register(5L);
+
+        timeoutWheel.advance(System.currentTimeMillis() + Duration.ofSeconds(121).toMillis());
+
+        StepVerifier.create(timeoutWheel.expirations().take(1))
+                .expectNext(5L)
+                .verifyComplete();
+        assertThat(timeoutWheel.contains(5L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("rebuild(): usa el TTL de Redis si existe y createdAt + timeout si no")
+    void rebuild_uses_redis_ttl_or_created_at() {
+        Instant now = Instant.now();
+        Reservation withKey = Reservation.fromPersistence(10L, 77L, new PassengerInfo("Ana", "CC-10"),
+                ReservationStatus.CREATED, now.minusSeconds(10), null);
+        Reservation expired = Reservation.fromPersistence(11L, 77L, new PassengerInfo("Luis", "CC-11"),
+                ReservationStatus.PENDING, now.minusSeconds(600), null);
+
+        when(reservationRepository.findPendingPage(any(Instant.class), eq(Instant.EPOCH), eq(0L), eq(2)))
+                .thenReturn(Flux.just(expired, withKey));
+        when(reservationRepository.findPendingPage(any(Instant.class), eq(withKey.getCreatedAt()), eq(10L), eq(2)))
+                .thenReturn(Flux.empty());
+        when(redisTemplate.getExpire("reservation.timeout.10")).thenReturn(Mono.just(Duration.ofSeconds(100)));
+        when(redisTemplate.getExpire("reservation.timeout.11")).thenReturn(Mono.empty());
+
+        StepVerifier.create(timeoutWheel.rebuild()).verifyComplete();
+
+        assertThat(timeoutWheel.contains(10L)).isTrue();
+        assertThat(timeoutWheel.contains(11L)).isTrue();
+        // La reserva sin clave ya venció: sale en el siguiente avance; la otra aún tiene TTL
+        timeoutWheel.advance(System.currentTimeMillis() + 1000);
+        assertThat(timeoutWheel.contains(11L)).isFalse();
+        assertThat(timeoutWheel.contains(10L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("rebuild(): recorre las reservas por páginas y se detiene en la primera incompleta")
+    void rebuild_pages_with_keyset_cursor() {
+        Instant now = Instant.now();
+        Reservation first = Reservation.fromPersistence(20L, 77L, new PassengerInfo("Ana", "CC-20"),
+                ReservationStatus.CREATED, now.minusSeconds(30), null);
+        Reservation second = Reservation.fromPersistence(21L, 77L, new PassengerInfo("Luis", "CC-21"),
+                ReservationStatus.CREATED, now.minusSeconds(20), null);
+        Reservation third = Reservation.fromPersistence(22L, 77L, new PassengerInfo("Eva", "CC-22"),
+                ReservationStatus.PENDING, now.minusSeconds(10), null);
+
+        when(reservationRepository.findPendingPage(any(Instant.class), eq(Instant.EPOCH), eq(0L), eq(2)))
+                .thenReturn(Flux.just(first, second));
+        when(reservationRepository.findPendingPage(any(Instant.class), eq(second.getCreatedAt()), eq(21L), eq(2)))
+                .thenReturn(Flux.just(third));
+        when(redisTemplate.getExpire(anyString())).thenReturn(Mono.empty());
+
+        StepVerifier.create(timeoutWheel.rebuild()).verifyComplete();
+
+        assertThat(timeoutWheel.contains(20L)).isTrue();
+        assertThat(timeoutWheel.contains(21L)).isTrue();
+        assertThat(timeoutWheel.contains(22L)).isTrue();
+        verify(reservationRepository, times(2)).findPendingPage(any(Instant.class), any(Instant.class), anyLong(), eq(2));
+        verify(redisTemplate, never()).scan(any(ScanOptions.class));
+    }
+}
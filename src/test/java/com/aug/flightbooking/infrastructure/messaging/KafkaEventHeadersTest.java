@@ -0,0 +1,58 @@
+package com.aug.flightbooking.infrastructure.messaging;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KafkaEventHeadersTest {
+
+    @Test
+    @DisplayName("write()/read(): la metadata del envelope viaja completa en los headers")
+    void write_then_read_round_trip() {
+        Instant timestamp = Instant.ofEpochMilli(1_700_000_000_123L);
+        IntegrationEventWrapper<String> envelope =
+                IntegrationEventWrapper.wrap("data", "reservation.created", "1.0", "trace-1", "event-1", timestamp);
+        RecordHeaders headers = new RecordHeaders();
+
+        KafkaEventHeaders.write(headers, envelope);
+        IntegrationEventWrapper<byte[]> read = KafkaEventHeaders.read(headers, new byte[]{1});
+
+        assertThat(read.eventType()).isEqualTo("reservation.created");
+        assertThat(read.version()).isEqualTo("1.0");
+        assertThat(read.traceId()).isEqualTo("trace-1");
+        assertThat(read.eventId()).isEqualTo("event-1");
+        assertThat(read.timestamp()).isEqualTo(timestamp);
+        assertThat(read.data()).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("read(): sin headers (mensajes antiguos) devuelve la metadata en null")
+    void read_without_headers_returns_null_metadata() {
+        IntegrationEventWrapper<byte[]> read = KafkaEventHeaders.read(null, new byte[]{1});
+
+        assertThat(read.eventType()).isNull();
+        assertThat(read.eventId()).isNull();
+        assertThat(read.timestamp()).isNull();
+    }
+
+    @Test
+    @DisplayName("read(): un timestamp vacío o mal formado queda en null sin lanzar excepción")
+    void read_with_malformed_timestamp_returns_null_timestamp() {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(KafkaEventHeaders.EVENT_ID, "event-1".getBytes(StandardCharsets.UTF_8));
+        headers.add(KafkaEventHeaders.TIMESTAMP, "no-es-epoch".getBytes(StandardCharsets.UTF_8));
+        RecordHeaders empty = new RecordHeaders();
+        empty.add(KafkaEventHeaders.TIMESTAMP, new byte[0]);
+
+        IntegrationEventWrapper<byte[]> read = KafkaEventHeaders.read(headers, new byte[]{1});
+
+        assertThat(read.eventId()).isEqualTo("event-1");
+        assertThat(read.timestamp()).isNull();
+        assertThat(KafkaEventHeaders.read(empty, new byte[]{1}).timestamp()).isNull();
+    }
+}
@@ -1,6 +1,7 @@
 package com.aug.flightbooking.infrastructure.messaging.listener;
 
 import com.aug.flightbooking.infrastructure.config.AppProperties;
+import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -47,7 +48,7 @@ class KafkaDlqPublisherTest {
         SenderResult<Object> ok = mock(SenderResult.class);
         when(kafkaSender.send(any())).thenReturn(Flux.just(ok));
 
-        StepVerifier.create(dlq.sendToDlq(mainTopic, payload))
+        StepVerifier.create(dlq.sendToDlq(mainTopic, "42", payload, new RecordHeaders()))
                 .verifyComplete();
 
         verify(kafkaSender, times(1)).send(any());
@@ -62,7 +63,7 @@ class KafkaDlqPublisherTest {
 
         when(kafkaSender.send(any())).thenReturn(Flux.error(new RuntimeException("send failed")));
 
-        StepVerifier.create(dlq.sendToDlq(mainTopic, payload))
+        StepVerifier.create(dlq.sendToDlq(mainTopic, "42", payload, new RecordHeaders()))
                 .expectErrorMatches(ex -> ex instanceof RuntimeException &&
                         ex.getMessage().equals("send failed"))
                 .verify();
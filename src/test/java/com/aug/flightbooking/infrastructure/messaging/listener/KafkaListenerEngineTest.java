@@ -0,0 +1,375 @@
+package com.aug.flightbooking.infrastructure.messaging.listener;
+
+import com.aug.flightbooking.application.events.ReservationCreatedEvent;
+import com.aug.flightbooking.application.ports.in.ReservationCreatedEventHandler;
+import com.aug.flightbooking.infrastructure.cache.ProcessedEventCache;
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import com.aug.flightbooking.infrastructure.config.KafkaReceiverFactory;
+import com.aug.flightbooking.infrastructure.messaging.KafkaEventHeaders;
+import com.aug.flightbooking.infrastructure.messaging.serialization.EventCodecRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests para KafkaListenerEngine con:
+ *  - Éxito: decode + handler OK ⇒ ACK y sin DLQ.
+ *  - Falla decode: NO retry, envía a DLQ y ACK.
+ *  - Falla handler con retry: tras agotar, envía a DLQ y ACK.
+ *  - Header eventType distinto: DLQ y ACK sin decodificar.
+ *  - eventId ya procesado: ACK sin decodificar; procesado OK registra el eventId.
+ *  - Header timestamp mal formado: no corta el stream del topic.
+ *  - Modo lote: un solo handler de lote y un único commit por partición; un eventId repetido en el lote se procesa una vez.
+ *  - Ajustes por topic aplicados al receiver.
+ */
+@ExtendWith(MockitoExtension.class)
+class KafkaListenerEngineTest {
+
+    private static final String TOPIC = "reservation.created";
+
+    @Mock private EventCodecRegistry codecs;
+    @Mock private ReservationCreatedEventHandler handler;
+    @Mock private KafkaReceiver<String, byte[]> receiver;
+    @Mock private KafkaDlqPublisher dlqPublisher;
+    @Mock private ReactiveRedisTemplate<String, String> redisTemplate;
+
+    private AppProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private KafkaListenerEngine engine;
+    private MockedStatic<KafkaReceiverFactory> receiverFactoryMock;
+
+    @BeforeEach
+    void setup() {
+        AppProperties.Kafka kafka = new AppProperties.Kafka();
+        kafka.setBootstrapServers("localhost:9092");
+        kafka.setConsumer(new AppProperties.Kafka.Consumer());
+        properties = new AppProperties();
+        properties.setKafka(kafka);
+        meterRegistry = new SimpleMeterRegistry();
+        // Dedupe real sobre Redis simulado: sin header eventId no consulta Redis
+        engine = new KafkaListenerEngine(properties, codecs, dlqPublisher, meterRegistry,
+                new ProcessedEventCache(redisTemplate, properties, meterRegistry));
+
+        // Mock del método estático para devolver el receiver simulado
+        receiverFactoryMock = mockStatic(KafkaReceiverFactory.class);
+        receiverFactoryMock
+                .when(() -> KafkaReceiverFactory.createReceiver(anyString(), anyString(), anyString(), any(AppProperties.Kafka.Tuning.class), any()))
+                .thenReturn(receiver);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (receiverFactoryMock != null) receiverFactoryMock.close();
+    }
+
+    private KafkaListenerDefinition<ReservationCreatedEvent> definition() {
+        return new KafkaListenerDefinition<>(TOPIC, "grp-created", ReservationCreatedEvent.EVENT_TYPE, ReservationCreatedEvent.class,
+                handler::handle, handler::handleBatch);
+    }
+
+    // Helper para construir un ReceiverRecord con offset ack mockeable
+    private ReceiverRecord<String, byte[]> mockRecord(byte[] payload) {
+        ReceiverRecord<String, byte[]> record = mock(ReceiverRecord.class);
+        ReceiverOffset offset = mock(ReceiverOffset.class);
+        when(record.value()).thenReturn(payload);
+        when(record.receiverOffset()).thenReturn(offset);
+        doNothing().when(offset).acknowledge();
+        return record;
+    }
+
+    private double records(String outcome) {
+        return meterRegistry.get("kafka.listener.records").tag("topic", TOPIC).tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    @DisplayName("Éxito: decodifica, handler OK ⇒ ACK, sin DLQ y métrica de procesados")
+    void listen_happy_path_ack_only() {
+        ReservationCreatedEvent evt = new ReservationCreatedEvent(11L, 100L, "John Doe", "CC-1");
+        byte[] bytes = "{\"reservationId\":11}".getBytes();
+        ReceiverRecord<String, byte[]> record = mockRecord(bytes);
+
+        when(receiver.receive()).thenReturn(Flux.just(record));
+        when(codecs.decode(any(), eq(bytes), eq(ReservationCreatedEvent.class))).thenReturn(Mono.just(evt));
+        when(handler.handle(evt)).thenReturn(Mono.empty());
+
+        StepVerifier.create(engine.listen(definition())).verifyComplete();
+
+        verify(handler, times(1)).handle(evt);
+        verify(record.receiverOffset(), times(1)).acknowledge();
+        verifyNoInteractions(dlqPublisher);
+        assertThat(records("processed")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Falla en decode: NO retry, envía a DLQ y ACK")
+    void listen_decode_failure_goes_dlq_and_ack() {
+        byte[] bytes = "invalid".getBytes();
+        ReceiverRecord<String, byte[]> record = mockRecord(bytes);
+        // La clave original se conserva al enviar a DLQ
+        when(record.key()).thenReturn("100");
+
+        when(receiver.receive()).thenReturn(Flux.just(record));
+        when(codecs.decode(any(), eq(bytes), eq(ReservationCreatedEvent.class)))
+                .thenReturn(Mono.error(new RuntimeException("bad json")));
+        when(dlqPublisher.sendToDlq(eq(TOPIC), eq("100"), eq(bytes), any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(engine.listen(definition())).verifyComplete();
+
+        verifyNoInteractions(handler);
+        verify(dlqPublisher, times(1)).sendToDlq(eq(TOPIC), eq("100"), eq(bytes), any());
+        verify(record.receiverOffset(), times(1)).acknowledge();
+        assertThat(records("dlq")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Falla handler con retry(3): tras agotar, DLQ y ACK")
+    void listen_handler_failure_retries_then_dlq_and_ack() {
+        ReservationCreatedEvent evt = new ReservationCreatedEvent(22L, 200L, "Jane Roe", "CC-2");
+        byte[] bytes = "{\"reservationId\":22}".getBytes();
+        ReceiverRecord<String, byte[]> record = mockRecord(bytes);
+        // La clave original se conserva al enviar a DLQ
+        when(record.key()).thenReturn("100");
+
+        when(receiver.receive()).thenReturn(Flux.just(record));
+        when(codecs.decode(any(), eq(bytes), eq(ReservationCreatedEvent.class))).thenReturn(Mono.just(evt));
+        // El handler falla siempre: 1 intento + 3 reintentos = 4 invocaciones
+        when(handler.handle(evt)).thenReturn(Mono.error(new RuntimeException("boom")));
+        when(dlqPublisher.sendToDlq(eq(TOPIC), eq("100"), eq(bytes), any())).thenReturn(Mono.empty());
+
+        // Tiempo virtual para avanzar los 3 * 500ms del retry por defecto
+        StepVerifier.withVirtualTime(() -> engine.listen(definition()))
+                .thenAwait(Duration.ofMillis(1500))
+                .verifyComplete();
+
+        verify(handler, times(4)).handle(evt);
+        verify(dlqPublisher, times(1)).sendToDlq(eq(TOPIC), eq("100"), eq(bytes), any());
+        verify(record.receiverOffset(), times(1)).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Header eventType no esperado: DLQ con sus headers y ACK, sin decodificar")
+    void listen_unexpected_event_type_header_goes_dlq_without_decode() {
+        byte[] bytes = "{\"reservationId\":33}".getBytes();
+        ReceiverRecord<String, byte[]> record = mockRecord(bytes);
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(KafkaEventHeaders.EVENT_TYPE, "reservation.emitted".getBytes(StandardCharsets.UTF_8));
+        when(record.headers()).thenReturn(headers);
+        when(record.key()).thenReturn("100");
+
+        when(receiver.receive()).thenReturn(Flux.just(record));
+        when(dlqPublisher.sendToDlq(TOPIC, "100", bytes, headers)).thenReturn(Mono.empty());
+
+        StepVerifier.create(engine.listen(definition())).verifyComplete();
+
+        verifyNoInteractions(codecs, handler);
+        verify(dlqPublisher, times(1)).sendToDlq(TOPIC, "100", bytes, headers);
+        verify(record.receiverOffset(), times(1)).acknowledge();
+        assertThat(records("dlq")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("eventId ya procesado en Redis: ACK sin decodificar ni invocar el handler")
+    void listen_duplicate_event_id_is_acked_without_decode() {
+        byte[] bytes = "{\"reservationId\":44}".getBytes();
+        ReceiverRecord<String, byte[]> record = mockRecord(bytes);
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(KafkaEventHeaders.EVENT_ID, "evt-44".getBytes(StandardCharsets.UTF_8));
+        when(record.headers()).thenReturn(headers);
+
+        when(receiver.receive()).thenReturn(Flux.just(record));
+        when(redisTemplate.hasKey("event.processed.evt-44")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(engine.listen(definition())).verifyComplete();
+
+        verifyNoInteractions(codecs, handler, dlqPublisher);
+        verify(record.receiverOffset(), times(1)).acknowledge();
+        assertThat(meterRegistry.get("kafka.listener.dedupe").tag("result", "hit").tag("level", "redis")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("eventId nuevo: procesa, registra el eventId en Redis con TTL y ACK")
+    void listen_new_event_id_is_marked_after_success() {
+        ReservationCreatedEvent evt = new ReservationCreatedEvent(45L, 100L, "John Doe", "CC-45");
+        byte[] bytes = "{\"reservationId\":45}".getBytes();
+        ReceiverRecord<String, byte[]> record = mockRecord(bytes);
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(KafkaEventHeaders.EVENT_ID, "evt-45".getBytes(StandardCharsets.UTF_8));
+        when(record.headers()).thenReturn(headers);
+        @SuppressWarnings("unchecked")
+        ReactiveValueOperations<String, String> valueOps = mock(ReactiveValueOperations.class);
+
+        when(receiver.receive()).thenReturn(Flux.just(record));
+        when(redisTemplate.hasKey("event.processed.evt-45")).thenReturn(Mono.just(false));
+        when(codecs.decode(any(), eq(bytes), eq(ReservationCreatedEvent.class))).thenReturn(Mono.just(evt));
+        when(handler.handle(evt)).thenReturn(Mono.empty());
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent("event.processed.evt-45", "1", Duration.ofSeconds(86400))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(engine.listen(definition())).verifyComplete();
+
+        verify(handler, times(1)).handle(evt);
+        verify(valueOps, times(1)).setIfAbsent("event.processed.evt-45", "1", Duration.ofSeconds(86400));
+        verify(record.receiverOffset(), times(1)).acknowledge();
+    }
+
+    @Test
+    @DisplayName("Header timestamp mal formado: el registro se procesa y el stream sigue con el siguiente")
+    void listen_malformed_timestamp_header_does_not_break_stream() {
+        ReservationCreatedEvent evt1 = new ReservationCreatedEvent(46L, 100L, "John Doe", "CC-46");
+        ReservationCreatedEvent evt2 = new ReservationCreatedEvent(47L, 100L, "Jane Roe", "CC-47");
+        byte[] bytes1 = "{\"reservationId\":46}".getBytes();
+        byte[] bytes2 = "{\"reservationId\":47}".getBytes();
+        ReceiverRecord<String, byte[]> record1 = mockRecord(bytes1);
+        ReceiverRecord<String, byte[]> record2 = mockRecord(bytes2);
+        RecordHeaders badHeaders = new RecordHeaders();
+        badHeaders.add(KafkaEventHeaders.TIMESTAMP, "not-a-number".getBytes(StandardCharsets.UTF_8));
+        when(record1.headers()).thenReturn(badHeaders);
+
+        when(receiver.receive()).thenReturn(Flux.just(record1, record2));
+        when(codecs.decode(any(), eq(bytes1), eq(ReservationCreatedEvent.class))).thenReturn(Mono.just(evt1));
+        when(codecs.decode(any(), eq(bytes2), eq(ReservationCreatedEvent.class))).thenReturn(Mono.just(evt2));
+        when(handler.handle(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(engine.listen(definition())).verifyComplete();
+
+        verify(handler, times(1)).handle(evt1);
+        verify(handler, times(1)).handle(evt2);
+        verify(record1.receiverOffset(), times(1)).acknowledge();
+        verify(record2.receiverOffset(), times(1)).acknowledge();
+        verifyNoInteractions(dlqPublisher);
+    }
+
+    @Test
+    @DisplayName("Retry configurable por topic: respeta retry-attempts")
+    void listen_uses_topic_retry_attempts() {
+        AppProperties.Kafka.Tuning tuning = new AppProperties.Kafka.Tuning();
+        tuning.setRetryAttempts(1);
+        tuning.setRetryBackoffMillis(10);
+        properties.getKafka().getConsumer().getTopics().put(TOPIC, tuning);
+
+        ReservationCreatedEvent evt = new ReservationCreatedEvent(23L, 200L, "Jane Roe", "CC-3");
+        byte[] bytes = "{\"reservationId\":23}".getBytes();
+        ReceiverRecord<String, byte[]> record = mockRecord(bytes);
+        // La clave original se conserva al enviar a DLQ
+        when(record.key()).thenReturn("100");
+
+        when(receiver.receive()).thenReturn(Flux.just(record));
+        when(codecs.decode(any(), eq(bytes), eq(ReservationCreatedEvent.class))).thenReturn(Mono.just(evt));
+        when(handler.handle(evt)).thenReturn(Mono.error(new RuntimeException("boom")));
+        when(dlqPublisher.sendToDlq(eq(TOPIC), eq("100"), eq(bytes), any())).thenReturn(Mono.empty());
+
+        StepVerifier.withVirtualTime(() -> engine.listen(definition()))
+                .thenAwait(Duration.ofMillis(10))
+                .verifyComplete();
+
+        verify(handler, times(2)).handle(evt);
+        receiverFactoryMock.verify(() ->
+                KafkaReceiverFactory.createReceiver(eq("localhost:9092"), eq(TOPIC), eq("grp-created"), eq(tuning), isNull()));
+    }
+
+    @Test
+    @DisplayName("Modo lote: decodifica todo, un solo handler de lote y un único commit del último offset")
+    void listen_batch_mode_single_handler_call_and_commit() {
+        AppProperties.Kafka.Tuning tuning = new AppProperties.Kafka.Tuning();
+        tuning.setBatchEnabled(true);
+        tuning.setBatchSize(10);
+        properties.getKafka().getConsumer().getTopics().put(TOPIC, tuning);
+
+        TopicPartition partition = new TopicPartition(TOPIC, 0);
+        ReservationCreatedEvent evt1 = new ReservationCreatedEvent(1L, 100L, "John Doe", "CC-1");
+        ReservationCreatedEvent evt2 = new ReservationCreatedEvent(2L, 100L, "Jane Roe", "CC-2");
+        byte[] bytes1 = "evt-1".getBytes();
+        byte[] bytes2 = "evt-2".getBytes();
+        ReceiverRecord<String, byte[]> record1 = mockRecord(bytes1);
+        ReceiverRecord<String, byte[]> record2 = mockRecord(bytes2);
+        when(record1.receiverOffset().topicPartition()).thenReturn(partition);
+        when(record2.receiverOffset().topicPartition()).thenReturn(partition);
+        when(record2.receiverOffset().commit()).thenReturn(Mono.empty());
+
+        when(receiver.receive()).thenReturn(Flux.just(record1, record2));
+        when(codecs.decode(any(), eq(bytes1), eq(ReservationCreatedEvent.class))).thenReturn(Mono.just(evt1));
+        when(codecs.decode(any(), eq(bytes2), eq(ReservationCreatedEvent.class))).thenReturn(Mono.just(evt2));
+        when(handler.handleBatch(List.of(evt1, evt2))).thenReturn(Mono.empty());
+
+        StepVerifier.create(engine.listen(definition())).verifyComplete();
+
+        verify(handler, times(1)).handleBatch(List.of(evt1, evt2));
+        verify(handler, never()).handle(any());
+        verify(record1.receiverOffset(), times(1)).acknowledge();
+        verify(record2.receiverOffset(), times(1)).acknowledge();
+        verify(record2.receiverOffset(), times(1)).commit();
+        verify(record1.receiverOffset(), never()).commit();
+        verifyNoInteractions(dlqPublisher);
+        assertThat(records("processed")).isEqualTo(2.0);
+        assertThat(meterRegistry.get("kafka.listener.batch.size").summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Modo lote: dos copias del mismo eventId en el lote se procesan una sola vez y ambas se confirman")
+    void listen_batch_mode_drops_duplicate_event_ids_within_batch() {
+        AppProperties.Kafka.Tuning tuning = new AppProperties.Kafka.Tuning();
+        tuning.setBatchEnabled(true);
+        tuning.setBatchSize(10);
+        properties.getKafka().getConsumer().getTopics().put(TOPIC, tuning);
+
+        TopicPartition partition = new TopicPartition(TOPIC, 0);
+        ReservationCreatedEvent evt = new ReservationCreatedEvent(3L, 100L, "John Doe", "CC-3");
+        byte[] bytes = "evt-3".getBytes();
+        ReceiverRecord<String, byte[]> record1 = mockRecord(bytes);
+        // La copia se descarta antes del decode: no se lee su payload
+        @SuppressWarnings("unchecked")
+        ReceiverRecord<String, byte[]> copy = mock(ReceiverRecord.class);
+        ReceiverOffset copyOffset = mock(ReceiverOffset.class);
+        when(copy.receiverOffset()).thenReturn(copyOffset);
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(KafkaEventHeaders.EVENT_ID, "evt-3".getBytes(StandardCharsets.UTF_8));
+        when(record1.headers()).thenReturn(headers);
+        when(copy.headers()).thenReturn(headers);
+        when(record1.receiverOffset().topicPartition()).thenReturn(partition);
+        when(copy.receiverOffset().topicPartition()).thenReturn(partition);
+        when(copy.receiverOffset().commit()).thenReturn(Mono.empty());
+        @SuppressWarnings("unchecked")
+        ReactiveValueOperations<String, String> valueOps = mock(ReactiveValueOperations.class);
+
+        when(receiver.receive()).thenReturn(Flux.just(record1, copy));
+        when(redisTemplate.hasKey("event.processed.evt-3")).thenReturn(Mono.just(false));
+        when(codecs.decode(any(), eq(bytes), eq(ReservationCreatedEvent.class))).thenReturn(Mono.just(evt));
+        when(handler.handleBatch(List.of(evt))).thenReturn(Mono.empty());
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent("event.processed.evt-3", "1", Duration.ofSeconds(86400))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(engine.listen(definition())).verifyComplete();
+
+        verify(handler, times(1)).handleBatch(List.of(evt));
+        verify(codecs, times(1)).decode(any(), eq(bytes), eq(ReservationCreatedEvent.class));
+        verify(redisTemplate, times(1)).hasKey("event.processed.evt-3");
+        verify(record1.receiverOffset(), times(1)).acknowledge();
+        verify(copy.receiverOffset(), times(1)).acknowledge();
+        verify(copy.receiverOffset(), times(1)).commit();
+        verifyNoInteractions(dlqPublisher);
+    }
+}
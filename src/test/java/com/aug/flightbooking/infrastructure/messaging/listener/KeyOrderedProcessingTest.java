@@ -0,0 +1,64 @@
+package com.aug.flightbooking.infrastructure.messaging.listener;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class KeyOrderedProcessingTest {
+
+    @SuppressWarnings("unchecked")
+    private ReceiverRecord<String, byte[]> record(String key, String value) {
+        ReceiverRecord<String, byte[]> record = mock(ReceiverRecord.class);
+        when(record.key()).thenReturn(key);
+        when(record.value()).thenReturn(value.getBytes());
+        return record;
+    }
+
+    @Test
+    @DisplayName("Con concurrency > 1: claves distintas en paralelo, misma clave en orden")
+    void process_parallel_by_key_keeps_order_per_key() {
+        List<String> done = new CopyOnWriteArrayList<>();
+        ReceiverRecord<String, byte[]> slow = record("k1", "k1-a");
+        ReceiverRecord<String, byte[]> other = record("k2", "k2-a");
+        ReceiverRecord<String, byte[]> next = record("k1", "k1-b");
+
+        StepVerifier.withVirtualTime(() -> KeyOrderedProcessing.process(Flux.just(slow, other, next), 4, r -> {
+                    String value = new String(r.value());
+                    // El primer registro de k1 es lento; no debe frenar a k2 ni adelantarse a k1-b
+                    Duration delay = value.equals("k1-a") ? Duration.ofMillis(100) : Duration.ofMillis(1);
+                    return Mono.delay(delay).then(Mono.fromRunnable(() -> done.add(value)));
+                }))
+                .thenAwait(Duration.ofMillis(200))
+                .verifyComplete();
+
+        assertThat(done).containsExactly("k2-a", "k1-a", "k1-b");
+    }
+
+    @Test
+    @DisplayName("Con concurrency = 1: procesamiento estricto en orden de llegada")
+    void process_sequential_when_concurrency_is_one() {
+        List<String> done = new CopyOnWriteArrayList<>();
+        ReceiverRecord<String, byte[]> slow = record("k1", "k1-a");
+        ReceiverRecord<String, byte[]> other = record("k2", "k2-a");
+
+        StepVerifier.withVirtualTime(() -> KeyOrderedProcessing.process(Flux.just(slow, other), 1, r -> {
+                    String value = new String(r.value());
+                    Duration delay = value.equals("k1-a") ? Duration.ofMillis(100) : Duration.ofMillis(1);
+                    return Mono.delay(delay).then(Mono.fromRunnable(() -> done.add(value)));
+                }))
+                .thenAwait(Duration.ofMillis(200))
+                .verifyComplete();
+
+        assertThat(done).containsExactly("k1-a", "k2-a");
+    }
+}
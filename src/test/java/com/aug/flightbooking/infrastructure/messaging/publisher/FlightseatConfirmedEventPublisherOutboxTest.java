@@ -0,0 +1,94 @@
+package com.aug.flightbooking.infrastructure.messaging.publisher;
+
+import com.aug.flightbooking.application.events.FlightseatConfirmedEvent;
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import com.aug.flightbooking.infrastructure.persistence.entities.OutboxEventEntity;
+import com.aug.flightbooking.infrastructure.persistence.repositories.R2dbcOutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para FlightseatConfirmedEventPublisherOutbox.
+ * Verifica que los eventos se guardan en outbox_event (uno o en lote) en lugar de enviarse a Kafka.
+ */
+@ExtendWith(MockitoExtension.class)
+class FlightseatConfirmedEventPublisherOutboxTest {
+
+    private static final String TOPIC = "flightseat.confirmed";
+
+    @Mock private R2dbcOutboxEventRepository outboxRepository;
+    @Mock private KafkaEventRecordFactory recordFactory;
+
+    private final OutboxRecordMapper outboxMapper = new OutboxRecordMapper(new ObjectMapper());
+    private FlightseatConfirmedEventPublisherOutbox publisher;
+
+    @BeforeEach
+    void setup() {
+        AppProperties props = new AppProperties();
+        props.setKafka(new AppProperties.Kafka());
+        props.getKafka().setProducer(new AppProperties.Kafka.Producer());
+        props.getKafka().getProducer().setFlightseatConfirmedTopic(TOPIC);
+        publisher = new FlightseatConfirmedEventPublisherOutbox(outboxRepository, recordFactory, outboxMapper, props);
+    }
+
+    @Test
+    @DisplayName("publish(): guarda el record del evento en outbox_event")
+    void publish_saves_record_in_outbox() {
+        FlightseatConfirmedEvent event = new FlightseatConfirmedEvent(1L);
+        when(recordFactory.create(TOPIC, event)).thenReturn(new ProducerRecord<>(TOPIC, "1", new byte[]{1}));
+        when(outboxRepository.save(any(OutboxEventEntity.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+
+        StepVerifier.create(publisher.publish(event)).verifyComplete();
+
+        ArgumentCaptor<OutboxEventEntity> saved = ArgumentCaptor.forClass(OutboxEventEntity.class);
+        verify(outboxRepository).save(saved.capture());
+        assertThat(saved.getValue().getTopic()).isEqualTo(TOPIC);
+        assertThat(saved.getValue().getRecordKey()).isEqualTo("1");
+        assertThat(saved.getValue().getPayload()).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("publishAll(): guarda todos los records del lote con un solo saveAll")
+    @SuppressWarnings("unchecked")
+    void publishAll_saves_all_records() {
+        FlightseatConfirmedEvent event1 = new FlightseatConfirmedEvent(1L);
+        FlightseatConfirmedEvent event2 = new FlightseatConfirmedEvent(2L);
+        when(recordFactory.create(TOPIC, event1)).thenReturn(new ProducerRecord<>(TOPIC, "1", new byte[]{1}));
+        when(recordFactory.create(TOPIC, event2)).thenReturn(new ProducerRecord<>(TOPIC, "2", new byte[]{2}));
+        when(outboxRepository.saveAll(any(Iterable.class)))
+                .thenAnswer(inv -> Flux.fromIterable(inv.<Iterable<OutboxEventEntity>>getArgument(0)));
+
+        StepVerifier.create(publisher.publishAll(List.of(event1, event2))).verifyComplete();
+
+        ArgumentCaptor<Iterable<OutboxEventEntity>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(outboxRepository, times(1)).saveAll(saved.capture());
+        List<String> keys = new ArrayList<>();
+        saved.getValue().forEach(entity -> keys.add(entity.getRecordKey()));
+        assertThat(keys).containsExactly("1", "2");
+    }
+
+    @Test
+    @DisplayName("publishAll(): lista vacía no escribe en el outbox")
+    void publishAll_empty_list() {
+        StepVerifier.create(publisher.publishAll(List.of())).verifyComplete();
+
+        verifyNoInteractions(outboxRepository, recordFactory);
+    }
+}
@@ -0,0 +1,66 @@
+package com.aug.flightbooking.infrastructure.messaging.publisher;
+
+import com.aug.flightbooking.application.events.ReservationCreatedEvent;
+import com.aug.flightbooking.infrastructure.messaging.IntegrationEventWrapper;
+import com.aug.flightbooking.infrastructure.messaging.KafkaEventHeaders;
+import com.aug.flightbooking.infrastructure.messaging.serialization.EventCodec;
+import com.aug.flightbooking.infrastructure.messaging.serialization.EventCodecRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaEventRecordFactoryTest {
+
+    @Mock private EventCodecRegistry codecs;
+    @Mock private EventCodec codec;
+
+    @InjectMocks
+    private KafkaEventRecordFactory factory;
+
+    @Test
+    @DisplayName("create(): clave de partición del evento, payload del codec y header con su nombre")
+    void create_sets_key_payload_and_codec_header() {
+        ReservationCreatedEvent event = new ReservationCreatedEvent(55L, 300L, "Ana", "CC-5");
+        byte[] payload = new byte[]{1, 2, 3};
+        when(codecs.defaultCodec()).thenReturn(codec);
+        when(codec.encode(event)).thenReturn(payload);
+        when(codec.name()).thenReturn("compact");
+
+        ProducerRecord<String, byte[]> record = factory.create("reservation.created", event);
+
+        assertThat(record.topic()).isEqualTo("reservation.created");
+        assertThat(record.key()).isEqualTo("300");
+        assertThat(record.value()).isEqualTo(payload);
+        assertThat(new String(record.headers().lastHeader(EventCodecRegistry.CODEC_HEADER).value(), StandardCharsets.UTF_8))
+                .isEqualTo("compact");
+    }
+
+    @Test
+    @DisplayName("create(): escribe la metadata del evento como headers legibles sin decodificar el payload")
+    void create_writes_envelope_headers() {
+        ReservationCreatedEvent event = new ReservationCreatedEvent(56L, 301L, "Luis", "CC-6");
+        when(codecs.defaultCodec()).thenReturn(codec);
+        when(codec.encode(event)).thenReturn(new byte[]{9});
+        when(codec.name()).thenReturn("json");
+
+        ProducerRecord<String, byte[]> record = factory.create("reservation.created", event);
+        IntegrationEventWrapper<byte[]> envelope = KafkaEventHeaders.read(record.headers(), record.value());
+
+        assertThat(envelope.eventType()).isEqualTo(ReservationCreatedEvent.EVENT_TYPE);
+        assertThat(envelope.version()).isEqualTo(event.getVersion());
+        assertThat(envelope.eventId()).isNotBlank();
+        assertThat(envelope.traceId()).isNotBlank();
+        assertThat(envelope.timestamp()).isNotNull();
+        assertThat(envelope.data()).containsExactly(9);
+    }
+}
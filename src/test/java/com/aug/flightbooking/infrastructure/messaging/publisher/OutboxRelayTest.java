@@ -0,0 +1,115 @@
+package com.aug.flightbooking.infrastructure.messaging.publisher;
+
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import com.aug.flightbooking.infrastructure.persistence.entities.OutboxEventEntity;
+import com.aug.flightbooking.infrastructure.persistence.repositories.R2dbcOutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+import reactor.kafka.sender.SenderResult;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para OutboxRelay.
+ * Verifica el envío por lotes, el borrado de lo enviado y que un fallo de Kafka no borra el lote.
+ */
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock private R2dbcOutboxEventRepository outboxRepository;
+    @Mock private KafkaSender<String, byte[]> kafkaSender;
+    @Mock private TransactionalOperator transactionalOperator;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setup() {
+        AppProperties props = new AppProperties();
+        props.setOutbox(new AppProperties.Outbox());
+        props.getOutbox().setPollMillis(100);
+        props.getOutbox().setBatchSize(2);
+        relay = new OutboxRelay(outboxRepository, kafkaSender, new OutboxRecordMapper(new ObjectMapper()),
+                transactionalOperator, props);
+        // La transacción se prueba en integración; aquí solo se ejecuta el lote
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    private static OutboxEventEntity row(long id) {
+        OutboxEventEntity entity = new OutboxEventEntity();
+        entity.setId(id);
+        entity.setTopic("reservation.created");
+        entity.setRecordKey("100");
+        entity.setPayload(new byte[]{(byte) id});
+        entity.setHeaders("{\"eventId\":\"evt-" + id + "\"}");
+        entity.setCreatedAt(Instant.now());
+        return entity;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void kafkaAcceptsAll(List<Long> sentIds) {
+        when(kafkaSender.send(any())).thenAnswer(inv -> Flux.from((Publisher<SenderRecord<String, byte[], Long>>) inv.getArgument(0))
+                .map(record -> {
+                    sentIds.add(record.correlationMetadata());
+                    SenderResult<Long> result = mock(SenderResult.class);
+                    return result;
+                }));
+    }
+
+    @Test
+    @DisplayName("drain(): publica lotes mientras salen llenos y borra los ids enviados")
+    void drain_sends_full_batches_then_stops() {
+        List<Long> sentIds = new ArrayList<>();
+        kafkaAcceptsAll(sentIds);
+        when(outboxRepository.lockBatch(2))
+                .thenReturn(Flux.just(row(1), row(2)))
+                .thenReturn(Flux.just(row(3)));
+        when(outboxRepository.deleteByIds(any(Long[].class))).thenReturn(Mono.just(1));
+
+        StepVerifier.create(relay.drain()).expectNext(3).verifyComplete();
+
+        assertThat(sentIds).containsExactly(1L, 2L, 3L);
+        verify(outboxRepository).deleteByIds(new Long[]{1L, 2L});
+        verify(outboxRepository).deleteByIds(new Long[]{3L});
+        verify(outboxRepository, times(2)).lockBatch(2);
+    }
+
+    @Test
+    @DisplayName("drain(): sin eventos pendientes no llama a Kafka")
+    void drain_empty_outbox() {
+        when(outboxRepository.lockBatch(2)).thenReturn(Flux.empty());
+
+        StepVerifier.create(relay.drain()).expectNext(0).verifyComplete();
+
+        verifyNoInteractions(kafkaSender);
+        verify(outboxRepository, never()).deleteByIds(any());
+    }
+
+    @Test
+    @DisplayName("drain(): si Kafka falla el lote no se borra y el error se propaga para revertir la transacción")
+    void drain_kafka_error_keeps_rows() {
+        when(outboxRepository.lockBatch(2)).thenReturn(Flux.just(row(1)));
+        when(kafkaSender.send(any())).thenAnswer(inv -> Flux.error(new RuntimeException("kafka down")));
+
+        StepVerifier.create(relay.drain()).expectErrorMessage("kafka down").verify();
+
+        verify(outboxRepository, never()).deleteByIds(any());
+    }
+}
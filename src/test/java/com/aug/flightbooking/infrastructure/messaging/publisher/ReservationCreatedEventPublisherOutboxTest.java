@@ -0,0 +1,85 @@
+package com.aug.flightbooking.infrastructure.messaging.publisher;
+
+import com.aug.flightbooking.application.events.ReservationCreatedEvent;
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import com.aug.flightbooking.infrastructure.messaging.KafkaEventHeaders;
+import com.aug.flightbooking.infrastructure.persistence.entities.OutboxEventEntity;
+import com.aug.flightbooking.infrastructure.persistence.repositories.R2dbcOutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para ReservationCreatedEventPublisherOutbox.
+ * Verifica que el evento se guarda en outbox_event como record completo y que el relay lo reconstruye igual.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReservationCreatedEventPublisherOutboxTest {
+
+    @Mock private R2dbcOutboxEventRepository outboxRepository;
+    @Mock private KafkaEventRecordFactory recordFactory;
+
+    private final OutboxRecordMapper outboxMapper = new OutboxRecordMapper(new ObjectMapper());
+    private ReservationCreatedEventPublisherOutbox publisher;
+
+    @BeforeEach
+    void setup() {
+        AppProperties props = new AppProperties();
+        props.setKafka(new AppProperties.Kafka());
+        props.getKafka().setProducer(new AppProperties.Kafka.Producer());
+        props.getKafka().getProducer().setReservationCreatedTopic("reservation.created");
+        publisher = new ReservationCreatedEventPublisherOutbox(outboxRepository, recordFactory, outboxMapper, props);
+    }
+
+    @Test
+    @DisplayName("publish(): guarda topic, clave, payload y headers en outbox_event; el relay rearma el mismo record")
+    void publish_saves_record_in_outbox() {
+        ReservationCreatedEvent event = new ReservationCreatedEvent(99L, 100L, "John Doe", "CC-1");
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>("reservation.created", "100", new byte[]{1, 2, 3});
+        record.headers().add(KafkaEventHeaders.EVENT_ID, "evt-99".getBytes(StandardCharsets.UTF_8));
+        when(recordFactory.create("reservation.created", event)).thenReturn(record);
+        when(outboxRepository.save(any(OutboxEventEntity.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+
+        StepVerifier.create(publisher.publish(event)).verifyComplete();
+
+        ArgumentCaptor<OutboxEventEntity> saved = ArgumentCaptor.forClass(OutboxEventEntity.class);
+        verify(outboxRepository).save(saved.capture());
+        assertThat(saved.getValue().getTopic()).isEqualTo("reservation.created");
+        assertThat(saved.getValue().getRecordKey()).isEqualTo("100");
+        assertThat(saved.getValue().getCreatedAt()).isNotNull();
+
+        ProducerRecord<String, byte[]> rebuilt = outboxMapper.toRecord(saved.getValue());
+        assertThat(rebuilt.topic()).isEqualTo("reservation.created");
+        assertThat(rebuilt.key()).isEqualTo("100");
+        assertThat(rebuilt.value()).containsExactly(1, 2, 3);
+        assertThat(new String(rebuilt.headers().lastHeader(KafkaEventHeaders.EVENT_ID).value(), StandardCharsets.UTF_8))
+                .isEqualTo("evt-99");
+    }
+
+    @Test
+    @DisplayName("publish(): si el encoder falla -> no se escribe en el outbox y el Mono falla")
+    void publish_encoder_error() {
+        ReservationCreatedEvent event = new ReservationCreatedEvent(10L, 200L, "Jane Roe", "CC-2");
+        when(recordFactory.create("reservation.created", event)).thenThrow(new RuntimeException("encode failed"));
+
+        StepVerifier.create(publisher.publish(event))
+                .expectErrorMessage("encode failed")
+                .verify();
+
+        verifyNoInteractions(outboxRepository);
+    }
+}
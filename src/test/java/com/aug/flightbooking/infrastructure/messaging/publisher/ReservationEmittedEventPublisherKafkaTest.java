@@ -2,7 +2,7 @@ package com.aug.flightbooking.infrastructure.messaging.publisher;
 
 import com.aug.flightbooking.application.events.ReservationEmittedEvent;
 import com.aug.flightbooking.infrastructure.config.AppProperties;
-import com.aug.flightbooking.infrastructure.messaging.serialization.ReactiveJsonEncoder;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,7 +25,7 @@ class ReservationEmittedEventPublisherKafkaTest {
     @Mock private AppProperties props;
     @Mock private AppProperties.Kafka kafka;
     @Mock private AppProperties.Kafka.Producer producerProps;
-    @Mock private ReactiveJsonEncoder encoder;
+    @Mock private KafkaEventRecordFactory recordFactory;
 
     private ReservationEmittedEventPublisherKafka publisher;
 
@@ -35,7 +35,7 @@ class ReservationEmittedEventPublisherKafkaTest {
         when(kafka.getProducer()).thenReturn(producerProps);
         when(producerProps.getReservationEmittedTopic()).thenReturn("reservation.emitted");
 
-        publisher = new ReservationEmittedEventPublisherKafka(kafkaSender, props, encoder);
+        publisher = new ReservationEmittedEventPublisherKafka(kafkaSender, props, recordFactory);
     }
 
     @Test
@@ -45,7 +45,7 @@ class ReservationEmittedEventPublisherKafkaTest {
         ReservationEmittedEvent event = new ReservationEmittedEvent(99L);
         byte[] payload = "{\"reservationId\":99}".getBytes();
 
-        when(encoder.encode(event)).thenReturn(Mono.just(payload));
+        when(recordFactory.create("reservation.emitted", event)).thenReturn(new ProducerRecord<>("reservation.emitted", payload));
 
         @SuppressWarnings("unchecked")
         SenderResult<Object> ok = mock(SenderResult.class);
@@ -54,7 +54,7 @@ class ReservationEmittedEventPublisherKafkaTest {
         // Act & Assert
         StepVerifier.create(publisher.publish(event)).verifyComplete();
 
-        verify(encoder, times(1)).encode(event);
+        verify(recordFactory, times(1)).create("reservation.emitted", event);
         verify(kafkaSender, times(1)).send(any());
         verifyNoMoreInteractions(kafkaSender);
     }
@@ -64,7 +64,7 @@ class ReservationEmittedEventPublisherKafkaTest {
     void publish_encoder_error() {
         // Arrange
         ReservationEmittedEvent event = new ReservationEmittedEvent(10L);
-        when(encoder.encode(event)).thenReturn(Mono.error(new RuntimeException("encode failed")));
+        when(recordFactory.create("reservation.emitted", event)).thenThrow(new RuntimeException("encode failed"));
 
         // Act & Assert
         StepVerifier.create(publisher.publish(event))
@@ -72,7 +72,7 @@ class ReservationEmittedEventPublisherKafkaTest {
                         ex.getMessage().equals("encode failed"))
                 .verify();
 
-        verify(encoder, times(1)).encode(event);
+        verify(recordFactory, times(1)).create("reservation.emitted", event);
         verify(kafkaSender, never()).send(any());
     }
 
@@ -83,7 +83,7 @@ class ReservationEmittedEventPublisherKafkaTest {
         ReservationEmittedEvent event = new ReservationEmittedEvent(77L);
         byte[] payload = "{\"reservationId\":77}".getBytes();
 
-        when(encoder.encode(event)).thenReturn(Mono.just(payload));
+        when(recordFactory.create("reservation.emitted", event)).thenReturn(new ProducerRecord<>("reservation.emitted", payload));
         when(kafkaSender.send(any())).thenReturn(Flux.error(new RuntimeException("send failed")));
 
         // Act & Assert
@@ -92,7 +92,7 @@ class ReservationEmittedEventPublisherKafkaTest {
                         ex.getMessage().equals("send failed"))
                 .verify();
 
-        verify(encoder, times(1)).encode(event);
+        verify(recordFactory, times(1)).create("reservation.emitted", event);
         verify(kafkaSender, times(1)).send(any());
     }
 }
@@ -2,7 +2,7 @@ package com.aug.flightbooking.infrastructure.messaging.publisher;
 
 import com.aug.flightbooking.application.events.TicketCreatedEvent;
 import com.aug.flightbooking.infrastructure.config.AppProperties;
-import com.aug.flightbooking.infrastructure.messaging.serialization.ReactiveJsonEncoder;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,7 +25,7 @@ class TicketCreatedEventPublisherKafkaTest {
     @Mock private AppProperties props;
     @Mock private AppProperties.Kafka kafka;
     @Mock private AppProperties.Kafka.Producer producerProps;
-    @Mock private ReactiveJsonEncoder encoder;
+    @Mock private KafkaEventRecordFactory recordFactory;
 
     private TicketCreatedEventPublisherKafka publisher;
 
@@ -35,7 +35,7 @@ class TicketCreatedEventPublisherKafkaTest {
         when(kafka.getProducer()).thenReturn(producerProps);
         when(producerProps.getTicketCreatedTopic()).thenReturn("ticket.created");
 
-        publisher = new TicketCreatedEventPublisherKafka(kafkaSender, props, encoder);
+        publisher = new TicketCreatedEventPublisherKafka(kafkaSender, props, recordFactory);
     }
 
     @Test
@@ -45,7 +45,7 @@ class TicketCreatedEventPublisherKafkaTest {
         TicketCreatedEvent event = new TicketCreatedEvent(99L, "OK");
         byte[] payload = "{\"reservationId\":99,\"message\":\"OK\"}".getBytes();
 
-        when(encoder.encode(event)).thenReturn(Mono.just(payload));
+        when(recordFactory.create("ticket.created", event)).thenReturn(new ProducerRecord<>("ticket.created", payload));
         @SuppressWarnings("unchecked")
         SenderResult<Object> ok = mock(SenderResult.class);
         when(kafkaSender.send(any())).thenReturn(Flux.just(ok));
@@ -53,7 +53,7 @@ class TicketCreatedEventPublisherKafkaTest {
         // Act & Assert
         StepVerifier.create(publisher.publish(event)).verifyComplete();
 
-        verify(encoder, times(1)).encode(event);
+        verify(recordFactory, times(1)).create("ticket.created", event);
         verify(kafkaSender, times(1)).send(any());
         verifyNoMoreInteractions(kafkaSender);
     }
@@ -63,7 +63,7 @@ class TicketCreatedEventPublisherKafkaTest {
     void publish_encoder_error() {
         // Arrange
         TicketCreatedEvent event = new TicketCreatedEvent(10L, "OK");
-        when(encoder.encode(event)).thenReturn(Mono.error(new RuntimeException("encode failed")));
+        when(recordFactory.create("ticket.created", event)).thenThrow(new RuntimeException("encode failed"));
 
         // Act & Assert
         StepVerifier.create(publisher.publish(event))
@@ -71,7 +71,7 @@ class TicketCreatedEventPublisherKafkaTest {
                         ex.getMessage().equals("encode failed"))
                 .verify();
 
-        verify(encoder, times(1)).encode(event);
+        verify(recordFactory, times(1)).create("ticket.created", event);
         verify(kafkaSender, never()).send(any());
     }
 
@@ -82,7 +82,7 @@ class TicketCreatedEventPublisherKafkaTest {
         TicketCreatedEvent event = new TicketCreatedEvent(77L, "OK");
         byte[] payload = "{\"reservationId\":77,\"message\":\"OK\"}".getBytes();
 
-        when(encoder.encode(event)).thenReturn(Mono.just(payload));
+        when(recordFactory.create("ticket.created", event)).thenReturn(new ProducerRecord<>("ticket.created", payload));
         when(kafkaSender.send(any())).thenReturn(Flux.error(new RuntimeException("send failed")));
 
         // Act & Assert
@@ -91,7 +91,7 @@ class TicketCreatedEventPublisherKafkaTest {
                         ex.getMessage().equals("send failed"))
                 .verify();
 
-        verify(encoder, times(1)).encode(event);
+        verify(recordFactory, times(1)).create("ticket.created", event);
         verify(kafkaSender, times(1)).send(any());
     }
 }
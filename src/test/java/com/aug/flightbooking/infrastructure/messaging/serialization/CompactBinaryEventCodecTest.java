@@ -0,0 +1,62 @@
+package com.aug.flightbooking.infrastructure.messaging.serialization;
+
+import com.aug.flightbooking.application.events.FlightseatConfirmedEvent;
+import com.aug.flightbooking.application.events.FlightseatRejectedEvent;
+import com.aug.flightbooking.application.events.IntegrationEvent;
+import com.aug.flightbooking.application.events.ReservationCreatedEvent;
+import com.aug.flightbooking.application.events.TicketCreatedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Valida:
+ *  - ida y vuelta de los eventos (incluyendo nulos y negativos)
+ *  - payload más pequeño que el JSON equivalente
+ *  - rechazo de payloads de otro esquema o que no son compactos
+ */
+class CompactBinaryEventCodecTest {
+
+    private final CompactBinaryEventCodec codec = new CompactBinaryEventCodec();
+
+    @Test
+    @DisplayName("encode/decode: ida y vuelta conserva todos los campos")
+    void round_trip_preserves_fields() {
+        ReservationCreatedEvent created = new ReservationCreatedEvent(12345L, 678L, "José Pérez", "CC-1");
+        FlightseatRejectedEvent rejected = new FlightseatRejectedEvent(-5L, null);
+        TicketCreatedEvent ticket = new TicketCreatedEvent(null, "");
+
+        assertEquals(created, codec.decode(codec.encode(created), ReservationCreatedEvent.class));
+        assertEquals(rejected, codec.decode(codec.encode(rejected), FlightseatRejectedEvent.class));
+        assertEquals(ticket, codec.decode(codec.encode(ticket), TicketCreatedEvent.class));
+    }
+
+    @Test
+    @DisplayName("encode(): el payload compacto es más pequeño que el JSON")
+    void compact_payload_is_smaller_than_json() {
+        IntegrationEvent event = new ReservationCreatedEvent(12345L, 678L, "John Doe", "CC-123456789");
+
+        byte[] compact = codec.encode(event);
+        byte[] json = new ReactiveJsonEncoder().serialize(event);
+
+        assertTrue(compact.length * 2 < json.length,
+                "compacto=" + compact.length + " json=" + json.length);
+    }
+
+    @Test
+    @DisplayName("decode(): falla si el payload pertenece a otro esquema")
+    void decode_rejects_other_schema() {
+        byte[] confirmed = codec.encode(new FlightseatConfirmedEvent(1L));
+
+        assertThrows(IllegalStateException.class, () -> codec.decode(confirmed, TicketCreatedEvent.class));
+    }
+
+    @Test
+    @DisplayName("decode(): falla si el payload no es formato compacto")
+    void decode_rejects_json() {
+        byte[] json = "{\"reservationId\":1}".getBytes();
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(json, FlightseatConfirmedEvent.class));
+    }
+}
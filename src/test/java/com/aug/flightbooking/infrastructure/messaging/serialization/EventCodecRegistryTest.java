@@ -0,0 +1,80 @@
+package com.aug.flightbooking.infrastructure.messaging.serialization;
+
+import com.aug.flightbooking.application.events.FlightseatConfirmedEvent;
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Valida que el registry elige el codec según el header de cada mensaje,
+ * asumiendo JSON cuando el mensaje no trae header (mensajes previos al cambio de formato).
+ */
+class EventCodecRegistryTest {
+
+    private JsonEventCodec json;
+    private CompactBinaryEventCodec compact;
+    private EventCodecRegistry registry;
+
+    @BeforeEach
+    void setup() {
+        json = new JsonEventCodec(new ReactiveJsonEncoder(), new ObjectMapper());
+        compact = new CompactBinaryEventCodec();
+
+        AppProperties.Kafka.Producer producer = new AppProperties.Kafka.Producer();
+        producer.setCodec("compact");
+        AppProperties.Kafka kafka = new AppProperties.Kafka();
+        kafka.setProducer(producer);
+        AppProperties properties = new AppProperties();
+        properties.setKafka(kafka);
+
+        registry = new EventCodecRegistry(List.of(json, compact), properties);
+    }
+
+    @Test
+    @DisplayName("defaultCodec(): usa el codec configurado para publicar")
+    void default_codec_is_configured_one() {
+        assertSame(compact, registry.defaultCodec());
+    }
+
+    @Test
+    @DisplayName("decode(): sin header se lee como JSON")
+    void decode_without_header_uses_json() {
+        byte[] payload = "{\"reservationId\":7}".getBytes(StandardCharsets.UTF_8);
+
+        StepVerifier.create(registry.decode(new RecordHeaders(), payload, FlightseatConfirmedEvent.class))
+                .expectNext(new FlightseatConfirmedEvent(7L))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("decode(): con header compact se lee con el codec compacto")
+    void decode_with_compact_header() {
+        FlightseatConfirmedEvent event = new FlightseatConfirmedEvent(8L);
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(EventCodecRegistry.CODEC_HEADER, "compact".getBytes(StandardCharsets.UTF_8));
+
+        StepVerifier.create(registry.decode(headers, compact.encode(event), FlightseatConfirmedEvent.class))
+                .expectNext(event)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("decode(): codec desconocido o payload inválido termina en error")
+    void decode_unknown_codec_errors() {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(EventCodecRegistry.CODEC_HEADER, "avro".getBytes(StandardCharsets.UTF_8));
+
+        StepVerifier.create(registry.decode(headers, new byte[]{1}, FlightseatConfirmedEvent.class))
+                .expectErrorMatches(ex -> ex.getMessage().equals("Error deserializando mensaje"))
+                .verify();
+    }
+}
@@ -13,6 +13,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * Valida:
  *  - encode POJO sencillo -> bytes con JSON esperado
  *  - encode Map -> bytes no vacíos con contenido JSON
+ *  - serialize síncrono -> el buffer reutilizado no arrastra bytes de eventos anteriores
  * Nota: No se fuerza un caso de error aquí porque Jackson normalmente serializa muchos tipos
  * (incluyendo objetos con pocos campos) sin fallar.
  */
@@ -70,4 +71,29 @@ class ReactiveJsonEncoderTest {
                 })
                 .verifyComplete();
     }
+
+    @Test
+    @DisplayName("serialize(): síncrono, reutiliza el buffer sin arrastrar bytes del evento anterior")
+    void serialize_reuses_buffer_without_leaking_previous_bytes() {
+        TestDto large = new TestDto(1L, "x".repeat(2000));
+        TestDto small = new TestDto(2L, "OK");
+
+        byte[] first = encoder.serialize(large);
+        byte[] second = encoder.serialize(small);
+
+        assertTrue(first.length > 2000);
+        assertEquals("{\"id\":2,\"message\":\"OK\"}", new String(second, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("serialize(): produce los mismos bytes que encode()")
+    void serialize_matches_encode() {
+        TestDto dto = new TestDto(42L, "OK");
+
+        byte[] sync = encoder.serialize(dto);
+
+        StepVerifier.create(encoder.encode(dto))
+                .assertNext(bytes -> assertArrayEquals(sync, bytes))
+                .verifyComplete();
+    }
 }
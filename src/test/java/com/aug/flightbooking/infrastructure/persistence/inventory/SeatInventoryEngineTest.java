@@ -0,0 +1,187 @@
+package com.aug.flightbooking.infrastructure.persistence.inventory;
+
+import com.aug.flightbooking.infrastructure.config.AppProperties;
+import com.aug.flightbooking.infrastructure.persistence.repositories.R2dbcFlightRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para SeatInventoryEngine.
+ * Verifica reservas en memoria, carga perezosa, registro en seat_grant, devolución de asientos al revertir
+ * la transacción, recarga tras rebalance y volcado por lotes.
+ */
+@ExtendWith(MockitoExtension.class)
+class SeatInventoryEngineTest {
+
+    @Mock
+    private R2dbcFlightRepository flightRepository;
+
+    @Mock
+    private AppProperties properties;
+
+    private AppProperties.SeatInventory inventory;
+    private SeatInventoryEngine engine;
+    private final TransactionalOperator transactionalOperator = TransactionalOperator.create(new NoOpTransactionManager());
+
+    @BeforeEach
+    void setUp() {
+        inventory = new AppProperties.SeatInventory();
+        inventory.setEnabled(true);
+        inventory.setShards(4);
+        inventory.setFlushPeriodMillis(500);
+        inventory.setFlushBatchSize(500);
+        when(properties.getSeatInventory()).thenReturn(inventory);
+
+        engine = new SeatInventoryEngine(flightRepository, properties);
+    }
+
+    private static R2dbcFlightRepository.SeatAvailability seats(int total, int reserved) {
+        return new R2dbcFlightRepository.SeatAvailability(total, reserved);
+    }
+
+    @Test
+    @DisplayName("tryReserveSeat(): carga el vuelo una sola vez, registra cada asiento en seat_grant y rechaza al agotar cupos")
+    void reserves_in_memory_until_full() {
+        when(flightRepository.findSeatAvailability(1L)).thenReturn(Mono.just(seats(2, 0)));
+        when(flightRepository.recordSeatGrant(1L, 1)).thenReturn(Mono.just(1));
+
+        StepVerifier.create(engine.tryReserveSeat(1L)).expectNext(true).verifyComplete();
+        StepVerifier.create(engine.tryReserveSeat(1L)).expectNext(true).verifyComplete();
+        StepVerifier.create(engine.tryReserveSeat(1L)).expectNext(false).verifyComplete();
+
+        // Solo la primera reserva lee el vuelo; el rechazo no registra nada
+        verify(flightRepository, times(1)).findSeatAvailability(1L);
+        verify(flightRepository, times(2)).recordSeatGrant(1L, 1);
+    }
+
+    @Test
+    @DisplayName("tryReserveSeat(): vuelo inexistente retorna false")
+    void unknown_flight_is_rejected() {
+        when(flightRepository.findSeatAvailability(9L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(engine.tryReserveSeat(9L)).expectNext(false).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("tryReserveSeats(): si seat_grant falla, el error se propaga y los asientos vuelven al contador")
+    void grant_failure_releases_seats() {
+        when(flightRepository.findSeatAvailability(3L)).thenReturn(Mono.just(seats(2, 0)));
+        when(flightRepository.recordSeatGrant(3L, 2))
+                .thenReturn(Mono.error(new RuntimeException("db down")), Mono.just(1));
+
+        StepVerifier.create(engine.tryReserveSeats(3L, 2)).expectError(RuntimeException.class).verify();
+        // Los dos asientos siguen disponibles para el reintento
+        StepVerifier.create(engine.tryReserveSeats(3L, 2)).expectNext(2).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("tryReserveSeat(): si la transacción se revierte el asiento vuelve al contador")
+    void rollback_returns_seat_to_counter() {
+        when(flightRepository.findSeatAvailability(6L)).thenReturn(Mono.just(seats(1, 0)));
+        when(flightRepository.recordSeatGrant(6L, 1)).thenReturn(Mono.just(1));
+
+        // Falla algo después de reservar (p.ej. el INSERT del outbox) y la transacción se revierte
+        StepVerifier.create(transactionalOperator.transactional(
+                        engine.tryReserveSeat(6L).then(Mono.error(new RuntimeException("outbox")))))
+                .expectError(RuntimeException.class)
+                .verify();
+
+        // El único cupo sigue disponible para el reintento
+        StepVerifier.create(transactionalOperator.transactional(engine.tryReserveSeat(6L)))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(engine.tryReserveSeat(6L)).expectNext(false).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("tryReserveSeats(): si seat_grant falla dentro de la transacción los asientos vuelven una sola vez")
+    void grant_failure_in_transaction_releases_once() {
+        when(flightRepository.findSeatAvailability(7L)).thenReturn(Mono.just(seats(2, 0)));
+        when(flightRepository.recordSeatGrant(7L, 2)).thenReturn(Mono.error(new RuntimeException("db down")));
+
+        StepVerifier.create(transactionalOperator.transactional(engine.tryReserveSeats(7L, 2)))
+                .expectError(RuntimeException.class)
+                .verify();
+
+        // Dos cupos libres, no cuatro
+        when(flightRepository.recordSeatGrant(7L, 2)).thenReturn(Mono.just(1));
+        StepVerifier.create(engine.tryReserveSeats(7L, 3)).expectNext(2).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("releaseCounters(): tras un rebalance el vuelo se recarga de la BD con lo concedido por otro dueño")
+    void rebalance_reloads_counter_from_db() {
+        when(flightRepository.findSeatAvailability(4L)).thenReturn(Mono.just(seats(3, 0)), Mono.just(seats(3, 3)));
+        when(flightRepository.recordSeatGrant(4L, 1)).thenReturn(Mono.just(1));
+
+        StepVerifier.create(engine.tryReserveSeat(4L)).expectNext(true).verifyComplete();
+
+        // Otro proceso tuvo la partición y concedió los cupos restantes
+        engine.releaseCounters();
+
+        StepVerifier.create(engine.tryReserveSeat(4L)).expectNext(false).verifyComplete();
+        verify(flightRepository, times(2)).findSeatAvailability(4L);
+    }
+
+    @Test
+    @DisplayName("flush(): vuelca seat_grant por lotes hasta que un lote sale incompleto")
+    void flush_folds_grants_until_empty() {
+        inventory.setFlushBatchSize(100);
+        when(flightRepository.foldSeatGrants(100)).thenReturn(Mono.just(100L), Mono.just(3L));
+
+        StepVerifier.create(engine.flush()).verifyComplete();
+
+        verify(flightRepository, times(2)).foldSeatGrants(100);
+    }
+
+    @Test
+    @DisplayName("flush(): un error del volcado se propaga; los registros siguen en seat_grant para el siguiente ciclo")
+    void flush_failure_propagates() {
+        when(flightRepository.foldSeatGrants(anyInt())).thenReturn(Mono.error(new RuntimeException("db down")));
+
+        StepVerifier.create(engine.flush()).expectError(RuntimeException.class).verify();
+    }
+
+    /**
+     * Gestor de transacciones sin base de datos: solo ejecuta las sincronizaciones de commit y rollback.
+     */
+    private static final class NoOpTransactionManager extends AbstractReactiveTransactionManager {
+
+        @Override
+        protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+            return new Object();
+        }
+
+        @Override
+        protected Mono<Void> doBegin(TransactionSynchronizationManager synchronizationManager, Object transaction,
+                                     TransactionDefinition definition) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager,
+                                      GenericReactiveTransaction status) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager,
+                                        GenericReactiveTransaction status) {
+            return Mono.empty();
+        }
+    }
+}
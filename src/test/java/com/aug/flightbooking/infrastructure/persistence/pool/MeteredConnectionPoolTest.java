@@ -0,0 +1,107 @@
+package com.aug.flightbooking.infrastructure.persistence.pool;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.Connection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para MeteredConnectionPool.
+ * Verifica los gauges leídos del pool, el timer de adquisición por outcome y la delegación del dispose.
+ */
+@ExtendWith(MockitoExtension.class)
+class MeteredConnectionPoolTest {
+
+    @Mock
+    private ConnectionPool pool;
+
+    @Mock
+    private PoolMetrics poolMetrics;
+
+    @Mock
+    private Connection connection;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MeteredConnectionPool meteredPool;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        meteredPool = new MeteredConnectionPool(pool, "flightbooking", meterRegistry);
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("name", "flightbooking").gauge().value();
+    }
+
+    private long acquires(String outcome) {
+        return meterRegistry.get("r2dbc.pool.acquire").tag("outcome", outcome).timer().count();
+    }
+
+    @Test
+    @DisplayName("Gauges: publican conexiones en uso, ociosas, en espera y abiertas según el pool")
+    void gauges_read_pool_metrics() {
+        when(pool.getMetrics()).thenReturn(Optional.of(poolMetrics));
+        when(poolMetrics.acquiredSize()).thenReturn(7);
+        when(poolMetrics.idleSize()).thenReturn(3);
+        when(poolMetrics.pendingAcquireSize()).thenReturn(2);
+        when(poolMetrics.allocatedSize()).thenReturn(10);
+
+        assertThat(gauge("r2dbc.pool.acquired")).isEqualTo(7.0);
+        assertThat(gauge("r2dbc.pool.idle")).isEqualTo(3.0);
+        assertThat(gauge("r2dbc.pool.pending")).isEqualTo(2.0);
+        assertThat(gauge("r2dbc.pool.allocated")).isEqualTo(10.0);
+    }
+
+    @Test
+    @DisplayName("Gauges: sin métricas del pool reportan cero")
+    void gauges_without_metrics_are_zero() {
+        when(pool.getMetrics()).thenReturn(Optional.empty());
+
+        assertThat(gauge("r2dbc.pool.pending")).isZero();
+    }
+
+    @Test
+    @DisplayName("create(): entrega la conexión del pool y registra la adquisición como success")
+    void create_records_success() {
+        when(pool.create()).thenReturn(Mono.just(connection));
+
+        StepVerifier.create(meteredPool.create()).expectNext(connection).verifyComplete();
+
+        assertThat(acquires("success")).isEqualTo(1);
+        assertThat(acquires("error")).isZero();
+    }
+
+    @Test
+    @DisplayName("create(): un maxAcquireTime vencido se propaga y registra la adquisición como error")
+    void create_records_error() {
+        when(pool.create()).thenReturn(Mono.error(new TimeoutException("acquire")));
+
+        StepVerifier.create(meteredPool.create()).expectError(TimeoutException.class).verify();
+
+        assertThat(acquires("error")).isEqualTo(1);
+        assertThat(acquires("success")).isZero();
+    }
+
+    @Test
+    @DisplayName("dispose(): cierra el pool subyacente")
+    void dispose_delegates_to_pool() {
+        meteredPool.dispose();
+
+        verify(pool).dispose();
+    }
+}
@@ -1,6 +1,7 @@
 package com.aug.flightbooking.infrastructure.web.controllers;
 
 import com.aug.flightbooking.application.commands.CreateFlightCommand;
+import com.aug.flightbooking.application.commands.SearchFlightsCommand;
 import com.aug.flightbooking.application.ports.in.CreateFlightUseCase;
 import com.aug.flightbooking.application.ports.in.GetAllFlightsUseCase;
 import com.aug.flightbooking.domain.models.flight.Airline;
@@ -177,6 +178,34 @@ class FlightControllerTest {
                 .expectBody().json("[]");
     }
 
+    @Test
+    @DisplayName("GET /api/flight?origin&destination&departureFrom&limit -> búsqueda paginada con X-Next-Cursor")
+    void searchFlights_paged_with_next_cursor() {
+        Instant from = Instant.parse("2025-09-01T00:00:00Z");
+        Flight f1 = Flight.fromPersistence(1L, new Airline("LATAM","LA"),
+                "LA001","SCL","LIM",200,10, from.plusSeconds(3600),
+                from.plusSeconds(10800), FlightStatus.SCHEDULED);
+        Flight f2 = Flight.fromPersistence(2L, new Airline("LATAM","LA"),
+                "LA003","SCL","LIM",200,0, from.plusSeconds(7200),
+                from.plusSeconds(14400), FlightStatus.SCHEDULED);
+
+        when(getAllFlightsUseCase.searchFlights(new SearchFlightsCommand("SCL", "LIM", from, null, null, 2)))
+                .thenReturn(Flux.just(f1, f2));
+        when(flightResponseMapper.toResponse(f1)).thenReturn(FlightResponse.builder()
+                .id(1L).airline("LATAM").origin("SCL").destination("LIM")
+                .status(FlightStatus.SCHEDULED).build());
+
+        client.get().uri("/api/flight?origin=SCL&destination=LIM&departureFrom=2025-09-01T00:00:00Z&limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Next-Cursor", "1")
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(1);
+
+        verify(getAllFlightsUseCase, never()).getAllFlights();
+    }
+
     // ===== Validación 400 (Bean Validation en @WebFluxTest) =====
 
     @Test
@@ -1,6 +1,7 @@
 package com.aug.flightbooking.infrastructure.web.controllers;
 
 import com.aug.flightbooking.application.commands.CreateReservationCommand;
+import com.aug.flightbooking.application.commands.SearchReservationsCommand;
 import com.aug.flightbooking.application.ports.in.CreateReservationUseCase;
 import com.aug.flightbooking.application.ports.in.GetAllReservationsUseCase;
 import com.aug.flightbooking.application.results.ReservationResult;
@@ -98,7 +99,7 @@ class ReservationControllerTest {
     }
 
     @Test
-    @DisplayName("GET /api/reservation -> 200 lista")
+    @DisplayName("GET /api/reservation -> 200 primera página sin cursor siguiente")
     void getAllReservations_ok() {
         Reservation r1 = Reservation.fromPersistence(
                 1L, 100L, new PassengerInfo("A","1"),
@@ -107,7 +108,8 @@ class ReservationControllerTest {
                 2L, 200L, new PassengerInfo("B","2"),
                 ReservationStatus.CONFIRMED, Instant.parse("2025-08-12T11:00:00Z"), "");
 
-        when(getAllReservationsUseCase.getAllReservations()).thenReturn(Flux.just(r1, r2));
+        when(getAllReservationsUseCase.searchReservations(new SearchReservationsCommand(null, null, null, 51)))
+                .thenReturn(Flux.just(r1, r2));
 
         ReservationResponse rr1 = new ReservationResponse(1L,100L,"A","1",
                 "CREATED", Instant.parse("2025-08-12T10:00:00Z"));
@@ -119,6 +121,7 @@ class ReservationControllerTest {
         client.get().uri("/api/reservation")
                 .exchange()
                 .expectStatus().isOk()
+                .expectHeader().doesNotExist("X-Next-Cursor")
                 .expectBody()
                 .jsonPath("$[0].id").isEqualTo(1)
                 .jsonPath("$[0].status").isEqualTo("CREATED")
@@ -129,7 +132,7 @@ class ReservationControllerTest {
     @Test
     @DisplayName("GET /api/reservation -> 200 []")
     void getAllReservations_empty() {
-        when(getAllReservationsUseCase.getAllReservations()).thenReturn(Flux.empty());
+        when(getAllReservationsUseCase.searchReservations(any())).thenReturn(Flux.empty());
 
         client.get().uri("/api/reservation")
                 .exchange()
@@ -137,6 +140,55 @@ class ReservationControllerTest {
                 .expectBody().json("[]");
     }
 
+    @Test
+    @DisplayName("GET /api/reservation?status&flightId&cursor&limit -> 200 página con X-Next-Cursor")
+    void getAllReservations_paged_with_next_cursor() {
+        Reservation r11 = Reservation.fromPersistence(
+                11L, 100L, new PassengerInfo("A","1"),
+                ReservationStatus.PENDING, Instant.parse("2025-08-12T10:00:00Z"), "");
+        Reservation r12 = Reservation.fromPersistence(
+                12L, 100L, new PassengerInfo("B","2"),
+                ReservationStatus.PENDING, Instant.parse("2025-08-12T11:00:00Z"), "");
+
+        // limit=1 -> se piden 2 filas; la segunda solo indica que hay más
+        when(getAllReservationsUseCase.searchReservations(
+                new SearchReservationsCommand(ReservationStatus.PENDING, 100L, 10L, 2)))
+                .thenReturn(Flux.just(r11, r12));
+        when(reservationResponseMapper.toResponse(r11)).thenReturn(new ReservationResponse(11L,100L,"A","1",
+                "PENDING", Instant.parse("2025-08-12T10:00:00Z")));
+
+        client.get().uri("/api/reservation?status=PENDING&flightId=100&cursor=10&limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Next-Cursor", "11")
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(11);
+
+        verify(reservationResponseMapper, never()).toResponse(r12);
+    }
+
+    @Test
+    @DisplayName("GET /api/reservation/stream -> NDJSON sin límite")
+    void streamReservations_ndjson() {
+        Reservation r1 = Reservation.fromPersistence(
+                1L, 100L, new PassengerInfo("A","1"),
+                ReservationStatus.CREATED, Instant.parse("2025-08-12T10:00:00Z"), "");
+
+        when(getAllReservationsUseCase.searchReservations(new SearchReservationsCommand(null, 100L, null, null)))
+                .thenReturn(Flux.just(r1));
+        when(reservationResponseMapper.toResponse(r1)).thenReturn(new ReservationResponse(1L,100L,"A","1",
+                "CREATED", Instant.parse("2025-08-12T10:00:00Z")));
+
+        client.get().uri("/api/reservation/stream?flightId=100")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(ReservationResponse.class)
+                .hasSize(1);
+    }
+
     // ===== Validación 400 =====
 
     @Test
@@ -2,6 +2,7 @@ package com.aug.flightbooking.infrastructure.web.controllers;
 
 import com.aug.flightbooking.application.commands.CreateCheckInCommand;
 import com.aug.flightbooking.application.ports.in.CheckInTicketUseCase;
+import com.aug.flightbooking.domain.exceptions.OptimisticConcurrencyException;
 import com.aug.flightbooking.infrastructure.web.dtos.CheckInRequest;
 import com.aug.flightbooking.infrastructure.web.mappers.CheckInCreateMapper;
 import org.junit.jupiter.api.DisplayName;
@@ -26,7 +27,7 @@ import static org.mockito.Mockito.*;
  *
  * Controller bajo prueba:
  *   - POST /api/ticket/checkin
- *   - checkIn(@RequestBody CheckInRequest) -> 202 si ok, 400 si use case falla (onErrorResume)
+ *   - checkIn(@RequestBody CheckInRequest) -> 202 si ok, 409 si hay conflicto de versión, 400 si use case falla
  */
 @WebFluxTest(controllers = TicketCheckInController.class)
 @Import(TicketCheckInControllerTest.Config.class)
@@ -88,4 +89,21 @@ class TicketCheckInControllerTest {
         verify(checkInTicketUseCase, times(1)).checkIn(cmd);
         verifyNoMoreInteractions(checkInCreateMapper, checkInTicketUseCase);
     }
+
+    @Test
+    @DisplayName("POST /api/ticket/checkin -> 409 Conflict cuando el tiquete cambió concurrentemente")
+    void checkIn_version_conflict_returns_409() {
+        CheckInRequest req = new CheckInRequest(7L, 1_800_000_000_000L);
+
+        CreateCheckInCommand cmd = new CreateCheckInCommand(7L, 1_800_000_000_000L);
+        when(checkInCreateMapper.toCommand(any(CheckInRequest.class))).thenReturn(cmd);
+        when(checkInTicketUseCase.checkIn(cmd))
+                .thenReturn(Mono.error(new OptimisticConcurrencyException("Tiquete 7 modificado concurrentemente")));
+
+        client.post().uri("/api/ticket/checkin")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(req)
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
 }